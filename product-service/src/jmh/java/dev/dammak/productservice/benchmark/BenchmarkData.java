@@ -0,0 +1,69 @@
+package dev.dammak.productservice.benchmark;
+
+import dev.dammak.productservice.config.FileUploadConfig;
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.seed.SyntheticCatalogGenerator;
+import dev.dammak.productservice.util.FileUtil;
+import dev.dammak.productservice.util.ImageVariantGenerator;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Payloads shared by the benchmarks. Products come from the synthetic catalog generator, so
+ * they carry the tags, specifications and dimensions of seeded data, and their images use
+ * content-addressed upload URLs so mapping computes the image variants like it does in
+ * production.
+ */
+final class BenchmarkData {
+
+    private static final long SEED = 42;
+    private static final String[] CATEGORY_NAMES = {
+            "Smartphones", "Laptops", "Tablets", "Audio", "Men's Clothing", "Women's Clothing", "Shoes",
+            "Fiction", "Non-Fiction", "Home & Garden", "Sports & Outdoors", "Automotive", "Health & Beauty"
+    };
+
+    private BenchmarkData() {
+    }
+
+    static List<Product> products(int count) {
+        List<Category> categories = new ArrayList<>(CATEGORY_NAMES.length);
+        for (int i = 0; i < CATEGORY_NAMES.length; i++) {
+            categories.add(Category.builder().id(i + 1L).name(CATEGORY_NAMES[i]).active(true).build());
+        }
+
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(SEED, categories);
+        SplittableRandom random = new SplittableRandom(SEED);
+        List<Product> products = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Product product = generator.generate(i);
+            product.setId(i + 1L);
+            List<String> imageUrls = new ArrayList<>(product.getImageUrls().size());
+            for (int image = 0; image < product.getImageUrls().size(); image++) {
+                imageUrls.add(FileUtil.IMAGE_URL_PREFIX + "product-" + product.getId() + "/" + contentHash(random) + ".jpg");
+            }
+            product.setImageUrls(imageUrls);
+            products.add(product);
+        }
+        return products;
+    }
+
+    static ProductMapper productMapper() {
+        // Variant URLs only read the configuration; the executor is never used
+        return new ProductMapper(new ImageVariantGenerator(new FileUploadConfig(), new ThreadPoolTaskExecutor()));
+    }
+
+    // Private helper methods
+    private static String contentHash(SplittableRandom random) {
+        StringBuilder hash = new StringBuilder(64);
+        for (int i = 0; i < 4; i++) {
+            String part = Long.toHexString(random.nextLong());
+            hash.append("0".repeat(16 - part.length())).append(part);
+        }
+        return hash.toString();
+    }
+}
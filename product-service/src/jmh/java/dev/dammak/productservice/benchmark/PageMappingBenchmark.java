@@ -0,0 +1,66 @@
+package dev.dammak.productservice.benchmark;
+
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of whole result pages, at the default and the maximum page size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageMappingBenchmark {
+
+    @Param({"20", "100"})
+    private int pageSize;
+
+    private ProductMapper productMapper;
+    private List<Product> products;
+    private Page<Product> page;
+    private Page<ProductDto> dtoPage;
+
+    @Setup
+    public void setUp() {
+        productMapper = BenchmarkData.productMapper();
+        products = BenchmarkData.products(pageSize);
+        page = new PageImpl<>(products, PageRequest.of(3, pageSize, Sort.by(Sort.Direction.DESC, "createdAt")), 100_000);
+        dtoPage = page.map(productMapper::toDto);
+    }
+
+    @Benchmark
+    public List<ProductDto> toDtoList() {
+        return productMapper.toDtoList(products);
+    }
+
+    @Benchmark
+    public Page<ProductDto> mapPage() {
+        return page.map(productMapper::toDto);
+    }
+
+    @Benchmark
+    public Object mapSummaryPage() {
+        return dtoPage.map(productMapper::toSummaryDto);
+    }
+}
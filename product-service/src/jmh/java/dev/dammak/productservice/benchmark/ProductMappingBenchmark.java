@@ -0,0 +1,56 @@
+package dev.dammak.productservice.benchmark;
+
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.dto.ProductSummaryDto;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a single product, as done on every uncached product read and every write.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    private ProductMapper productMapper;
+    private Product product;
+    private ProductDto productDto;
+
+    @Setup
+    public void setUp() {
+        productMapper = BenchmarkData.productMapper();
+        product = BenchmarkData.products(1).get(0);
+        productDto = productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public ProductDto toDto() {
+        return productMapper.toDto(product);
+    }
+
+    @Benchmark
+    public ProductSummaryDto toSummaryDto() {
+        return productMapper.toSummaryDto(productDto);
+    }
+
+    @Benchmark
+    public Product toEntity() {
+        return productMapper.toEntity(productDto);
+    }
+}
@@ -0,0 +1,93 @@
+package dev.dammak.productservice.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.mapper.ProductMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.Jackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis value round trips of a cached product and of the cached featured list.
+ * <p>
+ * {@code generic} is the serializer the cache manager uses, which writes type information
+ * into every value; {@code typed} binds to the known type instead, for comparison.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedisSerializationBenchmark {
+
+    private static final int FEATURED_COUNT = 20;
+
+    @Param({"generic", "typed"})
+    private String serializer;
+
+    private RedisSerializer<Object> productSerializer;
+    private RedisSerializer<Object> listSerializer;
+    private ProductDto product;
+    private List<ProductDto> featured;
+    private byte[] productBytes;
+    private byte[] featuredBytes;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        if ("generic".equals(serializer)) {
+            productSerializer = (RedisSerializer<Object>) (RedisSerializer<?>) new GenericJackson2JsonRedisSerializer();
+            listSerializer = productSerializer;
+        } else {
+            ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+            JavaType listType = objectMapper.getTypeFactory().constructCollectionType(List.class, ProductDto.class);
+            productSerializer = (RedisSerializer<Object>) (RedisSerializer<?>)
+                    new Jackson2JsonRedisSerializer<>(objectMapper, ProductDto.class);
+            listSerializer = (RedisSerializer<Object>) (RedisSerializer<?>)
+                    new Jackson2JsonRedisSerializer<>(objectMapper, listType);
+        }
+
+        ProductMapper productMapper = BenchmarkData.productMapper();
+        featured = productMapper.toDtoList(BenchmarkData.products(FEATURED_COUNT));
+        product = featured.get(0);
+        productBytes = productSerializer.serialize(product);
+        featuredBytes = listSerializer.serialize(featured);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() {
+        return productSerializer.serialize(product);
+    }
+
+    @Benchmark
+    public Object deserializeProduct() {
+        return productSerializer.deserialize(productBytes);
+    }
+
+    @Benchmark
+    public byte[] serializeFeaturedList() {
+        return listSerializer.serialize(featured);
+    }
+
+    @Benchmark
+    public Object deserializeFeaturedList() {
+        return listSerializer.deserialize(featuredBytes);
+    }
+}
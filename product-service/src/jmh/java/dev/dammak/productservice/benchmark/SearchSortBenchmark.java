@@ -0,0 +1,50 @@
+package dev.dammak.productservice.benchmark;
+
+import dev.dammak.productservice.util.SearchUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sort resolution done for every search and listing request, for a plain field, an alias
+ * that needs normalizing and an unknown field that falls back to the default.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SearchSortBenchmark {
+
+    @Param({"price", "stock_quantity", "popularity"})
+    private String sortBy;
+
+    private Sort sort;
+
+    @Setup
+    public void setUp() {
+        sort = SearchUtil.createSort(sortBy, "desc");
+    }
+
+    @Benchmark
+    public Sort createSort() {
+        return SearchUtil.createSort(sortBy, "desc");
+    }
+
+    @Benchmark
+    public Sort toColumnSort() {
+        return SearchUtil.toColumnSort(sort);
+    }
+}
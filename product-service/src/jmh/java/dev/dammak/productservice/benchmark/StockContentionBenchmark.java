@@ -0,0 +1,123 @@
+package dev.dammak.productservice.benchmark;
+
+import dev.dammak.productservice.inventory.StripedStockCounter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Contention on the in-memory stock front of a hot product: every thread buys one unit at a
+ * time from the same counter, comparing a lock, a single CAS counter and the
+ * {@link StripedStockCounter}. A thread that finds the counter empty tops it up, the way a
+ * quota refill would.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(Threads.MAX)
+@State(Scope.Benchmark)
+public class StockContentionBenchmark {
+
+    private static final int REFILL = 1_000_000;
+
+    @Param({"synchronized", "cas", "striped"})
+    private String counter;
+
+    private StockCounter stock;
+
+    @Setup
+    public void setUp() {
+        stock = switch (counter) {
+            case "synchronized" -> new LockedCounter();
+            case "cas" -> new CasCounter();
+            case "striped" -> new StripedCounter(Runtime.getRuntime().availableProcessors());
+            default -> throw new IllegalArgumentException("Unknown counter: " + counter);
+        };
+        stock.add(REFILL);
+    }
+
+    @Benchmark
+    public boolean reserve() {
+        if (stock.tryAcquire(1)) {
+            return true;
+        }
+        stock.add(REFILL);
+        return false;
+    }
+
+    private interface StockCounter {
+        boolean tryAcquire(int quantity);
+
+        void add(int quantity);
+    }
+
+    private static final class LockedCounter implements StockCounter {
+        private int remaining;
+
+        @Override
+        public synchronized boolean tryAcquire(int quantity) {
+            if (remaining < quantity) {
+                return false;
+            }
+            remaining -= quantity;
+            return true;
+        }
+
+        @Override
+        public synchronized void add(int quantity) {
+            remaining += quantity;
+        }
+    }
+
+    private static final class CasCounter implements StockCounter {
+        private final AtomicInteger remaining = new AtomicInteger();
+
+        @Override
+        public boolean tryAcquire(int quantity) {
+            int current;
+            while ((current = remaining.get()) >= quantity) {
+                if (remaining.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void add(int quantity) {
+            remaining.addAndGet(quantity);
+        }
+    }
+
+    private static final class StripedCounter implements StockCounter {
+        private final StripedStockCounter delegate;
+
+        private StripedCounter(int stripes) {
+            this.delegate = new StripedStockCounter(stripes);
+        }
+
+        @Override
+        public boolean tryAcquire(int quantity) {
+            return delegate.tryAcquire(quantity);
+        }
+
+        @Override
+        public void add(int quantity) {
+            delegate.add(quantity);
+        }
+    }
+}
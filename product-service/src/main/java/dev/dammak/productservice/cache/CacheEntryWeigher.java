@@ -0,0 +1,75 @@
+package dev.dammak.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Weigher;
+import dev.dammak.productservice.dto.CategoryDto;
+import dev.dammak.productservice.dto.ProductDto;
+import org.springframework.cache.Cache.ValueWrapper;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Rough retained-size estimate in bytes for near-cache entries, so the local tier is bounded
+ * by memory rather than entry count. Product entries vary widely with description and
+ * specification length, and list entries such as featured products hold many of them.
+ */
+class CacheEntryWeigher implements Weigher<String, ValueWrapper> {
+
+    private static final int OBJECT_OVERHEAD = 64;
+    private static final int DEFAULT_WEIGHT = 128;
+
+    @Override
+    public int weigh(String key, ValueWrapper value) {
+        long weight = weighString(key) + weighValue(value.get());
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private static long weighValue(Object value) {
+        if (value == null) {
+            return OBJECT_OVERHEAD;
+        }
+        if (value instanceof CachedValue cached) {
+            return OBJECT_OVERHEAD + weighValue(cached.getValue());
+        }
+        if (value instanceof ProductDto product) {
+            return 400
+                    + weighString(product.getName())
+                    + weighString(product.getDescription())
+                    + weighString(product.getBrand())
+                    + weighString(product.getSku())
+                    + weighString(product.getCategoryName())
+                    + weighString(product.getSpecifications())
+                    + weighValue(product.getImageUrls())
+                    + weighValue(product.getImageVariants())
+                    + weighValue(product.getTags());
+        }
+        if (value instanceof CategoryDto category) {
+            return 200 + weighString(category.getName()) + weighString(category.getDescription());
+        }
+        if (value instanceof CachedSearchResult result) {
+            return OBJECT_OVERHEAD + 24L * (result.getIds() != null ? result.getIds().size() : 0);
+        }
+        if (value instanceof String string) {
+            return weighString(string);
+        }
+        if (value instanceof Collection<?> collection) {
+            long weight = OBJECT_OVERHEAD;
+            for (Object element : collection) {
+                weight += weighValue(element);
+            }
+            return weight;
+        }
+        if (value instanceof Map<?, ?> map) {
+            long weight = OBJECT_OVERHEAD;
+            for (Map.Entry<?, ?> entry : map.entrySet()) {
+                weight += 32 + weighValue(entry.getKey()) + weighValue(entry.getValue());
+            }
+            return weight;
+        }
+        return DEFAULT_WEIGHT;
+    }
+
+    private static long weighString(String value) {
+        return value == null ? 0 : 40 + 2L * value.length();
+    }
+}
@@ -0,0 +1,20 @@
+package dev.dammak.productservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * One page of search results as stored by {@link SearchResultCache}: the matching product
+ * ids in result order and the total number of matches. Product data is never cached here.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedSearchResult {
+
+    private List<Long> ids;
+    private long total;
+}
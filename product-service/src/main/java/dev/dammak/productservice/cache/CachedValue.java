@@ -0,0 +1,19 @@
+package dev.dammak.productservice.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Envelope stored by {@link CoalescingCache}: the cached value plus when it expires and how
+ * long it took to compute, which drives probabilistic early refresh.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CachedValue {
+
+    private Object value;
+    private long expiresAt;
+    private long loadMillis;
+}
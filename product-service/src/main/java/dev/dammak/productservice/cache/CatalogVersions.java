@@ -0,0 +1,158 @@
+package dev.dammak.productservice.cache;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Named version tokens of parts of the catalog, shared by all instances through Redis.
+ * <p>
+ * A write replaces the tokens of everything it affects once its transaction has committed
+ * and the caches have been updated, so reading a new token guarantees the caches hold the
+ * new data. Tokens are random rather than counters: a key lost to Redis eviction or a flush
+ * gets a fresh token instead of starting over at a value clients may still hold, which also
+ * lets every key expire when it has not changed for a while. They back the HTTP entity tags
+ * of catalog reads and the keys of cached search results.
+ * <p>
+ * A token that could not be replaced would keep validating entity tags of data that has
+ * changed, so names whose bump fails are retried in the background until Redis takes them.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersions {
+
+    public static final String PRODUCTS = "products";
+    public static final String FEATURED = "featured";
+    public static final String CATEGORIES = "categories";
+
+    private static final String KEY_PREFIX = "catalog-version:";
+    private static final Duration TOKEN_TTL = Duration.ofDays(7);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final Set<String> failedBumps = ConcurrentHashMap.newKeySet();
+
+    public static String product(Long id) {
+        return "product:" + id;
+    }
+
+    /**
+     * Current tokens of the given names, in order, with one Redis round trip in the common
+     * case. Throws when Redis is unavailable.
+     */
+    public List<String> current(List<String> names) {
+        List<String> keys = names.stream().map(name -> KEY_PREFIX + name).toList();
+        List<String> tokens = stringRedisTemplate.opsForValue().multiGet(keys);
+        List<String> current = new ArrayList<>(names.size());
+        for (int i = 0; i < keys.size(); i++) {
+            String token = tokens != null ? tokens.get(i) : null;
+            if (token == null) {
+                // Never written or evicted; whoever initializes it first wins
+                stringRedisTemplate.opsForValue().setIfAbsent(keys.get(i), newToken(), TOKEN_TTL);
+                token = stringRedisTemplate.opsForValue().get(keys.get(i));
+            }
+            current.add(token);
+        }
+        return current;
+    }
+
+    /**
+     * Weak entity tag over the current tokens of the given names, or null when Redis is
+     * unavailable and the response should go out without one.
+     */
+    public String eTag(String... names) {
+        try {
+            return "W/\"" + String.join("-", current(List.of(names))) + "\"";
+        } catch (RuntimeException e) {
+            log.warn("Catalog versions unavailable, responding without an entity tag: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Replaces the tokens of the given names once the current transaction commits, or right
+     * away outside of one. All names of a transaction are replaced together in one pipeline.
+     */
+    public void bumpAfterCommit(Collection<String> names) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump(new LinkedHashSet<>(names));
+            return;
+        }
+
+        // Collect the names of the whole transaction so a batch bumps each one once
+        @SuppressWarnings("unchecked")
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            Set<String> transactionNames = new LinkedHashSet<>();
+            pending = transactionNames;
+            TransactionSynchronizationManager.bindResource(this, transactionNames);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(CatalogVersions.this);
+                    // Runs after every afterCommit callback, so the transaction aware caches are already updated
+                    if (status == STATUS_COMMITTED) {
+                        bump(transactionNames);
+                    }
+                }
+            });
+        }
+        pending.addAll(names);
+    }
+
+    /**
+     * Bumps the names whose bump failed earlier.
+     */
+    @Scheduled(fixedDelayString = "${app.cache.catalog-version-retry-interval-ms:1000}")
+    public void retryFailedBumps() {
+        if (failedBumps.isEmpty()) {
+            return;
+        }
+        // Take the names out first so a bump failing meanwhile stays queued
+        Set<String> names = new LinkedHashSet<>();
+        failedBumps.removeIf(names::add);
+        bump(names);
+    }
+
+    // Private helper methods
+    private void bump(Set<String> names) {
+        if (names.isEmpty()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                for (String name : names) {
+                    connection.stringCommands().set((KEY_PREFIX + name).getBytes(StandardCharsets.UTF_8),
+                            newToken().getBytes(StandardCharsets.UTF_8),
+                            Expiration.from(TOKEN_TTL), RedisStringCommands.SetOption.upsert());
+                }
+                return null;
+            });
+            log.debug("Bumped catalog versions {}", names);
+        } catch (RuntimeException e) {
+            failedBumps.addAll(names);
+            log.error("Failed to bump catalog versions {}, retrying: {}", names, e.getMessage());
+        }
+    }
+
+    private static String newToken() {
+        return Long.toString(ThreadLocalRandom.current().nextLong() & Long.MAX_VALUE, Character.MAX_RADIX);
+    }
+}
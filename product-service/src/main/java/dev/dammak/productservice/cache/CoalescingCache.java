@@ -0,0 +1,251 @@
+package dev.dammak.productservice.cache;
+
+import dev.dammak.productservice.config.CacheStampedeConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Protects a cache against stampedes on hot keys.
+ * <p>
+ * Synchronized lookups ({@code @Cacheable(sync = true)}) that miss share a single in-flight
+ * load per key, so an expired entry is recomputed once no matter how many requests are
+ * waiting for it. Hits may also trigger an early refresh before the entry expires: each
+ * caller refreshes with a probability that grows as expiry approaches, scaled by how long
+ * the value took to compute (XFetch). Values are stored wrapped in a {@link CachedValue}
+ * and unwrapped transparently on read.
+ */
+@Slf4j
+public class CoalescingCache implements Cache, MultiGetCache {
+
+    private final Cache delegate;
+    private final Duration ttl;
+    private final CacheStampedeConfig config;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter coalescedRequests;
+    private final Counter refreshAheadHits;
+    private final Counter loads;
+
+    public CoalescingCache(Cache delegate, Duration ttl, CacheStampedeConfig config, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.ttl = ttl;
+        this.config = config;
+        this.coalescedRequests = Counter.builder("cache.coalesced.requests")
+                .description("Cache misses served by another request's in-flight load")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.refreshAheadHits = Counter.builder("cache.refresh.ahead")
+                .description("Cache hits that refreshed the entry before it expired")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+        this.loads = Counter.builder("cache.loads")
+                .description("Values computed by the cache loader")
+                .tag("cache", delegate.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        return wrapper.get() instanceof CachedValue cached ? new SimpleValueWrapper(cached.getValue()) : wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException("Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper == null) {
+            return (T) loadOnce(key, valueLoader);
+        }
+
+        Object stored = wrapper.get();
+        if (stored instanceof CachedValue cached) {
+            if (shouldRefreshEarly(cached)) {
+                return (T) refreshAhead(key, valueLoader, cached.getValue());
+            }
+            return (T) cached.getValue();
+        }
+        return (T) stored;
+    }
+
+    @Override
+    public Map<Object, Object> getAll(Collection<?> keys) {
+        // Reads are not deferred by the transaction-aware decorator, so look past it
+        Cache target = delegate instanceof TransactionAwareCacheDecorator decorator ? decorator.getTargetCache() : delegate;
+        Map<Object, Object> found;
+        if (target instanceof MultiGetCache multiGetCache) {
+            found = multiGetCache.getAll(keys);
+        } else {
+            found = new HashMap<>(keys.size() * 2);
+            for (Object key : keys) {
+                ValueWrapper wrapper = target.get(key);
+                if (wrapper != null) {
+                    found.put(key, wrapper.get());
+                }
+            }
+        }
+        found.replaceAll((key, value) -> unwrap(value));
+        return found;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, wrap(value, 0));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = delegate.putIfAbsent(key, wrap(value, 0));
+        if (existing == null) {
+            return null;
+        }
+        return existing.get() instanceof CachedValue cached ? new SimpleValueWrapper(cached.getValue()) : existing;
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    // Private helper methods
+    private Object loadOnce(Object key, Callable<?> valueLoader) {
+        CompletableFuture<Object> load = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, load);
+        if (existing != null) {
+            coalescedRequests.increment();
+            return await(existing, key, valueLoader);
+        }
+
+        try {
+            // Another load may have completed between our miss and taking the slot
+            ValueWrapper wrapper = delegate.get(key);
+            Object value = wrapper != null ? unwrap(wrapper.get()) : load(key, valueLoader);
+            load.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, load);
+        }
+    }
+
+    private Object refreshAhead(Object key, Callable<?> valueLoader, Object current) {
+        CompletableFuture<Object> refresh = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(key, refresh) != null) {
+            // Someone is already refreshing; the current value is still valid
+            return current;
+        }
+
+        refreshAheadHits.increment();
+        try {
+            Object value = load(key, valueLoader);
+            refresh.complete(value);
+            return value;
+        } catch (RuntimeException e) {
+            refresh.complete(current);
+            log.warn("Early refresh of {}::{} failed, serving cached value: {}", getName(), key, e.getMessage());
+            return current;
+        } finally {
+            inFlight.remove(key, refresh);
+        }
+    }
+
+    private Object load(Object key, Callable<?> valueLoader) {
+        long start = System.nanoTime();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        loads.increment();
+        delegate.put(key, wrap(value, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+        return value;
+    }
+
+    private static Object await(CompletableFuture<Object> load, Object key, Callable<?> valueLoader) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() instanceof ValueRetrievalException retrieval && retrieval.getCause() != null
+                    ? retrieval.getCause()
+                    : e.getCause();
+            throw new ValueRetrievalException(key, valueLoader, cause);
+        }
+    }
+
+    private boolean shouldRefreshEarly(CachedValue cached) {
+        double recomputeMillis = Math.max(cached.getLoadMillis(), config.getMinimumRecomputeTime().toMillis());
+        double random = ThreadLocalRandom.current().nextDouble();
+        // -ln(random) is exponentially distributed, so refreshes cluster just before expiry
+        return System.currentTimeMillis() - recomputeMillis * config.getEarlyRefreshBeta() * Math.log(random)
+                >= cached.getExpiresAt();
+    }
+
+    private CachedValue wrap(Object value, long loadMillis) {
+        return new CachedValue(value, System.currentTimeMillis() + ttl.toMillis(), loadMillis);
+    }
+
+    private static Object unwrap(Object stored) {
+        return stored instanceof CachedValue cached ? cached.getValue() : stored;
+    }
+}
@@ -0,0 +1,39 @@
+package dev.dammak.productservice.cache;
+
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.entity.Product;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Evicts second-level cache entries that changed through another instance. Hibernate keeps the
+ * regions current for writes made here; these calls cover the rest, driven by the catalog
+ * event stream and the periodic category tree reload.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityCacheEvictor {
+
+    private static final String PRODUCT_TAGS_ROLE = Product.class.getName() + ".tags";
+    private static final String PRODUCT_IMAGES_ROLE = Product.class.getName() + ".imageUrls";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public void evictProductCollections(Long productId) {
+        Cache cache = cache();
+        cache.evictCollectionData(PRODUCT_TAGS_ROLE, productId);
+        cache.evictCollectionData(PRODUCT_IMAGES_ROLE, productId);
+    }
+
+    public void evictCategories() {
+        cache().evictEntityData(Category.class);
+    }
+
+    // Private helper methods
+    private Cache cache() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getCache();
+    }
+}
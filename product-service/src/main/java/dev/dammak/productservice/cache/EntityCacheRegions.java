@@ -0,0 +1,15 @@
+package dev.dammak.productservice.cache;
+
+/**
+ * Names of the Hibernate second-level cache regions. Each one is created with its own bounds
+ * by the JCache manager in {@code HibernateCacheConfig}, and the names tag the region metrics.
+ */
+public final class EntityCacheRegions {
+
+    public static final String CATEGORIES = "entity.categories";
+    public static final String PRODUCT_TAGS = "entity.product-tags";
+    public static final String PRODUCT_IMAGES = "entity.product-images";
+
+    private EntityCacheRegions() {
+    }
+}
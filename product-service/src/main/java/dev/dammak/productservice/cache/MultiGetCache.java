@@ -0,0 +1,16 @@
+package dev.dammak.productservice.cache;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Cache that can look up many keys in one round trip.
+ */
+public interface MultiGetCache {
+
+    /**
+     * Returns the cached values of the keys that are present, keyed by the requested key.
+     * Missing keys are simply absent from the result.
+     */
+    Map<Object, Object> getAll(Collection<?> keys);
+}
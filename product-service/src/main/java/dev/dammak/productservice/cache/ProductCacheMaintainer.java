@@ -0,0 +1,152 @@
+package dev.dammak.productservice.cache;
+
+import dev.dammak.productservice.dto.ProductDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Applies catalog writes to the product caches entry by entry instead of wiping whole caches.
+ * <p>
+ * Only the affected {@code products::{id}} entry is refreshed or evicted, and the cached
+ * {@code featuredProducts} list is patched in place when the product enters, leaves or is
+ * already part of the featured set. The caches are transaction aware, so every change here
+ * only becomes visible once the surrounding transaction commits; the matching
+ * {@link CatalogVersions} are bumped right after, so entity tags handed out earlier stop
+ * matching. Batch reads go through {@link #getCachedProducts(Collection)} so many ids cost
+ * one cache round trip.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductCacheMaintainer {
+
+    public static final String PRODUCTS_CACHE = "products";
+    public static final String FEATURED_PRODUCTS_CACHE = "featuredProducts";
+
+    private final CacheManager cacheManager;
+    private final CatalogVersions catalogVersions;
+
+    public void productCreated(ProductDto created) {
+        // A new id cannot be cached yet; only the featured list may need it
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.PRODUCTS));
+        updateFeaturedList(false, created);
+    }
+
+    public void productUpdated(boolean wasFeatured, ProductDto updated) {
+        cache(PRODUCTS_CACHE).put(updated.getId(), updated);
+        productChanged(updated.getId());
+        updateFeaturedList(wasFeatured, updated);
+    }
+
+    public void evictProduct(Long id) {
+        cache(PRODUCTS_CACHE).evict(id);
+        productChanged(id);
+    }
+
+    public void productDeleted(boolean wasFeatured, ProductDto deleted) {
+        cache(PRODUCTS_CACHE).evict(deleted.getId());
+        productChanged(deleted.getId());
+        updateFeaturedList(wasFeatured, deleted);
+    }
+
+    /**
+     * Invalidates the catalog-wide entries after products were written in bulk outside of the
+     * service layer. The featured list is dropped rather than patched.
+     */
+    public void productsCreatedInBulk() {
+        cache(FEATURED_PRODUCTS_CACHE).evict(SimpleKey.EMPTY);
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.PRODUCTS, CatalogVersions.FEATURED));
+    }
+
+    /**
+     * Drops every cached product after a category was renamed, since products carry the
+     * name of their category.
+     */
+    public void categoryRenamed() {
+        cache(PRODUCTS_CACHE).clear();
+        cache(FEATURED_PRODUCTS_CACHE).clear();
+    }
+
+    /**
+     * Looks up many products in the product cache at once. Ids that are not cached are
+     * absent from the result.
+     */
+    public Map<Long, ProductDto> getCachedProducts(Collection<Long> ids) {
+        Cache productsCache = cache(PRODUCTS_CACHE);
+        Map<Long, ProductDto> cached = new HashMap<>(ids.size() * 2);
+        if (productsCache instanceof MultiGetCache multiGetCache) {
+            multiGetCache.getAll(ids).forEach((key, value) -> {
+                if (value instanceof ProductDto product) {
+                    cached.put((Long) key, product);
+                }
+            });
+            return cached;
+        }
+
+        for (Long id : ids) {
+            ProductDto product = productsCache.get(id, ProductDto.class);
+            if (product != null) {
+                cached.put(id, product);
+            }
+        }
+        return cached;
+    }
+
+    public void cacheProducts(Collection<ProductDto> products) {
+        Cache productsCache = cache(PRODUCTS_CACHE);
+        products.forEach(product -> productsCache.put(product.getId(), product));
+    }
+
+    public static boolean isFeatured(Boolean featured, Boolean active) {
+        return Boolean.TRUE.equals(featured) && Boolean.TRUE.equals(active);
+    }
+
+    // Private helper methods
+    private void productChanged(Long id) {
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.product(id), CatalogVersions.PRODUCTS));
+    }
+
+    private void updateFeaturedList(boolean wasFeatured, ProductDto product) {
+        boolean isFeatured = isFeatured(product.getFeatured(), product.getActive());
+        if (!wasFeatured && !isFeatured) {
+            return;
+        }
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.FEATURED));
+
+        Cache featuredCache = cache(FEATURED_PRODUCTS_CACHE);
+        List<?> cached = featuredCache.get(SimpleKey.EMPTY, List.class);
+        if (cached == null) {
+            // Nothing cached; the next read loads the list from the database
+            return;
+        }
+
+        List<Object> featured = new ArrayList<>(cached.size() + 1);
+        for (Object entry : cached) {
+            if (!(entry instanceof ProductDto dto) || !Objects.equals(dto.getId(), product.getId())) {
+                featured.add(entry);
+            }
+        }
+        if (isFeatured) {
+            featured.add(product);
+        }
+
+        featuredCache.put(SimpleKey.EMPTY, featured);
+        log.debug("Patched featured products cache for product {} (was featured: {}, is featured: {})",
+                product.getId(), wasFeatured, isFeatured);
+    }
+
+    private Cache cache(String name) {
+        return Objects.requireNonNull(cacheManager.getCache(name), "Cache not configured: " + name);
+    }
+}
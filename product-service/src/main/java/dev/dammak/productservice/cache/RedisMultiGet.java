@@ -0,0 +1,57 @@
+package dev.dammak.productservice.cache;
+
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheConfiguration;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.util.ByteUtils;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads many entries of a {@link RedisCache} with a single {@code MGET}, using the cache's own
+ * key prefix and value serializer so the entries are the ones written by {@code RedisCache}.
+ */
+final class RedisMultiGet {
+
+    private RedisMultiGet() {
+    }
+
+    static Map<Object, Object> getAll(RedisConnectionFactory connectionFactory, RedisCache cache, Collection<?> keys) {
+        if (keys.isEmpty()) {
+            return new HashMap<>();
+        }
+
+        RedisCacheConfiguration configuration = cache.getCacheConfiguration();
+        String prefix = configuration.getKeyPrefixFor(cache.getName());
+        List<Object> keyList = new ArrayList<>(keys);
+        byte[][] rawKeys = new byte[keyList.size()][];
+        for (int i = 0; i < keyList.size(); i++) {
+            rawKeys[i] = ByteUtils.getBytes(configuration.getKeySerializationPair().write(prefix + keyList.get(i)));
+        }
+
+        List<byte[]> rawValues;
+        try (RedisConnection connection = connectionFactory.getConnection()) {
+            rawValues = connection.stringCommands().mGet(rawKeys);
+        }
+
+        Map<Object, Object> found = new HashMap<>(keyList.size() * 2);
+        for (int i = 0; rawValues != null && i < rawValues.size(); i++) {
+            byte[] rawValue = rawValues.get(i);
+            if (rawValue == null) {
+                continue;
+            }
+            Object value = configuration.getValueSerializationPair().read(ByteBuffer.wrap(rawValue));
+            if (value != null && !(value instanceof NullValue)) {
+                found.put(keyList.get(i), value);
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,183 @@
+package dev.dammak.productservice.cache;
+
+import dev.dammak.productservice.config.SearchConfig;
+import dev.dammak.productservice.dto.ProductSearchDto;
+import dev.dammak.productservice.enums.SearchBackend;
+import dev.dammak.productservice.util.SearchUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Caches the product ids of search result pages under a canonical form of the request, so
+ * equivalent requests ("iPhone " and "iphone", brand "APPLE" and "apple") share one entry.
+ * Only ids and the total are stored; cards are hydrated from the product cache.
+ * <p>
+ * Entries are invalidated by tag. Each request carries the tags of its category and brand
+ * filters ({@code any} when it has neither), plus {@code stock} when stock decides which
+ * products match or how they sort. Every tag has a {@link CatalogVersions} token that is part
+ * of the cache key. A catalog change bumps the tokens of the tags it can affect once its
+ * transaction commits, which orphans the old entries on every instance; they age out with
+ * the cache TTL.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SearchResultCache {
+
+    public static final String SEARCH_RESULTS_CACHE = "searchResults";
+
+    private static final String TAG_PREFIX = "search:";
+    private static final String ANY_TAG = "any";
+    private static final String STOCK_TAG = "stock";
+
+    private final CacheManager cacheManager;
+    private final CatalogVersions catalogVersions;
+    private final SearchConfig searchConfig;
+
+    /**
+     * Cache key for a search request, or null when the result must not be cached.
+     */
+    public String keyFor(ProductSearchDto searchDto, SearchBackend backend) {
+        if (!searchConfig.isResultCacheEnabled()) {
+            return null;
+        }
+
+        String canonical = canonicalForm(searchDto, backend);
+        List<String> tags = tagsFor(searchDto);
+        try {
+            List<String> versions = catalogVersions.current(tags.stream().map(tag -> TAG_PREFIX + tag).toList());
+            StringBuilder key = new StringBuilder(canonical);
+            for (int i = 0; i < tags.size(); i++) {
+                key.append('|').append(tags.get(i)).append('@').append(versions.get(i));
+            }
+            return key.toString();
+        } catch (RuntimeException e) {
+            log.warn("Search result cache unavailable, searching uncached: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    public CachedSearchResult get(String key) {
+        if (key == null) {
+            return null;
+        }
+        return cache().get(key, CachedSearchResult.class);
+    }
+
+    public void put(String key, List<Long> ids, long total) {
+        if (key != null) {
+            cache().put(key, new CachedSearchResult(new ArrayList<>(ids), total));
+        }
+    }
+
+    /**
+     * Invalidates every cached search a product in this category and brand can appear in.
+     * Call it with the old and the new values when either changes.
+     */
+    public void productChanged(Long categoryId, String brand) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(ANY_TAG);
+        if (categoryId != null) {
+            tags.add(categoryTag(categoryId));
+        }
+        if (StringUtils.hasText(brand)) {
+            tags.add(brandTag(brand));
+        }
+        bumpAfterCommit(tags);
+    }
+
+    /**
+     * Invalidates every cached search products in these categories and brands can appear in,
+     * for writes that touch many products at once.
+     */
+    public void productsChanged(Collection<Long> categoryIds, Collection<String> brands) {
+        Set<String> tags = new LinkedHashSet<>();
+        tags.add(ANY_TAG);
+        categoryIds.forEach(categoryId -> tags.add(categoryTag(categoryId)));
+        brands.forEach(brand -> tags.add(brandTag(brand)));
+        bumpAfterCommit(tags);
+    }
+
+    /**
+     * Invalidates cached searches whose matches or order depend on stock levels.
+     */
+    public void stockChanged() {
+        bumpAfterCommit(Set.of(STOCK_TAG));
+    }
+
+    // Private helper methods
+    private static String canonicalForm(ProductSearchDto searchDto, SearchBackend backend) {
+        boolean relevance = SearchUtil.isRelevanceSort(searchDto.getSortBy());
+        return String.join("|",
+                backend.name(),
+                "q=" + String.join(" ", SearchUtil.tokenize(searchDto.getKeyword())),
+                "c=" + Objects.toString(searchDto.getCategoryId(), ""),
+                "b=" + normalizeBrand(searchDto.getBrand()),
+                "min=" + canonicalPrice(searchDto.getMinPrice()),
+                "max=" + canonicalPrice(searchDto.getMaxPrice()),
+                "f=" + Boolean.TRUE.equals(searchDto.getFeatured()),
+                "s=" + Boolean.TRUE.equals(searchDto.getInStock()),
+                "sort=" + (relevance ? "relevance" : SearchUtil.validateAndGetSortField(searchDto.getSortBy())),
+                "dir=" + ("desc".equalsIgnoreCase(searchDto.getSortDirection()) ? "desc" : "asc"),
+                "p=" + Math.max(0, searchDto.getPage()),
+                "n=" + Math.min(Math.max(1, searchDto.getSize()), 100));
+    }
+
+    private static List<String> tagsFor(ProductSearchDto searchDto) {
+        List<String> tags = new ArrayList<>(3);
+        if (searchDto.getCategoryId() != null) {
+            tags.add(categoryTag(searchDto.getCategoryId()));
+        }
+        if (StringUtils.hasText(searchDto.getBrand())) {
+            tags.add(brandTag(searchDto.getBrand()));
+        }
+        if (tags.isEmpty()) {
+            tags.add(ANY_TAG);
+        }
+        if (Boolean.TRUE.equals(searchDto.getInStock())
+                || "stockQuantity".equals(SearchUtil.validateAndGetSortField(searchDto.getSortBy()))) {
+            tags.add(STOCK_TAG);
+        }
+        return tags;
+    }
+
+    private static String categoryTag(Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    private static String brandTag(String brand) {
+        return "brand:" + normalizeBrand(brand);
+    }
+
+    private static String normalizeBrand(String brand) {
+        return brand == null ? "" : brand.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String canonicalPrice(BigDecimal price) {
+        return price == null ? "" : price.stripTrailingZeros().toPlainString();
+    }
+
+    private void bumpAfterCommit(Set<String> tags) {
+        if (searchConfig.isResultCacheEnabled()) {
+            catalogVersions.bumpAfterCommit(tags.stream().map(tag -> TAG_PREFIX + tag).toList());
+        }
+    }
+
+    private Cache cache() {
+        return Objects.requireNonNull(cacheManager.getCache(SEARCH_RESULTS_CACHE),
+                "Cache not configured: " + SEARCH_RESULTS_CACHE);
+    }
+}
@@ -0,0 +1,133 @@
+package dev.dammak.productservice.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import dev.dammak.productservice.config.NearCacheConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.data.redis.cache.RedisCache;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Wraps every Redis cache in a {@link TwoLevelCache} and keeps the local tiers of all replicas
+ * coherent through a Redis pub/sub channel.
+ * <p>
+ * Message format: {@code instanceId|cacheName|op|key} where op is {@code E} (evict key) or
+ * {@code C} (clear cache). Messages sent by this instance are ignored on receipt.
+ */
+@Slf4j
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+
+    private static final String EVICT = "E";
+    private static final String CLEAR = "C";
+
+    private final RedisCacheManager redisCacheManager;
+    private final StringRedisTemplate redisTemplate;
+    private final NearCacheConfig nearCacheConfig;
+    private final MeterRegistry meterRegistry;
+    private final boolean transactionAware;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Cache> decoratedCaches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager,
+                                StringRedisTemplate redisTemplate,
+                                NearCacheConfig nearCacheConfig,
+                                MeterRegistry meterRegistry,
+                                boolean transactionAware) {
+        this.redisCacheManager = redisCacheManager;
+        this.redisTemplate = redisTemplate;
+        this.nearCacheConfig = nearCacheConfig;
+        this.meterRegistry = meterRegistry;
+        this.transactionAware = transactionAware;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return decoratedCaches.computeIfAbsent(name, cacheName -> {
+            TwoLevelCache cache = caches.computeIfAbsent(cacheName, this::createCache);
+            // Defer puts and evictions until the surrounding transaction commits
+            return transactionAware ? new TransactionAwareCacheDecorator(cache) : cache;
+        });
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\\|", 4);
+        if (parts.length != 4 || instanceId.equals(parts[0])) {
+            return;
+        }
+
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (CLEAR.equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[3]);
+        }
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Cache.ValueWrapper> local = Caffeine.newBuilder()
+                .maximumWeight(nearCacheConfig.getMaximumWeightBytes())
+                .weigher(new CacheEntryWeigher())
+                .expireAfterWrite(nearCacheConfig.getTtl())
+                .recordStats()
+                .build();
+
+        if (meterRegistry != null) {
+            CaffeineCacheMetrics.monitor(meterRegistry, local, name, "tier", "local");
+        }
+
+        log.info("Created two-level cache '{}'", name);
+        Cache remote = redisCacheManager.getCache(name);
+        return new TwoLevelCache(name, local, remote, this::publishInvalidation, keys -> remoteGetAll(remote, keys));
+    }
+
+    private Map<Object, Object> remoteGetAll(Cache remote, Collection<?> keys) {
+        if (remote instanceof RedisCache redisCache && redisTemplate.getConnectionFactory() != null) {
+            return RedisMultiGet.getAll(redisTemplate.getConnectionFactory(), redisCache, keys);
+        }
+        Map<Object, Object> found = new HashMap<>();
+        for (Object key : keys) {
+            Cache.ValueWrapper wrapper = remote.get(key);
+            if (wrapper != null) {
+                found.put(key, wrapper.get());
+            }
+        }
+        return found;
+    }
+
+    private void publishInvalidation(String cacheName, String key) {
+        String message = instanceId + "|" + cacheName + "|" + (key == null ? CLEAR : EVICT) + "|" + (key == null ? "" : key);
+        try {
+            redisTemplate.convertAndSend(nearCacheConfig.getInvalidationChannel(), message);
+        } catch (Exception e) {
+            // Remote L1 copies still expire after the near-cache TTL
+            log.warn("Failed to publish cache invalidation for {}::{}: {}", cacheName, key, e.getMessage());
+        }
+    }
+}
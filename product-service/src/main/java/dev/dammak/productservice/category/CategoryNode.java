@@ -0,0 +1,37 @@
+package dev.dammak.productservice.category;
+
+import dev.dammak.productservice.entity.Category;
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Immutable copy of a category's own columns, held by a {@link CategoryTree} snapshot.
+ */
+@Value
+@Builder
+public class CategoryNode {
+
+    Long id;
+    String name;
+    String description;
+    Long parentId;
+    Integer displayOrder;
+    boolean active;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static CategoryNode from(Category category) {
+        return CategoryNode.builder()
+                .id(category.getId())
+                .name(category.getName())
+                .description(category.getDescription())
+                .parentId(category.getParentId())
+                .displayOrder(category.getDisplayOrder())
+                .active(Boolean.TRUE.equals(category.getActive()))
+                .createdAt(category.getCreatedAt())
+                .updatedAt(category.getUpdatedAt())
+                .build();
+    }
+}
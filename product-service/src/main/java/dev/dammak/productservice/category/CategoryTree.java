@@ -0,0 +1,261 @@
+package dev.dammak.productservice.category;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Immutable, versioned snapshot of the category hierarchy.
+ * <p>
+ * Categories are laid out in pre-order, so every subtree is a contiguous slice of that
+ * order: a node at position {@code i} owns positions {@code i + 1} up to {@code subtreeEnd[i]}.
+ * Ancestry checks are two integer comparisons, descendants are read straight off the slice
+ * and breadcrumbs follow precomputed parent positions. Siblings are ordered by display order,
+ * then id. A snapshot is never modified; changes are published by building a new one.
+ */
+@Slf4j
+public final class CategoryTree {
+
+    private static final Comparator<CategoryNode> SIBLING_ORDER = Comparator
+            .comparing(CategoryNode::getDisplayOrder, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(CategoryNode::getId);
+
+    private final long version;
+    private final CategoryNode[] nodes;
+    private final int[] parents;
+    private final int[] subtreeEnds;
+    private final Map<Long, Integer> positions;
+    private final Map<String, Integer> positionsByName;
+    private final List<List<CategoryNode>> children;
+    private final List<CategoryNode> roots;
+    private final String fingerprint;
+
+    private CategoryTree(long version, CategoryNode[] nodes, int[] parents, int[] subtreeEnds,
+                         Map<Long, Integer> positions, List<List<CategoryNode>> children, List<CategoryNode> roots) {
+        this.version = version;
+        this.nodes = nodes;
+        this.parents = parents;
+        this.subtreeEnds = subtreeEnds;
+        this.positions = positions;
+        this.positionsByName = new HashMap<>(positions.size() * 2);
+        for (int i = 0; i < nodes.length; i++) {
+            if (nodes[i].getName() != null) {
+                positionsByName.put(nodes[i].getName().toLowerCase(), i);
+            }
+        }
+        this.children = children;
+        this.roots = roots;
+
+        long hash = nodes.length;
+        for (CategoryNode node : nodes) {
+            hash = hash * 1_000_003 + node.hashCode();
+        }
+        this.fingerprint = Long.toString(hash & Long.MAX_VALUE, Character.MAX_RADIX);
+    }
+
+    public static CategoryTree empty() {
+        return build(0, List.of());
+    }
+
+    /**
+     * Builds a snapshot from every category. Categories whose parent does not exist are treated
+     * as roots; a parent cycle is broken at its lowest id.
+     */
+    public static CategoryTree build(long version, Collection<CategoryNode> categories) {
+        Map<Long, CategoryNode> byId = new HashMap<>(categories.size() * 2);
+        categories.forEach(node -> byId.put(node.getId(), node));
+
+        Map<Long, List<CategoryNode>> childrenByParent = new HashMap<>();
+        List<CategoryNode> topLevel = new ArrayList<>();
+        for (CategoryNode node : categories) {
+            if (node.getParentId() == null || !byId.containsKey(node.getParentId())) {
+                topLevel.add(node);
+            } else {
+                childrenByParent.computeIfAbsent(node.getParentId(), id -> new ArrayList<>()).add(node);
+            }
+        }
+        topLevel.sort(SIBLING_ORDER);
+        childrenByParent.values().forEach(list -> list.sort(SIBLING_ORDER));
+
+        Layout layout = new Layout(categories.size(), childrenByParent);
+        topLevel.forEach(root -> layout.visit(root, -1));
+
+        if (layout.size < categories.size()) {
+            // Whatever was not reached from a root hangs off a parent cycle
+            List<CategoryNode> unreached = categories.stream()
+                    .filter(node -> !layout.positions.containsKey(node.getId()))
+                    .sorted(Comparator.comparing(CategoryNode::getId))
+                    .toList();
+            log.warn("Category parent cycle detected among ids {}", unreached.stream().map(CategoryNode::getId).toList());
+            for (CategoryNode node : unreached) {
+                if (!layout.positions.containsKey(node.getId())) {
+                    topLevel.add(node);
+                    layout.visit(node, -1);
+                }
+            }
+        }
+
+        List<List<CategoryNode>> children = new ArrayList<>(layout.size);
+        for (int i = 0; i < layout.size; i++) {
+            List<CategoryNode> list = childrenByParent.get(layout.nodes[i].getId());
+            children.add(list == null ? List.of() : Collections.unmodifiableList(list));
+        }
+        return new CategoryTree(version, layout.nodes, layout.parents, layout.subtreeEnds,
+                Map.copyOf(layout.positions), children, List.copyOf(topLevel));
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Hash over every category's columns in tree order. Unlike the version it is the same on
+     * every instance holding the same categories, so it can serve as an entity tag.
+     */
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public int size() {
+        return nodes.length;
+    }
+
+    public Optional<CategoryNode> find(Long id) {
+        Integer position = id == null ? null : positions.get(id);
+        return position == null ? Optional.empty() : Optional.of(nodes[position]);
+    }
+
+    /**
+     * Looks a category up by name, ignoring case as category names are unique that way.
+     */
+    public Optional<CategoryNode> findByName(String name) {
+        Integer position = name == null ? null : positionsByName.get(name.toLowerCase());
+        return position == null ? Optional.empty() : Optional.of(nodes[position]);
+    }
+
+    public boolean contains(Long id) {
+        return id != null && positions.containsKey(id);
+    }
+
+    public Optional<CategoryNode> parent(Long id) {
+        Integer position = positions.get(id);
+        if (position == null || parents[position] == -1) {
+            return Optional.empty();
+        }
+        return Optional.of(nodes[parents[position]]);
+    }
+
+    /**
+     * Direct children of a category in display order, or the top-level categories for null.
+     */
+    public List<CategoryNode> children(Long parentId) {
+        if (parentId == null) {
+            return roots;
+        }
+        Integer position = positions.get(parentId);
+        return position == null ? List.of() : children.get(position);
+    }
+
+    /**
+     * All categories below the given one in pre-order, optionally skipping inactive
+     * categories together with everything underneath them.
+     */
+    public List<CategoryNode> descendants(Long id, boolean activeOnly) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            return List.of();
+        }
+        List<CategoryNode> result = new ArrayList<>(subtreeEnds[position] - position - 1);
+        for (int i = position + 1; i < subtreeEnds[position]; ) {
+            if (activeOnly && !nodes[i].isActive()) {
+                i = subtreeEnds[i];
+                continue;
+            }
+            result.add(nodes[i]);
+            i++;
+        }
+        return result;
+    }
+
+    /**
+     * Ids of a category and its descendants, for queries that span a whole subtree. Unknown
+     * categories yield an empty list.
+     */
+    public List<Long> subtreeIds(Long id, boolean activeOnly) {
+        if (!contains(id)) {
+            return List.of();
+        }
+        List<CategoryNode> descendants = descendants(id, activeOnly);
+        List<Long> ids = new ArrayList<>(descendants.size() + 1);
+        ids.add(id);
+        descendants.forEach(node -> ids.add(node.getId()));
+        return ids;
+    }
+
+    /**
+     * Path from the top-level category down to and including the given one.
+     */
+    public List<CategoryNode> breadcrumb(Long id) {
+        Integer position = positions.get(id);
+        if (position == null) {
+            return List.of();
+        }
+        List<CategoryNode> path = new ArrayList<>();
+        for (int i = position; i != -1; i = parents[i]) {
+            path.add(nodes[i]);
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Whether {@code ancestorId} lies strictly above {@code id} in the hierarchy.
+     */
+    public boolean isAncestor(Long ancestorId, Long id) {
+        Integer ancestor = positions.get(ancestorId);
+        Integer position = positions.get(id);
+        return ancestor != null && position != null
+                && position > ancestor && position < subtreeEnds[ancestor];
+    }
+
+    /**
+     * Pre-order layout state used while building a snapshot.
+     */
+    private static final class Layout {
+
+        private final CategoryNode[] nodes;
+        private final int[] parents;
+        private final int[] subtreeEnds;
+        private final Map<Long, Integer> positions;
+        private final Map<Long, List<CategoryNode>> childrenByParent;
+        private int size;
+
+        private Layout(int capacity, Map<Long, List<CategoryNode>> childrenByParent) {
+            this.nodes = new CategoryNode[capacity];
+            this.parents = new int[capacity];
+            this.subtreeEnds = new int[capacity];
+            this.positions = new HashMap<>(capacity * 2);
+            this.childrenByParent = childrenByParent;
+        }
+
+        private void visit(CategoryNode node, int parent) {
+            int position = size++;
+            nodes[position] = node;
+            parents[position] = parent;
+            positions.put(node.getId(), position);
+            for (CategoryNode child : childrenByParent.getOrDefault(node.getId(), List.of())) {
+                if (!positions.containsKey(child.getId())) {
+                    visit(child, position);
+                }
+            }
+            subtreeEnds[position] = size;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package dev.dammak.productservice.category;
+
+import dev.dammak.productservice.cache.EntityCacheEvictor;
+import dev.dammak.productservice.repository.CategoryRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Holds the current {@link CategoryTree} snapshot and replaces it atomically.
+ * <p>
+ * The tree is loaded at startup, reloaded after every committed category change on this
+ * instance and periodically to pick up changes made through other instances. Each reload also
+ * refreshes the cached category entities, which bounds how long those can lag behind other
+ * instances. Readers always see one complete snapshot and never wait for a reload.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CategoryTreeLoader {
+
+    private final CategoryRepository categoryRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityCacheEvictor entityCacheEvictor;
+
+    private final AtomicLong versions = new AtomicLong();
+    private volatile CategoryTree tree;
+
+    public CategoryTree getTree() {
+        CategoryTree current = tree;
+        return current != null ? current : reload();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        reload();
+    }
+
+    @Scheduled(initialDelayString = "${app.category-tree.refresh-interval-ms:300000}",
+            fixedDelayString = "${app.category-tree.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("Error reloading category tree: {}", e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Reloads the tree once the current transaction commits, or right away outside of one.
+     */
+    public void reloadAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            reload();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                refresh();
+            }
+        });
+    }
+
+    /**
+     * Loads a fresh snapshot and publishes it. Reloads are serialized so a slower, older load
+     * can never replace a newer one.
+     */
+    public synchronized CategoryTree reload() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        // Runs from afterCommit too, where the finished transaction is still bound
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Not read-only, so a reload after a commit reads the primary rather than a replica that may lag behind
+        transactionTemplate.setReadOnly(false);
+
+        // The query reads every row anyway, and repopulates the evicted entries as it goes
+        entityCacheEvictor.evictCategories();
+        List<CategoryNode> categories = transactionTemplate.execute(status ->
+                categoryRepository.findAll().stream().map(CategoryNode::from).toList());
+
+        CategoryTree snapshot = CategoryTree.build(versions.incrementAndGet(), categories);
+        tree = snapshot;
+        log.debug("Loaded category tree version {} with {} categories", snapshot.getVersion(), snapshot.size());
+        return snapshot;
+    }
+}
@@ -1,12 +1,20 @@
 package dev.dammak.productservice.config;
 
 
+import dev.dammak.productservice.cache.CoalescingCacheManager;
+import dev.dammak.productservice.cache.TwoLevelCacheManager;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 
@@ -15,16 +23,55 @@ import java.time.Duration;
 @Configuration
 public class CacheConfig {
 
+    private static final Duration CACHE_TTL = Duration.ofHours(1);
+
     @Bean
-    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory) {
+    public CacheManager cacheManager(RedisConnectionFactory redisConnectionFactory,
+                                     StringRedisTemplate stringRedisTemplate,
+                                     NearCacheConfig nearCacheConfig,
+                                     CacheStampedeConfig cacheStampedeConfig,
+                                     ObjectProvider<MeterRegistry> meterRegistry) {
         RedisCacheConfiguration config = RedisCacheConfiguration.defaultCacheConfig()
-                .entryTtl(Duration.ofHours(1))
+                .entryTtl(CACHE_TTL)
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
                         .fromSerializer(new GenericJackson2JsonRedisSerializer()));
 
-        return RedisCacheManager.builder(redisConnectionFactory)
-                .cacheDefaults(config)
-                .transactionAware()
-                .build();
+        CacheManager cacheManager;
+        if (!nearCacheConfig.isEnabled()) {
+            cacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                    .cacheDefaults(config)
+                    .transactionAware()
+                    .build();
+        } else {
+            // Transaction awareness is applied by the two-level manager around both tiers
+            RedisCacheManager redisCacheManager = RedisCacheManager.builder(redisConnectionFactory)
+                    .cacheDefaults(config)
+                    .build();
+            redisCacheManager.initializeCaches();
+
+            cacheManager = new TwoLevelCacheManager(redisCacheManager, stringRedisTemplate, nearCacheConfig,
+                    meterRegistry.getIfAvailable(), true);
+        }
+
+        if (!cacheStampedeConfig.isEnabled()) {
+            return cacheManager;
+        }
+        return new CoalescingCacheManager(cacheManager, CACHE_TTL, cacheStampedeConfig,
+                meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    @Bean
+    public RedisMessageListenerContainer cacheInvalidationListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                            CacheManager cacheManager,
+                                                                            NearCacheConfig nearCacheConfig) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        CacheManager target = cacheManager instanceof CoalescingCacheManager coalescing
+                ? coalescing.getDelegate()
+                : cacheManager;
+        if (target instanceof TwoLevelCacheManager twoLevelCacheManager) {
+            container.addMessageListener(twoLevelCacheManager, new ChannelTopic(nearCacheConfig.getInvalidationChannel()));
+        }
+        return container;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,39 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.stampede")
+public class CacheStampedeConfig {
+
+    private boolean enabled = true;
+    private double earlyRefreshBeta = 1.0;
+    private Duration minimumRecomputeTime = Duration.ofMillis(50);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public double getEarlyRefreshBeta() {
+        return earlyRefreshBeta;
+    }
+
+    public void setEarlyRefreshBeta(double earlyRefreshBeta) {
+        this.earlyRefreshBeta = earlyRefreshBeta;
+    }
+
+    public Duration getMinimumRecomputeTime() {
+        return minimumRecomputeTime;
+    }
+
+    public void setMinimumRecomputeTime(Duration minimumRecomputeTime) {
+        this.minimumRecomputeTime = minimumRecomputeTime;
+    }
+}
@@ -2,6 +2,7 @@ package dev.dammak.productservice.config;
 
 import dev.dammak.productservice.dto.CategoryDto;
 import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.seed.SyntheticCatalogSeeder;
 import dev.dammak.productservice.service.CategoryService;
 import dev.dammak.productservice.service.ProductService;
 import lombok.RequiredArgsConstructor;
@@ -22,6 +23,8 @@ public class DataLoader implements ApplicationRunner {
 
     private final CategoryService categoryService;
     private final ProductService productService;
+    private final SyntheticCatalogSeeder syntheticCatalogSeeder;
+    private final SeedDataConfig seedDataConfig;
     private final Map<String, Long> categoryIdMap = new HashMap<>();
 
     @Override
@@ -31,6 +34,9 @@ public class DataLoader implements ApplicationRunner {
         try {
             loadCategories();
             loadProducts();
+            if (seedDataConfig.getSyntheticProducts() > 0) {
+                syntheticCatalogSeeder.seed();
+            }
             log.info("Seed data loaded successfully!");
         } catch (Exception e) {
             log.error("Error loading seed data: ", e);
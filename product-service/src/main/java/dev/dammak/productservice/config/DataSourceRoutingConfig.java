@@ -0,0 +1,81 @@
+package dev.dammak.productservice.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import dev.dammak.productservice.datasource.ReplicaFallbackDataSource;
+import dev.dammak.productservice.datasource.ReplicaLagMonitor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+
+/**
+ * Sends read-only transactions to a replica pool and everything else to the primary pool.
+ * <p>
+ * The application data source only fetches a physical connection on first use, by which time
+ * the transaction manager has marked the connection read-only or not; read-only connections
+ * come from the replica unless it lags too far behind. Both pools are separate Hikari pools,
+ * so their metrics are published under the pool names {@code primary} and {@code replica}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.enabled", havingValue = "true")
+public class DataSourceRoutingConfig {
+
+    // Give up on a busy or unreachable replica quickly and serve the read from the primary
+    private static final long REPLICA_CONNECTION_TIMEOUT_MS = 2000;
+
+    @Bean
+    @ConfigurationProperties(prefix = "spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    public HikariDataSource replicaDataSource(ReplicaDataSourceConfig replicaConfig,
+                                              DataSourceProperties dataSourceProperties) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName("replica");
+        dataSource.setJdbcUrl(replicaConfig.getUrl());
+        dataSource.setDriverClassName(dataSourceProperties.determineDriverClassName());
+        dataSource.setUsername(StringUtils.hasText(replicaConfig.getUsername())
+                ? replicaConfig.getUsername() : dataSourceProperties.determineUsername());
+        dataSource.setPassword(replicaConfig.getPassword() != null
+                ? replicaConfig.getPassword() : dataSourceProperties.determinePassword());
+        dataSource.setMaximumPoolSize(replicaConfig.getMaximumPoolSize());
+        dataSource.setReadOnly(true);
+        dataSource.setConnectionTimeout(REPLICA_CONNECTION_TIMEOUT_MS);
+        // Start even when the replica is down; reads use the primary until it is back
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(@Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                               ReplicaDataSourceConfig replicaConfig,
+                                               MeterRegistry meterRegistry) {
+        return new ReplicaLagMonitor(replicaDataSource, replicaConfig.getMaxLag(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 ReplicaLagMonitor replicaLagMonitor,
+                                 MeterRegistry meterRegistry) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(new ReplicaFallbackDataSource(
+                replicaDataSource, primaryDataSource, replicaLagMonitor, meterRegistry));
+        return dataSource;
+    }
+}
@@ -0,0 +1,48 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.cache.entity")
+public class EntityCacheConfig {
+
+    private boolean enabled = true;
+    private long categoryMaximumSize = 10000;
+    private long collectionMaximumSize = 100000; // per collection region
+    private Duration ttl = Duration.ofMinutes(30);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getCategoryMaximumSize() {
+        return categoryMaximumSize;
+    }
+
+    public void setCategoryMaximumSize(long categoryMaximumSize) {
+        this.categoryMaximumSize = categoryMaximumSize;
+    }
+
+    public long getCollectionMaximumSize() {
+        return collectionMaximumSize;
+    }
+
+    public void setCollectionMaximumSize(long collectionMaximumSize) {
+        this.collectionMaximumSize = collectionMaximumSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
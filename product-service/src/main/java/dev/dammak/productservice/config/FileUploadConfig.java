@@ -4,6 +4,10 @@ package dev.dammak.productservice.config;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
 @Configuration
 @ConfigurationProperties(prefix = "app.file-upload")
 public class FileUploadConfig {
@@ -11,6 +15,11 @@ public class FileUploadConfig {
     private String uploadDir = "./uploads/products";
     private long maxFileSize = 5242880; // 5MB
     private String[] allowedTypes = {"image/jpeg", "image/png", "image/gif", "image/webp"};
+    private int uploadThreads = 4;
+    private Duration imageCacheMaxAge = Duration.ofDays(365);
+    private Map<String, Integer> variants = defaultVariants();
+    private int variantThreads = 2;
+    private int variantQueueCapacity = 100;
 
     public String getUploadDir() {
         return uploadDir;
@@ -35,4 +44,53 @@ public class FileUploadConfig {
     public void setAllowedTypes(String[] allowedTypes) {
         this.allowedTypes = allowedTypes;
     }
-}
\ No newline at end of file
+
+    public int getUploadThreads() {
+        return uploadThreads;
+    }
+
+    public void setUploadThreads(int uploadThreads) {
+        this.uploadThreads = uploadThreads;
+    }
+
+    public Duration getImageCacheMaxAge() {
+        return imageCacheMaxAge;
+    }
+
+    public void setImageCacheMaxAge(Duration imageCacheMaxAge) {
+        this.imageCacheMaxAge = imageCacheMaxAge;
+    }
+
+    public Map<String, Integer> getVariants() {
+        return variants;
+    }
+
+    public void setVariants(Map<String, Integer> variants) {
+        this.variants = variants;
+    }
+
+    public int getVariantThreads() {
+        return variantThreads;
+    }
+
+    public void setVariantThreads(int variantThreads) {
+        this.variantThreads = variantThreads;
+    }
+
+    public int getVariantQueueCapacity() {
+        return variantQueueCapacity;
+    }
+
+    public void setVariantQueueCapacity(int variantQueueCapacity) {
+        this.variantQueueCapacity = variantQueueCapacity;
+    }
+
+    private static Map<String, Integer> defaultVariants() {
+        // Insertion order is the order variants are generated and listed in
+        Map<String, Integer> variants = new LinkedHashMap<>();
+        variants.put("thumb", 150);
+        variants.put("card", 400);
+        variants.put("large", 800);
+        return variants;
+    }
+}
@@ -0,0 +1,66 @@
+package dev.dammak.productservice.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import dev.dammak.productservice.cache.EntityCacheRegions;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.spi.CachingProvider;
+import java.util.OptionalLong;
+
+/**
+ * In-process second-level cache for reference data: categories and the tags and images of
+ * products. Regions live in a Caffeine backed JCache manager owned by this context, each with
+ * its own size bound and a TTL as a safety net; changes made through other instances are
+ * evicted when their events arrive. Hibernate statistics are on so the region hit, miss and
+ * put counts show up under the hibernate.second.level.cache metrics.
+ */
+@Configuration
+public class HibernateCacheConfig {
+
+    @Bean
+    public CacheManager hibernateCacheManager(EntityCacheConfig entityCacheConfig) {
+        CachingProvider provider = new CaffeineCachingProvider();
+        CacheManager cacheManager = provider.getCacheManager(provider.getDefaultURI(), provider.getDefaultClassLoader());
+        cacheManager.createCache(EntityCacheRegions.CATEGORIES,
+                regionConfiguration(entityCacheConfig.getCategoryMaximumSize(), entityCacheConfig));
+        cacheManager.createCache(EntityCacheRegions.PRODUCT_TAGS,
+                regionConfiguration(entityCacheConfig.getCollectionMaximumSize(), entityCacheConfig));
+        cacheManager.createCache(EntityCacheRegions.PRODUCT_IMAGES,
+                regionConfiguration(entityCacheConfig.getCollectionMaximumSize(), entityCacheConfig));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager,
+                                                                    EntityCacheConfig entityCacheConfig) {
+        return properties -> {
+            properties.put(AvailableSettings.GENERATE_STATISTICS, true);
+            if (!entityCacheConfig.isEnabled()) {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                return;
+            }
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Every mapped region is created above; a region missing here is a mapping mistake
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    // Private helper methods
+    private static CaffeineConfiguration<Object, Object> regionConfiguration(long maximumSize,
+                                                                             EntityCacheConfig entityCacheConfig) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(entityCacheConfig.getTtl().toNanos()));
+        // Hibernate caches disassembled, immutable entries, so copying them on every access buys nothing
+        configuration.setStoreByValue(false);
+        return configuration;
+    }
+}
@@ -0,0 +1,37 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImageExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor imageUploadExecutor(FileUploadConfig fileUploadConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fileUploadConfig.getUploadThreads());
+        executor.setMaxPoolSize(fileUploadConfig.getUploadThreads());
+        executor.setQueueCapacity(fileUploadConfig.getUploadThreads() * 16);
+        executor.setThreadNamePrefix("image-upload-");
+        // Apply back-pressure to the uploading request instead of rejecting files
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor imageVariantExecutor(FileUploadConfig fileUploadConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(fileUploadConfig.getVariantThreads());
+        executor.setMaxPoolSize(fileUploadConfig.getVariantThreads());
+        // Bounded so a burst of uploads cannot pile decoded images up in memory
+        executor.setQueueCapacity(fileUploadConfig.getVariantQueueCapacity());
+        executor.setThreadNamePrefix("image-variant-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,24 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class ImportExecutorConfig {
+
+    @Bean
+    public ThreadPoolTaskExecutor productImportExecutor(ProductImportConfig productImportConfig) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(productImportConfig.getThreads());
+        executor.setMaxPoolSize(productImportConfig.getThreads());
+        executor.setQueueCapacity(productImportConfig.getQueueCapacity());
+        executor.setThreadNamePrefix("product-import-");
+        // Uploads are spooled to disk, so a full queue is reported to the caller instead of piling up files
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.initialize();
+        return executor;
+    }
+}
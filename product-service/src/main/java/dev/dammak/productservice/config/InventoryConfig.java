@@ -0,0 +1,113 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.inventory")
+public class InventoryConfig {
+
+    private Duration reservationTtl = Duration.ofMinutes(15);
+    private Duration maxReservationTtl = Duration.ofHours(2);
+    private long expirySweepIntervalMs = 30000; // 30 seconds
+    private int expiryBatchSize = 200;
+    private Set<Long> hotProductIds = new HashSet<>();
+    private int hotStockChunkSize = 50;
+    private int hotStockStripes = Runtime.getRuntime().availableProcessors();
+    private long hotStockRenewIntervalMs = 5000; // 5 seconds
+    private Duration hotStockQuotaStaleAfter = Duration.ofMinutes(1);
+    private int bulkChunkSize = 500;
+    private long lowStockRefreshIntervalMs = 900000; // 15 minutes
+
+    public Duration getReservationTtl() {
+        return reservationTtl;
+    }
+
+    public void setReservationTtl(Duration reservationTtl) {
+        this.reservationTtl = reservationTtl;
+    }
+
+    public Duration getMaxReservationTtl() {
+        return maxReservationTtl;
+    }
+
+    public void setMaxReservationTtl(Duration maxReservationTtl) {
+        this.maxReservationTtl = maxReservationTtl;
+    }
+
+    public long getExpirySweepIntervalMs() {
+        return expirySweepIntervalMs;
+    }
+
+    public void setExpirySweepIntervalMs(long expirySweepIntervalMs) {
+        this.expirySweepIntervalMs = expirySweepIntervalMs;
+    }
+
+    public int getExpiryBatchSize() {
+        return expiryBatchSize;
+    }
+
+    public void setExpiryBatchSize(int expiryBatchSize) {
+        this.expiryBatchSize = expiryBatchSize;
+    }
+
+    public Set<Long> getHotProductIds() {
+        return hotProductIds;
+    }
+
+    public void setHotProductIds(Set<Long> hotProductIds) {
+        this.hotProductIds = hotProductIds;
+    }
+
+    public int getHotStockChunkSize() {
+        return hotStockChunkSize;
+    }
+
+    public void setHotStockChunkSize(int hotStockChunkSize) {
+        this.hotStockChunkSize = hotStockChunkSize;
+    }
+
+    public int getHotStockStripes() {
+        return hotStockStripes;
+    }
+
+    public void setHotStockStripes(int hotStockStripes) {
+        this.hotStockStripes = hotStockStripes;
+    }
+
+    public long getHotStockRenewIntervalMs() {
+        return hotStockRenewIntervalMs;
+    }
+
+    public void setHotStockRenewIntervalMs(long hotStockRenewIntervalMs) {
+        this.hotStockRenewIntervalMs = hotStockRenewIntervalMs;
+    }
+
+    public Duration getHotStockQuotaStaleAfter() {
+        return hotStockQuotaStaleAfter;
+    }
+
+    public void setHotStockQuotaStaleAfter(Duration hotStockQuotaStaleAfter) {
+        this.hotStockQuotaStaleAfter = hotStockQuotaStaleAfter;
+    }
+
+    public int getBulkChunkSize() {
+        return bulkChunkSize;
+    }
+
+    public void setBulkChunkSize(int bulkChunkSize) {
+        this.bulkChunkSize = bulkChunkSize;
+    }
+
+    public long getLowStockRefreshIntervalMs() {
+        return lowStockRefreshIntervalMs;
+    }
+
+    public void setLowStockRefreshIntervalMs(long lowStockRefreshIntervalMs) {
+        this.lowStockRefreshIntervalMs = lowStockRefreshIntervalMs;
+    }
+}
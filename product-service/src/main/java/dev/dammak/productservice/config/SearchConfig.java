@@ -0,0 +1,61 @@
+package dev.dammak.productservice.config;
+
+import dev.dammak.productservice.enums.SearchBackend;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.search")
+public class SearchConfig {
+
+    private SearchBackend backend = SearchBackend.INDEX;
+    private int indexBatchSize = 500;
+    private long indexRebuildIntervalMs = 1800000; // 30 minutes
+    private boolean resultCacheEnabled = true;
+    private List<BigDecimal> priceFacetBoundaries = List.of(
+            new BigDecimal("25"), new BigDecimal("50"), new BigDecimal("100"),
+            new BigDecimal("250"), new BigDecimal("500"), new BigDecimal("1000"));
+
+    public SearchBackend getBackend() {
+        return backend;
+    }
+
+    public void setBackend(SearchBackend backend) {
+        this.backend = backend;
+    }
+
+    public int getIndexBatchSize() {
+        return indexBatchSize;
+    }
+
+    public void setIndexBatchSize(int indexBatchSize) {
+        this.indexBatchSize = indexBatchSize;
+    }
+
+    public long getIndexRebuildIntervalMs() {
+        return indexRebuildIntervalMs;
+    }
+
+    public void setIndexRebuildIntervalMs(long indexRebuildIntervalMs) {
+        this.indexRebuildIntervalMs = indexRebuildIntervalMs;
+    }
+
+    public boolean isResultCacheEnabled() {
+        return resultCacheEnabled;
+    }
+
+    public void setResultCacheEnabled(boolean resultCacheEnabled) {
+        this.resultCacheEnabled = resultCacheEnabled;
+    }
+
+    public List<BigDecimal> getPriceFacetBoundaries() {
+        return priceFacetBoundaries;
+    }
+
+    public void setPriceFacetBoundaries(List<BigDecimal> priceFacetBoundaries) {
+        this.priceFacetBoundaries = priceFacetBoundaries;
+    }
+}
@@ -0,0 +1,55 @@
+package dev.dammak.productservice.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "app.seed-data")
+public class SeedDataConfig {
+
+    private boolean enabled = false;
+    private long syntheticProducts = 0; // 0 loads the sample catalog only
+    private long randomSeed = 42;
+    private int batchSize = 1000;
+    private int threads = 4;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getSyntheticProducts() {
+        return syntheticProducts;
+    }
+
+    public void setSyntheticProducts(long syntheticProducts) {
+        this.syntheticProducts = syntheticProducts;
+    }
+
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    public void setRandomSeed(long randomSeed) {
+        this.randomSeed = randomSeed;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+}
@@ -1,5 +1,6 @@
 package dev.dammak.productservice.controller;
 
+import dev.dammak.productservice.cache.CatalogVersions;
 import dev.dammak.productservice.dto.CategoryDto;
 import dev.dammak.productservice.service.CategoryService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -17,6 +18,7 @@ import org.springframework.data.web.PageableDefault;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -27,6 +29,7 @@ import java.util.List;
 public class CategoryController {
 
     private final CategoryService categoryService;
+    private final CatalogVersions catalogVersions;
 
     @GetMapping
     @Operation(
@@ -37,14 +40,21 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved categories",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
     public ResponseEntity<Page<CategoryDto>> getAllCategories(
             @Parameter(description = "Pagination parameters")
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         Page<CategoryDto> categories = categoryService.getAllCategories(pageable);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
     }
 
     @GetMapping("/active")
@@ -56,12 +66,18 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved active categories",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = CategoryDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<List<CategoryDto>> getAllActiveCategories() {
+    public ResponseEntity<List<CategoryDto>> getAllActiveCategories(WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         List<CategoryDto> categories = categoryService.getAllActiveCategories();
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
     }
 
     @GetMapping("/{id}")
@@ -73,6 +89,8 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved category",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = CategoryDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Category not found",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -80,9 +98,14 @@ public class CategoryController {
     })
     public ResponseEntity<CategoryDto> getCategoryById(
             @Parameter(description = "Category ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         CategoryDto category = categoryService.getCategoryById(id);
-        return ResponseEntity.ok(category);
+        return ResponseEntity.ok().eTag(eTag).body(category);
     }
 
     @GetMapping("/parent/{parentId}")
@@ -94,6 +117,8 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved subcategories",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = CategoryDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Parent category not found",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -101,9 +126,72 @@ public class CategoryController {
     })
     public ResponseEntity<List<CategoryDto>> getCategoriesByParent(
             @Parameter(description = "Parent category ID", required = true)
-            @PathVariable Long parentId) {
+            @PathVariable Long parentId,
+            WebRequest request) {
+        String eTag = treeETag();
+        if (notModified(request, eTag)) {
+            return null;
+        }
         List<CategoryDto> categories = categoryService.getCategoriesByParent(parentId);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
+    }
+
+    @GetMapping("/{id}/descendants")
+    @Operation(
+            summary = "Get category descendants",
+            description = "Retrieve every category below a category in hierarchy order, served from the in-memory category tree"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved descendants",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CategoryDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Category not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<List<CategoryDto>> getDescendants(
+            @Parameter(description = "Category ID", required = true)
+            @PathVariable Long id,
+            @Parameter(description = "Skip inactive categories and everything below them", example = "true")
+            @RequestParam(defaultValue = "true") boolean activeOnly,
+            WebRequest request) {
+        String eTag = treeETag();
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        List<CategoryDto> categories = categoryService.getDescendants(id, activeOnly);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
+    }
+
+    @GetMapping("/{id}/breadcrumb")
+    @Operation(
+            summary = "Get category breadcrumb",
+            description = "Retrieve the path from the top-level category down to and including this category"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved breadcrumb",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CategoryDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Category not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<List<CategoryDto>> getBreadcrumb(
+            @Parameter(description = "Category ID", required = true)
+            @PathVariable Long id,
+            WebRequest request) {
+        String eTag = treeETag();
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        List<CategoryDto> categories = categoryService.getBreadcrumb(id);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
     }
 
     @GetMapping("/search")
@@ -115,6 +203,8 @@ public class CategoryController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved search results",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "400", description = "Invalid search parameters",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -124,9 +214,14 @@ public class CategoryController {
             @Parameter(description = "Search keyword", required = true)
             @RequestParam String keyword,
             @Parameter(description = "Pagination parameters")
-            @PageableDefault(size = 20) Pageable pageable) {
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         Page<CategoryDto> categories = categoryService.searchCategories(keyword, pageable);
-        return ResponseEntity.ok(categories);
+        return ResponseEntity.ok().eTag(eTag).body(categories);
     }
 
     @PostMapping
@@ -199,4 +294,18 @@ public class CategoryController {
         categoryService.deleteCategory(id);
         return ResponseEntity.noContent().build();
     }
+
+    // Private helper methods
+    private String treeETag() {
+        // The tree is reloaded on each instance separately, so tag what this instance holds
+        return "W/\"" + categoryService.getTreeFingerprint() + "\"";
+    }
+
+    /**
+     * Answers 304 when the client already holds the current representation, before anything
+     * is loaded or serialized.
+     */
+    private static boolean notModified(WebRequest request, String eTag) {
+        return eTag != null && request.checkNotModified(eTag);
+    }
 }
\ No newline at end of file
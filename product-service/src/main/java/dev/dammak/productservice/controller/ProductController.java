@@ -1,31 +1,56 @@
 package dev.dammak.productservice.controller;
 
+import dev.dammak.productservice.cache.CatalogVersions;
+import dev.dammak.productservice.dto.BulkInventoryResultDto;
+import dev.dammak.productservice.dto.CursorPageDto;
+import dev.dammak.productservice.dto.FacetedSearchResultDto;
 import dev.dammak.productservice.dto.InventoryUpdateDto;
+import dev.dammak.productservice.dto.ProductBatchRequestDto;
 import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.dto.ProductImportStatusDto;
 import dev.dammak.productservice.dto.ProductSearchDto;
+import dev.dammak.productservice.dto.ProductSummaryDto;
+import dev.dammak.productservice.dto.ReservationDto;
+import dev.dammak.productservice.dto.ReservationRequestDto;
+import dev.dammak.productservice.dto.SuggestionDto;
+import dev.dammak.productservice.enums.ExportFormat;
+import dev.dammak.productservice.enums.ImportFormat;
+import dev.dammak.productservice.service.BulkInventoryService;
+import dev.dammak.productservice.service.InventoryReservationService;
 import dev.dammak.productservice.service.InventoryService;
+import dev.dammak.productservice.service.ProductExportService;
+import dev.dammak.productservice.service.ProductImportService;
 import dev.dammak.productservice.service.ProductService;
 import dev.dammak.productservice.service.SearchService;
 import dev.dammak.productservice.util.FileUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.web.PageableDefault;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.net.URI;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/products")
@@ -33,9 +58,17 @@ import java.util.List;
 @Tag(name = "Product Management", description = "APIs for managing products, inventory, and product search")
 public class ProductController {
 
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType APPLICATION_NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final ProductService productService;
     private final InventoryService inventoryService;
+    private final InventoryReservationService inventoryReservationService;
+    private final BulkInventoryService bulkInventoryService;
+    private final ProductImportService productImportService;
+    private final ProductExportService productExportService;
     private final SearchService searchService;
+    private final CatalogVersions catalogVersions;
     private final FileUtil fileUtil;
 
     @GetMapping
@@ -47,14 +80,57 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<Page<ProductDto>> getAllProducts(
+    public ResponseEntity<Page<ProductSummaryDto>> getAllProducts(
             @Parameter(description = "Pagination parameters")
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<ProductDto> products = productService.getAllProducts(pageable);
-        return ResponseEntity.ok(products);
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        Page<ProductSummaryDto> products = productService.getAllProducts(pageable);
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    @GetMapping("/cursor")
+    @Operation(
+            summary = "Get all products with cursor pagination",
+            description = "Retrieve products using keyset pagination. Pass the returned nextCursor to fetch the " +
+                    "following slice; sort parameters are only read for the first slice"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<CursorPageDto<ProductDto>> getAllProductsByCursor(
+            @Parameter(description = "Continuation token from a previous response")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort field", example = "name")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @Parameter(description = "Slice size (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        CursorPageDto<ProductDto> products = productService.getProductsByCursor(
+                cursor, sortBy, sortDirection, clampCursorSize(size));
+        return ResponseEntity.ok().eTag(eTag).body(products);
     }
 
     @GetMapping("/{id}")
@@ -66,6 +142,8 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved product",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -73,9 +151,14 @@ public class ProductController {
     })
     public ResponseEntity<ProductDto> getProductById(
             @Parameter(description = "Product ID", required = true)
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.product(id), CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         ProductDto product = productService.getProductById(id);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok().eTag(eTag).body(product);
     }
 
     @GetMapping("/sku/{sku}")
@@ -87,6 +170,8 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved product",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Product not found",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
@@ -94,32 +179,104 @@ public class ProductController {
     })
     public ResponseEntity<ProductDto> getProductBySku(
             @Parameter(description = "Product SKU", required = true)
-            @PathVariable String sku) {
+            @PathVariable String sku,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         ProductDto product = productService.getProductBySku(sku);
-        return ResponseEntity.ok(product);
+        return ResponseEntity.ok().eTag(eTag).body(product);
+    }
+
+    @PostMapping("/batch")
+    @Operation(
+            summary = "Get many products by IDs or SKUs",
+            description = "Retrieve up to 500 products in one call. Returns a map of product ID to product; " +
+                    "unknown IDs and SKUs are omitted"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
+                    content = @Content(mediaType = "application/json")),
+            @ApiResponse(responseCode = "400", description = "Empty or oversized batch",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<Map<Long, ProductDto>> getProductsBatch(
+            @Parameter(description = "Product IDs and SKUs to look up", required = true)
+            @Valid @RequestBody ProductBatchRequestDto request) {
+        Map<Long, ProductDto> products = productService.getProductsBatch(request);
+        return ResponseEntity.ok(products);
     }
 
     @GetMapping("/category/{categoryId}")
     @Operation(
             summary = "Get products by category",
-            description = "Retrieve products belonging to a specific category with pagination"
+            description = "Retrieve products belonging to a specific category with pagination, optionally including all of its subcategories"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = Page.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "404", description = "Category not found",
                     content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<Page<ProductDto>> getProductsByCategory(
+    public ResponseEntity<Page<ProductSummaryDto>> getProductsByCategory(
             @Parameter(description = "Category ID", required = true)
             @PathVariable Long categoryId,
+            @Parameter(description = "Also include products of active subcategories", example = "false")
+            @RequestParam(defaultValue = "false") boolean includeDescendants,
             @Parameter(description = "Pagination parameters")
-            @PageableDefault(size = 20) Pageable pageable) {
-        Page<ProductDto> products = productService.getProductsByCategory(categoryId, pageable);
-        return ResponseEntity.ok(products);
+            @PageableDefault(size = 20) Pageable pageable,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        Page<ProductSummaryDto> products = productService.getProductsByCategory(categoryId, includeDescendants, pageable);
+        return ResponseEntity.ok().eTag(eTag).body(products);
+    }
+
+    @GetMapping("/category/{categoryId}/cursor")
+    @Operation(
+            summary = "Get products by category with cursor pagination",
+            description = "Retrieve products belonging to a specific category using keyset pagination"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved products",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = CursorPageDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
+            @ApiResponse(responseCode = "400", description = "Invalid cursor",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<CursorPageDto<ProductDto>> getProductsByCategoryCursor(
+            @Parameter(description = "Category ID", required = true)
+            @PathVariable Long categoryId,
+            @Parameter(description = "Continuation token from a previous response")
+            @RequestParam(required = false) String cursor,
+            @Parameter(description = "Sort field", example = "price")
+            @RequestParam(required = false) String sortBy,
+            @Parameter(description = "Sort direction", example = "asc")
+            @RequestParam(defaultValue = "asc") String sortDirection,
+            @Parameter(description = "Slice size (1-100)", example = "20")
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
+        CursorPageDto<ProductDto> products = productService.getProductsByCategoryCursor(
+                categoryId, cursor, sortBy, sortDirection, clampCursorSize(size));
+        return ResponseEntity.ok().eTag(eTag).body(products);
     }
 
     @GetMapping("/featured")
@@ -131,12 +288,18 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved featured products",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(implementation = ProductDto.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<List<ProductDto>> getFeaturedProducts() {
+    public ResponseEntity<List<ProductDto>> getFeaturedProducts(WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.FEATURED, CatalogVersions.CATEGORIES);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         List<ProductDto> products = productService.getFeaturedProducts();
-        return ResponseEntity.ok(products);
+        return ResponseEntity.ok().eTag(eTag).body(products);
     }
 
     @GetMapping("/brands")
@@ -148,12 +311,18 @@ public class ProductController {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved brands",
                     content = @Content(mediaType = "application/json",
                             schema = @Schema(type = "array", implementation = String.class))),
+            @ApiResponse(responseCode = "304", description = "Not modified since the entity tag in If-None-Match",
+                    content = @Content),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<List<String>> getAllBrands() {
+    public ResponseEntity<List<String>> getAllBrands(WebRequest request) {
+        String eTag = catalogVersions.eTag(CatalogVersions.PRODUCTS);
+        if (notModified(request, eTag)) {
+            return null;
+        }
         List<String> brands = productService.getAllBrands();
-        return ResponseEntity.ok(brands);
+        return ResponseEntity.ok().eTag(eTag).body(brands);
     }
 
     @PostMapping("/search")
@@ -170,13 +339,35 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<Page<ProductDto>> searchProducts(
+    public ResponseEntity<Page<ProductSummaryDto>> searchProducts(
             @Parameter(description = "Search criteria", required = true)
             @RequestBody ProductSearchDto searchDto) {
-        Page<ProductDto> products = searchService.searchProducts(searchDto);
+        Page<ProductSummaryDto> products = searchService.searchProducts(searchDto);
         return ResponseEntity.ok(products);
     }
 
+    @PostMapping("/search/faceted")
+    @Operation(
+            summary = "Faceted product search",
+            description = "Search products and return the requested page together with brand, category, " +
+                    "price range and stock facet counts for the whole result set"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved faceted search results",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = FacetedSearchResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid search criteria",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<FacetedSearchResultDto> facetedSearch(
+            @Parameter(description = "Search criteria", required = true)
+            @RequestBody ProductSearchDto searchDto) {
+        FacetedSearchResultDto result = searchService.facetedSearch(searchDto);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/search")
     @Operation(
             summary = "Simple keyword search",
@@ -191,15 +382,37 @@ public class ProductController {
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<Page<ProductDto>> searchByKeyword(
+    public ResponseEntity<Page<ProductSummaryDto>> searchByKeyword(
             @Parameter(description = "Search keyword", required = true)
             @RequestParam String keyword,
             @Parameter(description = "Pagination parameters")
             @PageableDefault(size = 20) Pageable pageable) {
-        Page<ProductDto> products = searchService.searchByKeyword(keyword, pageable);
+        Page<ProductSummaryDto> products = searchService.searchByKeyword(keyword, pageable);
         return ResponseEntity.ok(products);
     }
 
+    @GetMapping("/suggest")
+    @Operation(
+            summary = "Search box suggestions",
+            description = "Product names, brands and tags starting with the typed prefix, most popular first. " +
+                    "Served from memory, so it is safe to call on every keystroke"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved suggestions",
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = SuggestionDto.class)))),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<List<SuggestionDto>> suggest(
+            @Parameter(description = "Text typed so far", required = true)
+            @RequestParam String prefix,
+            @Parameter(description = "Maximum number of suggestions (1-20)", example = "10")
+            @RequestParam(defaultValue = "10") int limit) {
+        List<SuggestionDto> suggestions = searchService.suggest(prefix, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
     @PostMapping
     @Operation(
             summary = "Create a new product",
@@ -223,6 +436,100 @@ public class ProductController {
         return new ResponseEntity<>(createdProduct, HttpStatus.CREATED);
     }
 
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @Operation(
+            summary = "Import products in bulk",
+            description = "Upload a CSV file (header row of product fields, '|' between image URLs and tags) or " +
+                    "newline-delimited JSON, one product per line. The file is imported in the background; poll " +
+                    "the returned job for progress. Rows may give categoryName instead of categoryId"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "202", description = "Import accepted",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductImportStatusDto.class))),
+            @ApiResponse(responseCode = "400", description = "Too many imports in progress",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ProductImportStatusDto> importProducts(
+            @Parameter(description = "File format, taken from the content type when omitted")
+            @RequestParam(required = false) ImportFormat format,
+            HttpServletRequest request) throws IOException {
+        ImportFormat importFormat = format != null ? format
+                : MediaType.parseMediaType(request.getContentType()).isCompatibleWith(TEXT_CSV)
+                ? ImportFormat.CSV : ImportFormat.NDJSON;
+        ProductImportStatusDto status = productImportService.startImport(importFormat, request.getInputStream());
+        return ResponseEntity.accepted()
+                .location(URI.create("/api/products/import/" + status.getJobId()))
+                .body(status);
+    }
+
+    @GetMapping("/import/{jobId}")
+    @Operation(
+            summary = "Get product import status",
+            description = "Progress, row counts and the first rejected rows of an import job"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved import status",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ProductImportStatusDto.class))),
+            @ApiResponse(responseCode = "400", description = "Import job not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ProductImportStatusDto> getImportStatus(
+            @Parameter(description = "Import job ID", required = true)
+            @PathVariable String jobId) {
+        return ResponseEntity.ok(productImportService.getStatus(jobId));
+    }
+
+    @GetMapping(value = "/import/{jobId}/errors", produces = "application/x-ndjson")
+    @Operation(
+            summary = "Get product import error report",
+            description = "Every rejected row of an import job as newline-delimited JSON"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved error report"),
+            @ApiResponse(responseCode = "400", description = "Import job not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> getImportErrors(
+            @Parameter(description = "Import job ID", required = true)
+            @PathVariable String jobId) {
+        productImportService.getStatus(jobId);
+        StreamingResponseBody body = out -> productImportService.writeErrorReport(jobId, out);
+        return ResponseEntity.ok(body);
+    }
+
+    @GetMapping(value = "/export", produces = {"application/x-ndjson", "text/csv"})
+    @Operation(
+            summary = "Export active products",
+            description = "Stream every active product as newline-delimited JSON or CSV, for marketplace and " +
+                    "search engine feeds. The CSV columns match the import format"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Export streamed"),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> exportProducts(
+            @Parameter(description = "Feed format", example = "NDJSON")
+            @RequestParam(defaultValue = "NDJSON") ExportFormat format) {
+        StreamingResponseBody body = out -> productExportService.exportActiveProducts(format, out);
+        String extension = format == ExportFormat.CSV ? "csv" : "ndjson";
+        return ResponseEntity.ok()
+                .contentType(format == ExportFormat.CSV ? TEXT_CSV : APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("products." + extension)
+                        .build()
+                        .toString())
+                .body(body);
+    }
+
     @PutMapping("/{id}")
     @Operation(
             summary = "Update an existing product",
@@ -315,29 +622,135 @@ public class ProductController {
         return ResponseEntity.ok().build();
     }
 
+    @PutMapping(value = "/inventory/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(
+            summary = "Bulk update product inventory",
+            description = "Apply a JSON array of inventory updates in chunks. The array is read as a stream, so it " +
+                    "may hold tens of thousands of updates; rejected items are reported individually without " +
+                    "aborting the rest of the batch",
+            requestBody = @io.swagger.v3.oas.annotations.parameters.RequestBody(required = true,
+                    content = @Content(mediaType = "application/json",
+                            array = @ArraySchema(schema = @Schema(implementation = InventoryUpdateDto.class))))
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Bulk update processed",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = BulkInventoryResultDto.class))),
+            @ApiResponse(responseCode = "400", description = "Request body is not a JSON array",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<BulkInventoryResultDto> bulkUpdateInventory(HttpServletRequest request) throws IOException {
+        BulkInventoryResultDto result = bulkInventoryService.bulkUpdateInventory(request.getInputStream());
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/inventory/reservations")
+    @Operation(
+            summary = "Reserve stock",
+            description = "Atomically take stock for a product and hold it until the reservation is committed, " +
+                    "released or expires"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "201", description = "Stock reserved successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationDto.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid request or insufficient stock",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ReservationDto> reserveStock(
+            @Parameter(description = "Reservation request", required = true)
+            @Valid @RequestBody ReservationRequestDto request) {
+        ReservationDto reservation = inventoryReservationService.reserve(request);
+        return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
+    }
+
+    @GetMapping("/inventory/reservations/{reservationId}")
+    @Operation(
+            summary = "Get stock reservation",
+            description = "Retrieve a stock reservation by its identifier"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Successfully retrieved reservation",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationDto.class))),
+            @ApiResponse(responseCode = "404", description = "Reservation not found",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ReservationDto> getReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String reservationId) {
+        return ResponseEntity.ok(inventoryReservationService.getReservation(reservationId));
+    }
+
+    @PostMapping("/inventory/reservations/{reservationId}/commit")
+    @Operation(
+            summary = "Commit stock reservation",
+            description = "Make a reservation final; the reserved stock is not returned"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation committed successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationDto.class))),
+            @ApiResponse(responseCode = "400", description = "Reservation expired or no longer active",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ReservationDto> commitReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String reservationId) {
+        return ResponseEntity.ok(inventoryReservationService.commit(reservationId));
+    }
+
+    @PostMapping("/inventory/reservations/{reservationId}/release")
+    @Operation(
+            summary = "Release stock reservation",
+            description = "Cancel a reservation and return its stock"
+    )
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Reservation released successfully",
+                    content = @Content(mediaType = "application/json",
+                            schema = @Schema(implementation = ReservationDto.class))),
+            @ApiResponse(responseCode = "400", description = "Reservation no longer active",
+                    content = @Content),
+            @ApiResponse(responseCode = "500", description = "Internal server error",
+                    content = @Content)
+    })
+    public ResponseEntity<ReservationDto> releaseReservation(
+            @Parameter(description = "Reservation ID", required = true)
+            @PathVariable String reservationId) {
+        return ResponseEntity.ok(inventoryReservationService.release(reservationId));
+    }
+
     @GetMapping("/inventory/low-stock")
     @Operation(
             summary = "Get low stock products",
-            description = "Retrieve products that are below their minimum stock level"
+            description = "Retrieve products that are below their minimum stock level with pagination, in id order"
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Successfully retrieved low stock products",
                     content = @Content(mediaType = "application/json",
-                            schema = @Schema(implementation = ProductDto.class))),
+                            schema = @Schema(implementation = Page.class))),
             @ApiResponse(responseCode = "500", description = "Internal server error",
                     content = @Content)
     })
-    public ResponseEntity<List<ProductDto>> getLowStockProducts() {
-        List<ProductDto> products = inventoryService.getLowStockProducts()
-                .stream()
+    public ResponseEntity<Page<ProductDto>> getLowStockProducts(
+            @Parameter(description = "Pagination parameters")
+            @PageableDefault(size = 20) Pageable pageable) {
+        Page<ProductDto> products = inventoryService.getLowStockProducts(pageable)
                 .map(product -> ProductDto.builder()
                         .id(product.getId())
                         .name(product.getName())
                         .sku(product.getSku())
                         .stockQuantity(product.getStockQuantity())
                         .minStockLevel(product.getMinStockLevel())
-                        .build())
-                .toList();
+                        .build());
         return ResponseEntity.ok(products);
     }
 
@@ -363,4 +776,18 @@ public class ProductController {
         boolean inStock = inventoryService.isInStock(id, quantity);
         return ResponseEntity.ok(inStock);
     }
-}
\ No newline at end of file
+
+    // Private helper methods
+    private int clampCursorSize(int size) {
+        return Math.min(Math.max(1, size), 100);
+    }
+
+    /**
+     * Answers 304 when the client already holds the current representation. The tags are
+     * read from the catalog versions before anything is loaded, so a match costs neither a
+     * database query nor serialization.
+     */
+    private static boolean notModified(WebRequest request, String eTag) {
+        return eTag != null && request.checkNotModified(eTag);
+    }
+}
@@ -0,0 +1,74 @@
+package dev.dammak.productservice.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+
+/**
+ * Hands out replica connections for read-only transactions while the {@link ReplicaLagMonitor}
+ * considers the replica usable, and primary connections otherwise. A replica that fails to
+ * provide a connection is taken out of rotation on the spot and the read falls back to the
+ * primary instead of failing.
+ */
+public class ReplicaFallbackDataSource extends AbstractDataSource {
+
+    private final DataSource replica;
+    private final DataSource primary;
+    private final ReplicaLagMonitor monitor;
+    private final Counter replicaConnections;
+    private final Counter primaryConnections;
+
+    public ReplicaFallbackDataSource(DataSource replica, DataSource primary, ReplicaLagMonitor monitor,
+                                     MeterRegistry meterRegistry) {
+        this.replica = replica;
+        this.primary = primary;
+        this.monitor = monitor;
+        this.replicaConnections = readConnectionCounter(meterRegistry, "replica");
+        this.primaryConnections = readConnectionCounter(meterRegistry, "primary");
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return getConnection(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return getConnection(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    // Private helper methods
+    private Connection getConnection(ConnectionSource source) throws SQLException {
+        if (monitor.isUsable()) {
+            try {
+                Connection connection = source.getConnection(replica);
+                replicaConnections.increment();
+                return connection;
+            } catch (SQLFeatureNotSupportedException e) {
+                // The pool does not take per-call credentials; that says nothing about the replica
+                throw e;
+            } catch (SQLException e) {
+                monitor.markUnavailable(e.getMessage());
+            }
+        }
+        primaryConnections.increment();
+        return source.getConnection(primary);
+    }
+
+    private static Counter readConnectionCounter(MeterRegistry meterRegistry, String pool) {
+        return Counter.builder("catalog.datasource.read.connections")
+                .description("Connections handed out to read-only transactions, by the pool that served them")
+                .tag("pool", pool)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection getConnection(DataSource dataSource) throws SQLException;
+    }
+}
@@ -0,0 +1,100 @@
+package dev.dammak.productservice.datasource;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Measures how far the read replica trails the primary and decides whether read-only
+ * transactions may use it.
+ * <p>
+ * A replica that has replayed everything it received counts as fully caught up, so an idle
+ * primary does not look like growing lag. That only holds while its WAL receiver is streaming:
+ * a disconnected replica has also replayed all it received, so a standby whose receiver is not
+ * streaming is never used. Reading the receiver status needs {@code pg_read_all_stats} for the
+ * replica user; without it the status reads as NULL and the replica stays out of rotation.
+ * <p>
+ * The replica is taken out of rotation when its lag exceeds the configured maximum or it cannot
+ * be reached, and put back by the next check that finds it healthy. Until the first check has
+ * run, reads stay on the primary.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private static final String LAG_SQL = "SELECT pg_is_in_recovery() AS in_recovery, " +
+            "(SELECT status FROM pg_stat_wal_receiver) AS receiver_status, CASE " +
+            "WHEN NOT pg_is_in_recovery() OR pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 " +
+            "ELSE EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()) END AS lag_seconds";
+
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final Duration maxLag;
+
+    private volatile double lagSeconds = Double.NaN;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, Duration maxLag, MeterRegistry meterRegistry) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.maxLag = maxLag;
+        Gauge.builder("catalog.datasource.replica.lag", this, monitor -> monitor.lagSeconds)
+                .description("Replication lag of the read replica, NaN when it cannot be reached or is not streaming")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("catalog.datasource.replica.usable", this, monitor -> monitor.usable ? 1 : 0)
+                .description("Whether read-only transactions are currently routed to the replica")
+                .register(meterRegistry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${app.datasource.replica.lag-check-interval-ms:2000}")
+    public void check() {
+        try {
+            ReplicaState state = replicaJdbcTemplate.queryForObject(LAG_SQL, (rs, rowNum) -> new ReplicaState(
+                    rs.getBoolean("in_recovery"), rs.getString("receiver_status"), rs.getObject("lag_seconds", Double.class)));
+            if (state.inRecovery() && !"streaming".equals(state.receiverStatus())) {
+                markUnavailable("WAL receiver is " + (state.receiverStatus() != null ? state.receiverStatus() : "not running"));
+                return;
+            }
+            lagSeconds = state.lagSeconds() != null ? state.lagSeconds() : 0;
+            if (lagSeconds * 1000 <= maxLag.toMillis()) {
+                setUsable(true, "lag " + lagSeconds + "s");
+            } else {
+                setUsable(false, "lag " + lagSeconds + "s exceeds " + maxLag);
+            }
+        } catch (RuntimeException e) {
+            markUnavailable(e.getMessage());
+        }
+    }
+
+    /**
+     * Takes the replica out of rotation until the next successful check, e.g. after it
+     * failed to hand out a connection.
+     */
+    public void markUnavailable(String reason) {
+        lagSeconds = Double.NaN;
+        setUsable(false, reason);
+    }
+
+    // Private helper methods
+    private void setUsable(boolean usable, String detail) {
+        if (this.usable == usable) {
+            return;
+        }
+        this.usable = usable;
+        if (usable) {
+            log.info("Routing read-only transactions to the replica ({})", detail);
+        } else {
+            log.warn("Routing read-only transactions to the primary: {}", detail);
+        }
+    }
+
+    private record ReplicaState(boolean inRecovery, String receiverStatus, Double lagSeconds) {
+    }
+}
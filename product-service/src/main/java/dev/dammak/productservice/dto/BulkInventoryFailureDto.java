@@ -0,0 +1,24 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Inventory update that could not be applied")
+public class BulkInventoryFailureDto {
+
+    @Schema(description = "Zero-based position of the update in the request array", example = "42")
+    private int index;
+
+    @Schema(description = "Product ID of the update, if it could be read", example = "1")
+    private Long productId;
+
+    @Schema(description = "Why the update was rejected", example = "Insufficient stock. Available: 3, Requested: 5")
+    private String message;
+}
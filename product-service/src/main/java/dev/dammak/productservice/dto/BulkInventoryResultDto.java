@@ -0,0 +1,31 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Outcome of a bulk inventory update")
+public class BulkInventoryResultDto {
+
+    @Schema(description = "Number of updates read from the request", example = "10000")
+    private int total;
+
+    @Schema(description = "Number of updates applied", example = "9998")
+    private int succeeded;
+
+    @Schema(description = "Number of updates rejected", example = "2")
+    private int failed;
+
+    @Schema(description = "Rejected updates with their reason")
+    @Builder.Default
+    private List<BulkInventoryFailureDto> failures = new ArrayList<>();
+}
@@ -0,0 +1,29 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Slice of results addressed by an opaque continuation token")
+public class CursorPageDto<T> {
+
+    @Schema(description = "Items in this slice")
+    private List<T> content;
+
+    @Schema(description = "Number of items in this slice", example = "20")
+    private int size;
+
+    @Schema(description = "Whether more items follow this slice", example = "true")
+    private boolean hasNext;
+
+    @Schema(description = "Token to pass as 'cursor' to fetch the next slice; null on the last slice")
+    private String nextCursor;
+}
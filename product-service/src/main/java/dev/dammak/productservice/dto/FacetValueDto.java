@@ -0,0 +1,24 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Single facet value with the number of matching products")
+public class FacetValueDto {
+
+    @Schema(description = "Facet value usable as a filter", example = "Apple")
+    private String value;
+
+    @Schema(description = "Display label for the facet value", example = "Apple")
+    private String label;
+
+    @Schema(description = "Number of matching products", example = "12")
+    private long count;
+}
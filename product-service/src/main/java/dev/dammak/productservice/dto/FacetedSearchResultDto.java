@@ -0,0 +1,33 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.domain.Page;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Page of matching products together with facet counts over the whole result set")
+public class FacetedSearchResultDto {
+
+    @Schema(description = "Requested page of matching products")
+    private Page<ProductSummaryDto> products;
+
+    @Schema(description = "Product counts per brand")
+    private List<FacetValueDto> brands;
+
+    @Schema(description = "Product counts per category")
+    private List<FacetValueDto> categories;
+
+    @Schema(description = "Product counts per price range")
+    private List<FacetValueDto> priceRanges;
+
+    @Schema(description = "Number of matching products that are in stock", example = "42")
+    private long inStockCount;
+}
@@ -0,0 +1,28 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Batch product lookup request")
+public class ProductBatchRequestDto {
+
+    public static final int MAX_BATCH_SIZE = 500;
+
+    @Schema(description = "Product IDs to look up", example = "[1, 2, 3]")
+    @Size(max = MAX_BATCH_SIZE, message = "At most 500 product IDs can be requested at once")
+    private List<Long> ids;
+
+    @Schema(description = "Product SKUs to look up", example = "[\"SKU-001\", \"SKU-002\"]")
+    @Size(max = MAX_BATCH_SIZE, message = "At most 500 SKUs can be requested at once")
+    private List<String> skus;
+}
@@ -14,12 +14,13 @@ import lombok.NoArgsConstructor;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)
 @Schema(description = "Product data transfer object")
 public class ProductDto {
 
@@ -70,6 +71,10 @@ public class ProductDto {
     @Schema(description = "List of product image URLs")
     private List<String> imageUrls;
 
+    @Schema(description = "Resized variant URLs per image URL, keyed by variant name (thumb, card, large)",
+            accessMode = Schema.AccessMode.READ_ONLY)
+    private Map<String, Map<String, String>> imageVariants;
+
     @Schema(description = "List of product tags")
     private Set<String> tags;
 
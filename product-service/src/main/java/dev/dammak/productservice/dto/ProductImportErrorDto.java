@@ -0,0 +1,24 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Row of a product import that was rejected")
+public class ProductImportErrorDto {
+
+    @Schema(description = "Row number in the uploaded file; a CSV header is row 1", example = "42")
+    private long row;
+
+    @Schema(description = "SKU of the rejected row, if it could be read", example = "IPH15PRO256GB")
+    private String sku;
+
+    @Schema(description = "Reason the row was rejected", example = "Product with SKU 'IPH15PRO256GB' already exists")
+    private String message;
+}
@@ -0,0 +1,65 @@
+package dev.dammak.productservice.dto;
+
+import dev.dammak.productservice.enums.ImportFormat;
+import dev.dammak.productservice.enums.ImportStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Progress of a bulk product import")
+public class ProductImportStatusDto {
+
+    @Schema(description = "Import job identifier", example = "3f6c1f9e-8a41-4c55-9f2e-0b7d7b1e6c2a")
+    private String jobId;
+
+    @Schema(description = "Job status", example = "RUNNING")
+    private ImportStatus status;
+
+    @Schema(description = "Format of the uploaded file", example = "CSV")
+    private ImportFormat format;
+
+    @Schema(description = "Size of the uploaded file in bytes", example = "734003200")
+    private long totalBytes;
+
+    @Schema(description = "Bytes of the file processed so far", example = "367001600")
+    private long processedBytes;
+
+    @Schema(description = "Share of the file processed so far, in percent", example = "50")
+    private int progressPercent;
+
+    @Schema(description = "Rows read so far", example = "1000000")
+    private long rowsRead;
+
+    @Schema(description = "Products created so far", example = "999950")
+    private long imported;
+
+    @Schema(description = "Rows rejected so far", example = "50")
+    private long failed;
+
+    @Schema(description = "First rejected rows; the full list is available from the errors endpoint")
+    private List<ProductImportErrorDto> errors;
+
+    @Schema(description = "Whether more rows were rejected than are listed in errors", example = "false")
+    private boolean errorsTruncated;
+
+    @Schema(description = "Reason the job failed, if it did")
+    private String message;
+
+    @Schema(description = "When the upload was accepted")
+    private LocalDateTime createdAt;
+
+    @Schema(description = "When processing started")
+    private LocalDateTime startedAt;
+
+    @Schema(description = "When processing finished")
+    private LocalDateTime finishedAt;
+}
@@ -36,7 +36,7 @@ public class ProductSearchDto {
     @Schema(description = "Filter for products in stock only", example = "true")
     private Boolean inStock;
 
-    @Schema(description = "Sort field", example = "name", allowableValues = {"name", "price", "createdAt", "brand"})
+    @Schema(description = "Sort field", example = "name", allowableValues = {"name", "price", "createdAt", "brand", "relevance"})
     private String sortBy = "name";
 
     @Schema(description = "Sort direction", example = "asc", allowableValues = {"asc", "desc"})
@@ -0,0 +1,54 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Product card data returned by listing and search endpoints")
+public class ProductSummaryDto {
+
+    @Schema(description = "Unique identifier of the product", example = "1")
+    private Long id;
+
+    @Schema(description = "Name of the product", example = "iPhone 15 Pro")
+    private String name;
+
+    @Schema(description = "Brand of the product", example = "Apple")
+    private String brand;
+
+    @Schema(description = "Price of the product", example = "999.99")
+    private BigDecimal price;
+
+    @Schema(description = "Discounted price of the product", example = "899.99")
+    private BigDecimal discountPrice;
+
+    @Schema(description = "Stock Keeping Unit", example = "IPH15PRO256GB")
+    private String sku;
+
+    @Schema(description = "Current stock quantity", example = "50")
+    private Integer stockQuantity;
+
+    @Schema(description = "Whether the product is featured", example = "false")
+    private Boolean featured;
+
+    @Schema(description = "Category ID the product belongs to", example = "1")
+    private Long categoryId;
+
+    @Schema(description = "Category name", example = "Smartphones")
+    private String categoryName;
+
+    @Schema(description = "URL of the first product image")
+    private String imageUrl;
+
+    @Schema(description = "Resized variant URLs of the first image, keyed by variant name")
+    private Map<String, String> imageVariants;
+}
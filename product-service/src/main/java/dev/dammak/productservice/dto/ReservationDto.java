@@ -0,0 +1,39 @@
+package dev.dammak.productservice.dto;
+
+import dev.dammak.productservice.enums.ReservationStatus;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Stock reservation")
+public class ReservationDto {
+
+    @Schema(description = "Reservation identifier", example = "3f6c1f9e-8a41-4c55-9f2e-0b7d7b1e6c2a")
+    private String reservationId;
+
+    @Schema(description = "Reserved product ID", example = "1")
+    private Long productId;
+
+    @Schema(description = "Reserved quantity", example = "2")
+    private Integer quantity;
+
+    @Schema(description = "Reservation status", example = "RESERVED")
+    private ReservationStatus status;
+
+    @Schema(description = "Caller reference", example = "ORD-20240101-0001")
+    private String reference;
+
+    @Schema(description = "When the reservation expires unless committed")
+    private LocalDateTime expiresAt;
+
+    @Schema(description = "When the reservation was created")
+    private LocalDateTime createdAt;
+}
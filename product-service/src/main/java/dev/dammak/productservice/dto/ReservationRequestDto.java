@@ -0,0 +1,33 @@
+package dev.dammak.productservice.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Stock reservation request")
+public class ReservationRequestDto {
+
+    @Schema(description = "Product ID to reserve stock for", example = "1", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Product ID is required")
+    private Long productId;
+
+    @Schema(description = "Quantity to reserve", example = "2", requiredMode = Schema.RequiredMode.REQUIRED)
+    @NotNull(message = "Quantity is required")
+    @Min(value = 1, message = "Quantity must be at least 1")
+    private Integer quantity;
+
+    @Schema(description = "Seconds until the reservation expires; defaults to the configured TTL", example = "900")
+    @Min(value = 1, message = "TTL must be at least 1 second")
+    private Long ttlSeconds;
+
+    @Schema(description = "Caller reference such as an order number", example = "ORD-20240101-0001")
+    private String reference;
+}
@@ -0,0 +1,25 @@
+package dev.dammak.productservice.dto;
+
+import dev.dammak.productservice.enums.SuggestionType;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Schema(description = "Typeahead suggestion for the search box")
+public class SuggestionDto {
+
+    @Schema(description = "Text to show and to search for", example = "Apple iPhone 15")
+    private String text;
+
+    @Schema(description = "What the suggestion names", example = "PRODUCT")
+    private SuggestionType type;
+
+    @Schema(description = "Product ID for product suggestions", example = "1")
+    private Long productId;
+}
@@ -1,10 +1,14 @@
 package dev.dammak.productservice.entity;
 
+import dev.dammak.productservice.cache.EntityCacheRegions;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.Fetch;
 import org.hibernate.annotations.FetchMode;
@@ -66,12 +70,15 @@ public class Product {
     @ElementCollection
     @CollectionTable(name = "product_images", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "image_url")
+    @BatchSize(size = 100) // one query per page of listed products
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheRegions.PRODUCT_IMAGES)
     private List<String> imageUrls;
 
     @ElementCollection(fetch = FetchType.LAZY)
     @CollectionTable(name = "product_tags", joinColumns = @JoinColumn(name = "product_id"))
     @Column(name = "tag")
     @Fetch(FetchMode.SUBSELECT)  //
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = EntityCacheRegions.PRODUCT_TAGS)
     private Set<String> tags;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,6 @@
+package dev.dammak.productservice.enums;
+
+public enum ExportFormat {
+    CSV,
+    NDJSON
+}
@@ -0,0 +1,8 @@
+package dev.dammak.productservice.enums;
+
+public enum ImportStatus {
+    QUEUED,
+    RUNNING,
+    COMPLETED,
+    FAILED
+}
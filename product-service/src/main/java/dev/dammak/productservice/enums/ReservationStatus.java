@@ -0,0 +1,8 @@
+package dev.dammak.productservice.enums;
+
+public enum ReservationStatus {
+    RESERVED,
+    COMMITTED,
+    RELEASED,
+    EXPIRED
+}
@@ -0,0 +1,7 @@
+package dev.dammak.productservice.enums;
+
+public enum SearchBackend {
+    INDEX,
+    FULLTEXT,
+    DATABASE
+}
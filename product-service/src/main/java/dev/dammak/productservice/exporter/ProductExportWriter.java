@@ -0,0 +1,155 @@
+package dev.dammak.productservice.exporter;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.enums.ExportFormat;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Writes products one at a time to an export feed.
+ * <p>
+ * NDJSON holds one {@link ProductDto} object per line. CSV uses the same columns the product
+ * import reads, with {@code |} between image URLs and tags, so an export can be imported
+ * elsewhere as is.
+ */
+public abstract class ProductExportWriter implements Closeable {
+
+    private static final String MULTI_VALUE_SEPARATOR = "|";
+
+    public static ProductExportWriter open(ExportFormat format, OutputStream out, ObjectMapper objectMapper)
+            throws IOException {
+        return format == ExportFormat.CSV
+                ? new CsvWriter(out)
+                : new NdjsonWriter(out, objectMapper);
+    }
+
+    public abstract void write(ProductDto product) throws IOException;
+
+    /**
+     * Pushes buffered rows to the client, so a slow consumer sees steady progress.
+     */
+    public abstract void flush() throws IOException;
+
+    private static final class NdjsonWriter extends ProductExportWriter {
+
+        private final OutputStream out;
+        private final SequenceWriter writer;
+        private boolean empty = true;
+
+        private NdjsonWriter(OutputStream out, ObjectMapper objectMapper) throws IOException {
+            this.out = out;
+            this.writer = objectMapper.writer()
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .withRootValueSeparator("\n")
+                    .writeValues(out);
+        }
+
+        @Override
+        public void write(ProductDto product) throws IOException {
+            writer.write(product);
+            empty = false;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+            if (!empty) {
+                // The separator only goes between values, so terminate the last line here
+                out.write('\n');
+                out.flush();
+            }
+        }
+    }
+
+    private static final class CsvWriter extends ProductExportWriter {
+
+        private static final CsvSchema SCHEMA = CsvSchema.builder()
+                .addColumn("id")
+                .addColumn("sku")
+                .addColumn("name")
+                .addColumn("description")
+                .addColumn("brand")
+                .addColumn("price")
+                .addColumn("discountPrice")
+                .addColumn("stockQuantity")
+                .addColumn("minStockLevel")
+                .addColumn("active")
+                .addColumn("featured")
+                .addColumn("categoryId")
+                .addColumn("categoryName")
+                .addColumn("imageUrls")
+                .addColumn("tags")
+                .addColumn("specifications")
+                .addColumn("weight")
+                .addColumn("length")
+                .addColumn("width")
+                .addColumn("height")
+                .build()
+                .withHeader();
+
+        private final SequenceWriter writer;
+
+        private CsvWriter(OutputStream out) throws IOException {
+            this.writer = new CsvMapper().writer(SCHEMA)
+                    .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET)
+                    .writeValues(out);
+        }
+
+        @Override
+        public void write(ProductDto product) throws IOException {
+            List<Object> row = new ArrayList<>(SCHEMA.size());
+            row.add(product.getId());
+            row.add(product.getSku());
+            row.add(product.getName());
+            row.add(product.getDescription());
+            row.add(product.getBrand());
+            row.add(product.getPrice());
+            row.add(product.getDiscountPrice());
+            row.add(product.getStockQuantity());
+            row.add(product.getMinStockLevel());
+            row.add(product.getActive());
+            row.add(product.getFeatured());
+            row.add(product.getCategoryId());
+            row.add(product.getCategoryName());
+            row.add(join(product.getImageUrls()));
+            row.add(join(product.getTags()));
+            row.add(product.getSpecifications());
+            row.add(product.getWeight());
+            row.add(product.getLength());
+            row.add(product.getWidth());
+            row.add(product.getHeight());
+            // A null element would be dropped and shift the remaining columns
+            row.replaceAll(value -> value == null ? "" : value);
+            writer.write(row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+
+        private static String join(Collection<String> values) {
+            return values == null ? null : String.join(MULTI_VALUE_SEPARATOR, values);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package dev.dammak.productservice.importer;
+
+import dev.dammak.productservice.dto.ProductDto;
+
+/**
+ * One row of an import file: either a parsed product or the reason it could not be parsed.
+ */
+public record ImportRow(long row, ProductDto product, String error) {
+
+    public static ImportRow of(long row, ProductDto product) {
+        return new ImportRow(row, product, null);
+    }
+
+    public static ImportRow invalid(long row, String error) {
+        return new ImportRow(row, null, error);
+    }
+}
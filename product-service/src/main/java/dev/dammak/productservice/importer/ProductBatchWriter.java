@@ -0,0 +1,151 @@
+package dev.dammak.productservice.importer;
+
+import dev.dammak.productservice.entity.Product;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Writes new products with their images and tags through JDBC batches, bypassing the
+ * persistence context. Ids come from the product sequence up front, so a batch needs no
+ * generated keys. Used by catalog imports and synthetic seeding; callers publish events and
+ * update caches themselves.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductBatchWriter {
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval('products_id_seq') FROM generate_series(1, ?)";
+    private static final String FIND_EXISTING_SKUS_SQL =
+            "SELECT sku FROM products WHERE sku = ANY (?)";
+    private static final String FIND_EXISTING_IDS_SQL =
+            "SELECT id FROM products WHERE id = ANY (?)";
+    // ON CONFLICT covers SKUs inserted concurrently after the existence check
+    private static final String INSERT_PRODUCT_SQL =
+            "INSERT INTO products (id, name, description, brand, price, discount_price, sku, stock_quantity, " +
+                    "min_stock_level, active, is_featured, category_id, specifications, weight_kg, length_cm, " +
+                    "width_cm, height_cm, created_at, updated_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) ON CONFLICT (sku) DO NOTHING";
+    private static final String INSERT_IMAGE_SQL =
+            "INSERT INTO product_images (product_id, image_url) VALUES (?, ?)";
+    private static final String INSERT_TAG_SQL =
+            "INSERT INTO product_tags (product_id, tag) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public List<Long> allocateIds(int count) {
+        return jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, count);
+    }
+
+    public Set<String> findExistingSkus(List<String> skus) {
+        Set<String> existing = new HashSet<>();
+        jdbcTemplate.query(FIND_EXISTING_SKUS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", skus.toArray())),
+                rs -> {
+                    existing.add(rs.getString("sku"));
+                });
+        return existing;
+    }
+
+    /**
+     * Inserts products that already carry their ids, category and timestamps, then the images
+     * and tags of the ones that were written. Returns the ids of the written products; a product
+     * is missing when its SKU was inserted concurrently and the row was skipped.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Set<Long> insert(List<Product> products) {
+        if (products.isEmpty()) {
+            return Set.of();
+        }
+        jdbcTemplate.batchUpdate(INSERT_PRODUCT_SQL, new ProductInsertSetter(products));
+        // Batch row counts cannot tell skipped rows apart: with reWriteBatchedInserts the driver
+        // reports SUCCESS_NO_INFO for every row. The ids are fresh from the sequence, so a row
+        // carrying one of them exists only if this batch wrote it.
+        Set<Long> inserted = findExistingIds(products.stream().map(Product::getId).toList());
+
+        List<Object[]> images = new ArrayList<>();
+        List<Object[]> tags = new ArrayList<>();
+        for (Product product : products) {
+            if (!inserted.contains(product.getId())) {
+                continue;
+            }
+            if (product.getImageUrls() != null) {
+                product.getImageUrls().forEach(url -> images.add(new Object[]{product.getId(), url}));
+            }
+            if (product.getTags() != null) {
+                product.getTags().forEach(tag -> tags.add(new Object[]{product.getId(), tag}));
+            }
+        }
+        if (!images.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_IMAGE_SQL, images);
+        }
+        if (!tags.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_TAG_SQL, tags);
+        }
+        return inserted;
+    }
+
+    // Private helper methods
+    private Set<Long> findExistingIds(List<Long> ids) {
+        Set<Long> existing = new HashSet<>(ids.size() * 2);
+        jdbcTemplate.query(FIND_EXISTING_IDS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", ids.toArray())),
+                rs -> {
+                    existing.add(rs.getLong("id"));
+                });
+        return existing;
+    }
+
+    /**
+     * Binds product rows with explicit SQL types, so null columns need no metadata lookup.
+     */
+    private record ProductInsertSetter(List<Product> products) implements BatchPreparedStatementSetter {
+
+        @Override
+        public void setValues(PreparedStatement ps, int i) throws SQLException {
+            Product product = products.get(i);
+            ps.setLong(1, product.getId());
+            ps.setString(2, product.getName());
+            ps.setString(3, product.getDescription());
+            ps.setString(4, product.getBrand());
+            ps.setBigDecimal(5, product.getPrice());
+            ps.setObject(6, product.getDiscountPrice(), Types.NUMERIC);
+            ps.setString(7, product.getSku());
+            ps.setInt(8, product.getStockQuantity());
+            ps.setObject(9, product.getMinStockLevel(), Types.INTEGER);
+            ps.setBoolean(10, product.getActive());
+            ps.setBoolean(11, product.getFeatured());
+            ps.setLong(12, product.getCategory().getId());
+            ps.setString(13, product.getSpecifications());
+            setDecimal(ps, 14, product.getWeight());
+            setDecimal(ps, 15, product.getLength());
+            setDecimal(ps, 16, product.getWidth());
+            setDecimal(ps, 17, product.getHeight());
+            ps.setTimestamp(18, Timestamp.valueOf(product.getCreatedAt()));
+            ps.setTimestamp(19, Timestamp.valueOf(product.getUpdatedAt()));
+        }
+
+        @Override
+        public int getBatchSize() {
+            return products.size();
+        }
+
+        private static void setDecimal(PreparedStatement ps, int index, BigDecimal value) throws SQLException {
+            ps.setObject(index, value, Types.NUMERIC);
+        }
+    }
+}
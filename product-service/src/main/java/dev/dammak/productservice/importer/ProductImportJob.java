@@ -0,0 +1,108 @@
+package dev.dammak.productservice.importer;
+
+import dev.dammak.productservice.dto.ProductImportErrorDto;
+import dev.dammak.productservice.dto.ProductImportStatusDto;
+import dev.dammak.productservice.enums.ImportFormat;
+import dev.dammak.productservice.enums.ImportStatus;
+import lombok.Getter;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * State of one product import on the instance running it. Counters are written by the worker
+ * and read by status requests at any time; only the first few errors are kept in memory, the
+ * full list goes to the {@link ProductImportJobStore}.
+ */
+@Getter
+public class ProductImportJob {
+
+    private final String id;
+    private final ImportFormat format;
+    private final Path uploadFile;
+    private final long totalBytes;
+    private final int maxReportedErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final AtomicLong processedBytes = new AtomicLong();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ProductImportErrorDto> reportedErrors = new ArrayList<>();
+
+    private volatile ImportStatus status = ImportStatus.QUEUED;
+    private volatile String message;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    public ProductImportJob(String id, ImportFormat format, Path uploadFile, long totalBytes,
+                            int maxReportedErrors) {
+        this.id = id;
+        this.format = format;
+        this.uploadFile = uploadFile;
+        this.totalBytes = totalBytes;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public void started() {
+        startedAt = LocalDateTime.now();
+        status = ImportStatus.RUNNING;
+    }
+
+    public void completed() {
+        processedBytes.set(totalBytes);
+        finishedAt = LocalDateTime.now();
+        status = ImportStatus.COMPLETED;
+    }
+
+    public void failed(String reason) {
+        message = reason;
+        finishedAt = LocalDateTime.now();
+        status = ImportStatus.FAILED;
+    }
+
+    public boolean isFinished() {
+        return status == ImportStatus.COMPLETED || status == ImportStatus.FAILED;
+    }
+
+    /**
+     * Counts a rejected row and keeps it for the status response while there is room.
+     */
+    public void rejected(ProductImportErrorDto error) {
+        failed.incrementAndGet();
+        synchronized (reportedErrors) {
+            if (reportedErrors.size() < maxReportedErrors) {
+                reportedErrors.add(error);
+            }
+        }
+    }
+
+    public ProductImportStatusDto toStatusDto() {
+        List<ProductImportErrorDto> errors;
+        synchronized (reportedErrors) {
+            errors = List.copyOf(reportedErrors);
+        }
+        long processed = Math.min(processedBytes.get(), totalBytes);
+        long failedRows = failed.get();
+        return ProductImportStatusDto.builder()
+                .jobId(id)
+                .status(status)
+                .format(format)
+                .totalBytes(totalBytes)
+                .processedBytes(processed)
+                .progressPercent(totalBytes == 0 ? 100 : (int) (processed * 100 / totalBytes))
+                .rowsRead(rowsRead.get())
+                .imported(imported.get())
+                .failed(failedRows)
+                .errors(errors)
+                .errorsTruncated(failedRows > errors.size())
+                .message(message)
+                .createdAt(createdAt)
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .build();
+    }
+}
@@ -0,0 +1,176 @@
+package dev.dammak.productservice.importer;
+
+import dev.dammak.productservice.dto.ProductImportErrorDto;
+import dev.dammak.productservice.dto.ProductImportStatusDto;
+import dev.dammak.productservice.enums.ImportFormat;
+import dev.dammak.productservice.enums.ImportStatus;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Shared state of product imports, so any instance can answer for a job while the instance
+ * that accepted the upload works on it. The worker saves its progress and rejected rows after
+ * every chunk and keeps the heartbeat of its unfinished jobs fresh; a job whose heartbeat stops
+ * lost its instance and is failed by whichever instance sees it first.
+ */
+@Component
+@RequiredArgsConstructor
+public class ProductImportJobStore {
+
+    private static final String INSERT_JOB_SQL =
+            "INSERT INTO product_import_jobs (id, format, status, total_bytes, created_at) VALUES (?, ?, ?, ?, ?)";
+    private static final String UPDATE_JOB_SQL =
+            "UPDATE product_import_jobs SET status = ?, processed_bytes = ?, rows_read = ?, imported = ?, " +
+                    "failed = ?, message = ?, started_at = ?, finished_at = ?, heartbeat_at = CURRENT_TIMESTAMP " +
+                    "WHERE id = ?";
+    private static final String HEARTBEAT_SQL =
+            "UPDATE product_import_jobs SET heartbeat_at = CURRENT_TIMESTAMP WHERE id = ANY (?) AND finished_at IS NULL";
+    private static final String FAIL_ABANDONED_SQL =
+            "UPDATE product_import_jobs SET status = ?, message = ?, finished_at = CURRENT_TIMESTAMP " +
+                    "WHERE finished_at IS NULL AND heartbeat_at < CURRENT_TIMESTAMP - make_interval(secs => ?)";
+    private static final String IS_ALIVE_SQL =
+            "SELECT EXISTS (SELECT 1 FROM product_import_jobs WHERE id = ? AND finished_at IS NULL " +
+                    "AND heartbeat_at >= CURRENT_TIMESTAMP - make_interval(secs => ?))";
+    private static final String DELETE_FINISHED_SQL =
+            "DELETE FROM product_import_jobs WHERE finished_at < ?";
+    private static final String FIND_JOB_SQL =
+            "SELECT id, format, status, total_bytes, processed_bytes, rows_read, imported, failed, message, " +
+                    "created_at, started_at, finished_at FROM product_import_jobs WHERE id = ?";
+    private static final String INSERT_ERROR_SQL =
+            "INSERT INTO product_import_errors (job_id, row_number, sku, message) VALUES (?, ?, ?, ?)";
+    private static final String FIND_ERRORS_SQL =
+            "SELECT id, row_number, sku, message FROM product_import_errors WHERE job_id = ? AND id > ? " +
+                    "ORDER BY id LIMIT ?";
+    private static final int ERROR_PAGE_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void create(ProductImportJob job) {
+        jdbcTemplate.update(INSERT_JOB_SQL, job.getId(), job.getFormat().name(), job.getStatus().name(),
+                job.getTotalBytes(), Timestamp.valueOf(job.getCreatedAt()));
+    }
+
+    /**
+     * Saves the progress of a job together with the rows it rejected since the last save.
+     */
+    @Transactional
+    public void save(ProductImportJob job, List<ProductImportErrorDto> newErrors) {
+        if (!newErrors.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ERROR_SQL, newErrors.stream()
+                    .map(error -> new Object[]{job.getId(), error.getRow(), error.getSku(), error.getMessage()})
+                    .toList());
+        }
+        ProductImportStatusDto status = job.toStatusDto();
+        jdbcTemplate.update(UPDATE_JOB_SQL, status.getStatus().name(), status.getProcessedBytes(),
+                status.getRowsRead(), status.getImported(), status.getFailed(), status.getMessage(),
+                timestamp(status.getStartedAt()), timestamp(status.getFinishedAt()), job.getId());
+    }
+
+    public void heartbeat(Collection<String> jobIds) {
+        if (jobIds.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(HEARTBEAT_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("varchar", jobIds.toArray())));
+    }
+
+    /**
+     * Fails unfinished jobs whose heartbeat is older than the given age. Returns their number.
+     */
+    public int failAbandoned(Duration staleAfter) {
+        return jdbcTemplate.update(FAIL_ABANDONED_SQL, ImportStatus.FAILED.name(),
+                "Import interrupted, the instance running it stopped", staleAfter.toSeconds());
+    }
+
+    /**
+     * Whether the job is unfinished and its instance still sent a heartbeat within the given age.
+     */
+    public boolean isAlive(String jobId, Duration staleAfter) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(IS_ALIVE_SQL, Boolean.class, jobId, staleAfter.toSeconds()));
+    }
+
+    public int deleteFinishedBefore(LocalDateTime cutoff) {
+        return jdbcTemplate.update(DELETE_FINISHED_SQL, Timestamp.valueOf(cutoff));
+    }
+
+    public Optional<ProductImportStatusDto> find(String jobId, int maxReportedErrors) {
+        List<ProductImportStatusDto> found = jdbcTemplate.query(FIND_JOB_SQL, (rs, rowNum) -> toStatusDto(rs), jobId);
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        ProductImportStatusDto status = found.get(0);
+        List<ProductImportErrorDto> errors = jdbcTemplate.query(FIND_ERRORS_SQL, (rs, rowNum) -> toErrorDto(rs),
+                jobId, 0L, maxReportedErrors);
+        status.setErrors(errors);
+        status.setErrorsTruncated(status.getFailed() > errors.size());
+        return Optional.of(status);
+    }
+
+    /**
+     * Passes every recorded rejected row of a job to the consumer in file order, one page at a
+     * time.
+     */
+    public void forEachError(String jobId, Consumer<ProductImportErrorDto> consumer) {
+        long lastId = 0;
+        while (true) {
+            long[] pageLastId = {lastId};
+            List<ProductImportErrorDto> page = jdbcTemplate.query(FIND_ERRORS_SQL, (rs, rowNum) -> {
+                pageLastId[0] = rs.getLong("id");
+                return toErrorDto(rs);
+            }, jobId, lastId, ERROR_PAGE_SIZE);
+            page.forEach(consumer);
+            if (page.size() < ERROR_PAGE_SIZE) {
+                return;
+            }
+            lastId = pageLastId[0];
+        }
+    }
+
+    // Private helper methods
+    private static ProductImportStatusDto toStatusDto(ResultSet rs) throws SQLException {
+        long totalBytes = rs.getLong("total_bytes");
+        long processed = Math.min(rs.getLong("processed_bytes"), totalBytes);
+        return ProductImportStatusDto.builder()
+                .jobId(rs.getString("id"))
+                .status(ImportStatus.valueOf(rs.getString("status")))
+                .format(ImportFormat.valueOf(rs.getString("format")))
+                .totalBytes(totalBytes)
+                .processedBytes(processed)
+                .progressPercent(totalBytes == 0 ? 100 : (int) (processed * 100 / totalBytes))
+                .rowsRead(rs.getLong("rows_read"))
+                .imported(rs.getLong("imported"))
+                .failed(rs.getLong("failed"))
+                .message(rs.getString("message"))
+                .createdAt(localDateTime(rs.getTimestamp("created_at")))
+                .startedAt(localDateTime(rs.getTimestamp("started_at")))
+                .finishedAt(localDateTime(rs.getTimestamp("finished_at")))
+                .build();
+    }
+
+    private static ProductImportErrorDto toErrorDto(ResultSet rs) throws SQLException {
+        return ProductImportErrorDto.builder()
+                .row(rs.getLong("row_number"))
+                .sku(rs.getString("sku"))
+                .message(rs.getString("message"))
+                .build();
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static LocalDateTime localDateTime(Timestamp value) {
+        return value != null ? value.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,158 @@
+package dev.dammak.productservice.importer;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.enums.ImportFormat;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Reads products one row at a time from an import file, so memory use does not depend on
+ * file size.
+ * <p>
+ * NDJSON holds one {@link ProductDto} object per line. CSV needs a header row naming
+ * {@link ProductDto} properties; {@code imageUrls} and {@code tags} hold several values
+ * separated by {@code |}. Rows that cannot be converted are returned as invalid rows and
+ * reading continues with the next one.
+ */
+public abstract class ProductImportReader implements Closeable {
+
+    private static final Set<String> MULTI_VALUE_COLUMNS = Set.of("imageUrls", "tags");
+    private static final String MULTI_VALUE_SEPARATOR = "\\|";
+
+    protected final ObjectMapper objectMapper;
+
+    protected ProductImportReader(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public static ProductImportReader open(ImportFormat format, InputStream in, ObjectMapper objectMapper)
+            throws IOException {
+        Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8);
+        return format == ImportFormat.CSV
+                ? new CsvReader(reader, objectMapper)
+                : new NdjsonReader(reader, objectMapper);
+    }
+
+    /**
+     * Next row, or null at the end of the file.
+     */
+    public abstract ImportRow next() throws IOException;
+
+    private static final class NdjsonReader extends ProductImportReader {
+
+        private final BufferedReader reader;
+        private final ObjectReader productReader;
+        private long line;
+
+        private NdjsonReader(Reader reader, ObjectMapper objectMapper) {
+            super(objectMapper);
+            this.reader = new BufferedReader(reader);
+            this.productReader = objectMapper.readerFor(ProductDto.class);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            String text;
+            do {
+                text = reader.readLine();
+                line++;
+                if (text == null) {
+                    return null;
+                }
+            } while (text.isBlank());
+
+            try {
+                return ImportRow.of(line, productReader.readValue(text));
+            } catch (JacksonException e) {
+                // Each line stands alone, so a malformed one does not affect the rest
+                return ImportRow.invalid(line, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    private static final class CsvReader extends ProductImportReader {
+
+        private final MappingIterator<Map<String, String>> rows;
+        private long line = 1;
+
+        private CsvReader(Reader reader, ObjectMapper objectMapper) throws IOException {
+            super(objectMapper);
+            CsvMapper csvMapper = new CsvMapper();
+            this.rows = csvMapper.readerForMapOf(String.class)
+                    .with(CsvSchema.emptySchema().withHeader())
+                    .readValues(reader);
+        }
+
+        @Override
+        public ImportRow next() throws IOException {
+            Map<String, String> values;
+            try {
+                if (!rows.hasNextValue()) {
+                    return null;
+                }
+                values = rows.nextValue();
+            } catch (JacksonException e) {
+                // A broken quote or row shape leaves the parser out of sync with the rows
+                throw new IOException("Malformed CSV after row " + line + ": " + e.getOriginalMessage(), e);
+            }
+            line++;
+
+            try {
+                return ImportRow.of(line, objectMapper.convertValue(toProperties(values), ProductDto.class));
+            } catch (IllegalArgumentException e) {
+                return ImportRow.invalid(line, "Invalid value: " + rootMessage(e));
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            rows.close();
+        }
+
+        private static Map<String, Object> toProperties(Map<String, String> values) {
+            Map<String, Object> properties = new LinkedHashMap<>();
+            values.forEach((column, value) -> {
+                String name = column.trim();
+                if (value == null || value.isBlank()) {
+                    return;
+                }
+                if (MULTI_VALUE_COLUMNS.contains(name)) {
+                    List<String> parts = Arrays.stream(value.split(MULTI_VALUE_SEPARATOR))
+                            .map(String::trim)
+                            .filter(part -> !part.isEmpty())
+                            .toList();
+                    properties.put(name, parts);
+                } else {
+                    properties.put(name, value.trim());
+                }
+            });
+            return properties;
+        }
+
+        private static String rootMessage(IllegalArgumentException e) {
+            return e.getCause() instanceof JacksonException jackson ? jackson.getOriginalMessage() : e.getMessage();
+        }
+    }
+}
@@ -0,0 +1,488 @@
+package dev.dammak.productservice.inventory;
+
+import dev.dammak.productservice.config.InventoryConfig;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.repository.projection.ProductStockView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-memory stock front for hot products ({@code app.inventory.hot-product-ids}).
+ * <p>
+ * Instead of every reservation decrementing the same product row, this instance claims stock
+ * from the database in chunks and hands it out from a {@link StripedStockCounter}. Only refills
+ * touch the row, so a flash sale turns thousands of contended UPDATEs into a few. Claimed quota
+ * is subtracted from {@code stock_quantity} while held, so the database never over-promises;
+ * unused quota is returned on shutdown. The stock of a hot product is therefore the row plus
+ * the unsold quota of all instances ({@link #heldQuota}); moving units between the two is not
+ * a stock change, and sales are announced in one event per renewal.
+ * <p>
+ * Each instance also records the quota it holds in {@code hot_stock_quotas} and renews that row
+ * every {@code hot-stock-renew-interval-ms}. Units sold from the quota, and units put back into it,
+ * are appended to {@code hot_stock_quota_usage} by the transaction that sells or returns them, and
+ * each renewal folds that usage into the row. The row minus its usage is therefore exactly the
+ * unsold quota, whether or not the owner is still alive to renew it, which makes two things possible:
+ * <ul>
+ *     <li>absolute counts ({@link #settleSet}): the local quota is drained and the unsold quota of
+ *     other instances counts towards the new total, with any excess revoked from their rows;</li>
+ *     <li>crash recovery: rows not renewed within {@code hot-stock-quota-stale-after} have their
+ *     unsold quota returned to {@code stock_quantity} by any live instance. An instance stops
+ *     selling from its counter once its last renewal is older than half that time, so reclaimed
+ *     quota is never sold twice.</li>
+ * </ul>
+ * Usage rows are inserted rather than updating the quota row, so concurrent sales only share a
+ * key lock on it and never wait for each other.
+ * Quota revoked from another instance stays sellable there until its next renewal.
+ */
+@Component
+@Slf4j
+public class HotStockAllocator {
+
+    private static final String LOCK_PRODUCT_SQL = "SELECT id FROM products WHERE id = ? FOR UPDATE";
+    private static final String LOCK_QUOTA_SQL =
+            "SELECT quantity FROM hot_stock_quotas WHERE product_id = ? AND instance_id = ? FOR UPDATE";
+    private static final String SAVE_QUOTA_SQL =
+            "INSERT INTO hot_stock_quotas (product_id, instance_id, quantity, renewed_at) " +
+            "VALUES (?, ?, ?, CURRENT_TIMESTAMP) ON CONFLICT (product_id, instance_id) " +
+            "DO UPDATE SET quantity = EXCLUDED.quantity, renewed_at = CURRENT_TIMESTAMP";
+    private static final String RECORD_USAGE_SQL =
+            "INSERT INTO hot_stock_quota_usage (product_id, instance_id, quantity) " +
+            "SELECT product_id, instance_id, ? FROM hot_stock_quotas WHERE product_id = ? AND instance_id = ?";
+    private static final String SETTLE_USAGE_SQL =
+            "WITH settled AS (DELETE FROM hot_stock_quota_usage WHERE product_id = ? AND instance_id = ? " +
+            "RETURNING quantity) SELECT COALESCE(SUM(quantity), 0) FROM settled";
+    private static final String DELETE_QUOTA_SQL =
+            "DELETE FROM hot_stock_quotas WHERE product_id = ? AND instance_id = ?";
+    private static final String LOCK_OTHER_QUOTAS_SQL =
+            "SELECT instance_id, quantity FROM hot_stock_quotas WHERE product_id = ? AND instance_id <> ? " +
+            "ORDER BY instance_id FOR UPDATE";
+    private static final String SET_QUOTA_SQL =
+            "UPDATE hot_stock_quotas SET quantity = ? WHERE product_id = ? AND instance_id = ?";
+    private static final String FIND_STALE_QUOTAS_SQL =
+            "SELECT product_id, instance_id FROM hot_stock_quotas " +
+            "WHERE renewed_at < CURRENT_TIMESTAMP - make_interval(secs => ?)";
+    private static final String LOCK_STALE_QUOTA_SQL =
+            "SELECT quantity FROM hot_stock_quotas WHERE product_id = ? AND instance_id = ? " +
+            "AND renewed_at < CURRENT_TIMESTAMP - make_interval(secs => ?) FOR UPDATE";
+    private static final String HELD_QUOTA_SQL =
+            "SELECT COALESCE(SUM(quantity), 0) FROM (SELECT quantity FROM hot_stock_quotas WHERE product_id = ? " +
+            "UNION ALL SELECT -quantity FROM hot_stock_quota_usage WHERE product_id = ?) held";
+    private static final String HELD_QUOTAS_SQL =
+            "SELECT product_id, SUM(quantity) AS quantity FROM (SELECT product_id, quantity FROM hot_stock_quotas " +
+            "UNION ALL SELECT product_id, -quantity FROM hot_stock_quota_usage) held GROUP BY product_id";
+    private static final ResultSetExtractor<Integer> SINGLE_QUANTITY = rs -> rs.next() ? rs.getInt(1) : null;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductRepository productRepository;
+    private final StockChangePublisher stockChangePublisher;
+    private final InventoryConfig inventoryConfig;
+    private final TransactionTemplate requiresNewTransaction;
+    private final String instanceId = UUID.randomUUID().toString();
+    private final ConcurrentMap<Long, Quota> quotas = new ConcurrentHashMap<>();
+
+    public HotStockAllocator(JdbcTemplate jdbcTemplate,
+                             ProductRepository productRepository,
+                             StockChangePublisher stockChangePublisher,
+                             InventoryConfig inventoryConfig,
+                             PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productRepository = productRepository;
+        this.stockChangePublisher = stockChangePublisher;
+        this.inventoryConfig = inventoryConfig;
+        this.requiresNewTransaction = new TransactionTemplate(transactionManager);
+        this.requiresNewTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isHot(Long productId) {
+        return inventoryConfig.getHotProductIds().contains(productId);
+    }
+
+    public int available(Long productId) {
+        Quota quota = quotas.get(productId);
+        return quota != null ? quota.counter.available() : 0;
+    }
+
+    /**
+     * The unsold quota all instances hold for a product, which is part of its stock on top of
+     * {@code stock_quantity}. Always 0 for products that are not hot.
+     */
+    public int heldQuota(Long productId) {
+        if (!isHot(productId)) {
+            return 0;
+        }
+        Integer held = jdbcTemplate.queryForObject(HELD_QUOTA_SQL, Integer.class, productId, productId);
+        return held != null ? held : 0;
+    }
+
+    /**
+     * {@link #heldQuota} of every product that has quota, for loading stock in bulk.
+     */
+    public Map<Long, Integer> heldQuotas() {
+        Map<Long, Integer> held = new HashMap<>();
+        jdbcTemplate.query(HELD_QUOTAS_SQL, rs -> {
+            held.put(rs.getLong("product_id"), rs.getInt("quantity"));
+        });
+        return held;
+    }
+
+    /**
+     * Takes stock from the local quota, refilling it from the database when needed. The sale is
+     * recorded as quota usage when the surrounding transaction commits, and the units go back to
+     * the quota if it rolls back.
+     *
+     * @return false if the product is not hot or not enough stock is left
+     */
+    public boolean tryAcquire(Long productId, int quantity) {
+        if (!isHot(productId)) {
+            return false;
+        }
+
+        Quota quota = quota(productId);
+        if (quota.leaseExpired(leaseNanos()) && !renewQuietly(productId, quota)) {
+            return false;
+        }
+        if (!quota.counter.tryAcquire(quantity) && !refillAndAcquire(productId, quota, quantity)) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            trackSale(productId, quota, quantity);
+        } else if (recordUsage(productId, quantity) == 0) {
+            // The quota was settled or reclaimed meanwhile, so the units are no longer ours to sell
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Puts released stock back into the local quota once the surrounding transaction commits.
+     *
+     * @return false if the product is not hot or this instance no longer holds quota for it,
+     * and the caller must return the stock itself
+     */
+    public boolean returnStock(Long productId, int quantity) {
+        if (!isHot(productId)) {
+            return false;
+        }
+
+        // The quota row is gone after a SET or a reclaim, so the units belong to the product row
+        Quota quota = quotas.get(productId);
+        if (quota == null || recordUsage(productId, -quantity) == 0) {
+            return false;
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            trackInFlight(quota, quantity, true);
+        } else {
+            quota.counter.add(quantity);
+        }
+        return true;
+    }
+
+    /**
+     * Folds the quota of a hot product into an absolute stock count. Runs in the transaction
+     * that writes the count: this instance's quota is drained (and restored if that transaction
+     * rolls back), while the unsold quota of other instances is part of the new total, so only
+     * the remainder belongs in {@code stock_quantity}. If they hold more than the new total, the
+     * excess is revoked from their rows.
+     *
+     * @return the quantity to write to {@code stock_quantity}
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int settleSet(Long productId, int quantity) {
+        if (!isHot(productId)) {
+            return quantity;
+        }
+        // Product row before quota rows, the same order claims use
+        if (jdbcTemplate.queryForList(LOCK_PRODUCT_SQL, Long.class, productId).isEmpty()) {
+            return quantity;
+        }
+
+        // Waits for sales still recording usage against the row; later ones find it gone and roll back
+        jdbcTemplate.update(DELETE_QUOTA_SQL, productId, instanceId);
+        Quota quota = quotas.get(productId);
+        if (quota != null) {
+            quota.generation.incrementAndGet();
+            int drained = quota.counter.drain();
+            if (drained > 0) {
+                trackInFlight(quota, drained, false);
+            }
+        }
+
+        int remaining = quantity;
+        for (Map<String, Object> other : jdbcTemplate.queryForList(LOCK_OTHER_QUOTAS_SQL, productId, instanceId)) {
+            String owner = (String) other.get("instance_id");
+            int unsold = Math.max(0, ((Number) other.get("quantity")).intValue() - settleUsage(productId, owner));
+            int kept = Math.min(unsold, remaining);
+            // The usage is folded in, so the row is rewritten even when nothing is revoked
+            jdbcTemplate.update(SET_QUOTA_SQL, kept, productId, owner);
+            remaining -= kept;
+        }
+        return remaining;
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.hot-stock-renew-interval-ms:5000}")
+    public void renewQuota() {
+        quotas.forEach(this::renewQuietly);
+    }
+
+    /**
+     * Returns the unsold quota of owners that stopped renewing it, most likely because the
+     * instance crashed. Every instance runs this; a row is deleted exactly once, so the stock
+     * is returned once.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.hot-stock-renew-interval-ms:5000}")
+    public void reclaimStrandedQuota() {
+        double staleSeconds = inventoryConfig.getHotStockQuotaStaleAfter().toMillis() / 1000.0;
+        for (Map<String, Object> stale : jdbcTemplate.queryForList(FIND_STALE_QUOTAS_SQL, staleSeconds)) {
+            Long productId = ((Number) stale.get("product_id")).longValue();
+            String owner = (String) stale.get("instance_id");
+            try {
+                requiresNewTransaction.executeWithoutResult(status -> {
+                    jdbcTemplate.queryForList(LOCK_PRODUCT_SQL, Long.class, productId);
+                    Integer recorded = jdbcTemplate.query(LOCK_STALE_QUOTA_SQL, SINGLE_QUANTITY, productId, owner, staleSeconds);
+                    if (recorded == null) {
+                        return;
+                    }
+                    // Units the owner sold since its last renewal are gone, only the rest comes back
+                    int sold = settleUsage(productId, owner);
+                    int units = recorded - sold;
+                    jdbcTemplate.update(DELETE_QUOTA_SQL, productId, owner);
+                    if (units > 0) {
+                        productRepository.incrementStock(productId, units);
+                        log.warn("Reclaimed {} units of hot stock quota for product {} from instance {}", units, productId, owner);
+                    }
+                    publishSales(productId, sold);
+                });
+            } catch (Exception e) {
+                log.error("Failed to reclaim hot stock quota for product {} from instance {}", productId, owner, e);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void returnAllQuota() {
+        quotas.forEach((productId, quota) -> {
+            synchronized (quota) {
+                quota.generation.incrementAndGet();
+                int units = quota.counter.drain();
+                try {
+                    requiresNewTransaction.executeWithoutResult(status -> {
+                        jdbcTemplate.queryForList(LOCK_PRODUCT_SQL, Long.class, productId);
+                        int sold = settleUsage(productId, instanceId);
+                        if (units > 0) {
+                            productRepository.incrementStock(productId, units);
+                        }
+                        jdbcTemplate.update(DELETE_QUOTA_SQL, productId, instanceId);
+                        publishSales(productId, sold);
+                    });
+                } catch (Exception e) {
+                    log.error("Failed to return {} units of hot stock quota for product {}, leaving it to be reclaimed",
+                            units, productId, e);
+                }
+            }
+        });
+    }
+
+    // Private helper methods
+    private Quota quota(Long productId) {
+        return quotas.computeIfAbsent(productId, id -> new Quota(new StripedStockCounter(inventoryConfig.getHotStockStripes())));
+    }
+
+    private long leaseNanos() {
+        return inventoryConfig.getHotStockQuotaStaleAfter().toNanos() / 2;
+    }
+
+    private boolean refillAndAcquire(Long productId, Quota quota, int quantity) {
+        // One refill per product at a time; others retry the counter once it is topped up
+        synchronized (quota) {
+            if (quota.counter.tryAcquire(quantity)) {
+                return true;
+            }
+            int claimed = claim(productId, quota, Math.max(inventoryConfig.getHotStockChunkSize(), quantity));
+            if (claimed > 0) {
+                quota.counter.add(claimed);
+                quota.renewedAt = System.nanoTime();
+            }
+            return quota.counter.tryAcquire(quantity);
+        }
+    }
+
+    private int claim(Long productId, Quota quota, int wanted) {
+        // Claims commit on their own so quota survives a rollback of the reservation that asked for it
+        Integer claimed = requiresNewTransaction.execute(status -> {
+            int take = wanted;
+            if (productRepository.decrementStock(productId, take) == 0) {
+                Optional<ProductStockView> current = productRepository.findStockViewById(productId);
+                if (current.isEmpty() || current.get().getStockQuantity() <= 0) {
+                    return 0;
+                }
+                take = current.get().getStockQuantity();
+                if (productRepository.decrementStock(productId, take) == 0) {
+                    return 0;
+                }
+            }
+
+            // Recorded under the product row lock, so a concurrent SET sees the new quota
+            Reconciled reconciled = reconcile(productId, quota);
+            jdbcTemplate.update(SAVE_QUOTA_SQL, productId, instanceId, reconciled.held() + take);
+            publishSales(productId, reconciled.sold());
+            return take;
+        });
+
+        log.debug("Claimed {} units of hot stock quota for product {}", claimed, productId);
+        return claimed != null ? claimed : 0;
+    }
+
+    private boolean renewQuietly(Long productId, Quota quota) {
+        try {
+            synchronized (quota) {
+                requiresNewTransaction.executeWithoutResult(status -> {
+                    Reconciled reconciled = reconcile(productId, quota);
+                    if (reconciled.held() > 0) {
+                        jdbcTemplate.update(SAVE_QUOTA_SQL, productId, instanceId, reconciled.held());
+                    } else {
+                        jdbcTemplate.update(DELETE_QUOTA_SQL, productId, instanceId);
+                    }
+                    publishSales(productId, reconciled.sold());
+                });
+                quota.renewedAt = System.nanoTime();
+            }
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to renew hot stock quota for product {}", productId, e);
+            return false;
+        }
+    }
+
+    /**
+     * Locks this instance's quota row, folds the recorded usage into it and drops whatever a SET
+     * or a reclaim took away. Callers hold the quota monitor and an open transaction.
+     *
+     * @return the units this instance still holds, including those in open transactions, and
+     * the units sold since the last renewal
+     */
+    private Reconciled reconcile(Long productId, Quota quota) {
+        // The lock waits for sales that are recording usage, so their units are either counted here or in flight
+        Integer row = jdbcTemplate.query(LOCK_QUOTA_SQL, SINGLE_QUANTITY, productId, instanceId);
+        int sold = row != null ? settleUsage(productId, instanceId) : 0;
+        int recorded = row != null ? row - sold : 0;
+        int held = quota.counter.available() + quota.inFlight.get();
+        int revoked = held - recorded;
+        if (revoked <= 0) {
+            return new Reconciled(held, sold);
+        }
+
+        quota.generation.incrementAndGet();
+        quota.counter.add(Math.max(0, quota.counter.drain() - revoked));
+        log.info("Dropped {} units of revoked hot stock quota for product {}", revoked, productId);
+        return new Reconciled(quota.counter.available() + quota.inFlight.get(), sold);
+    }
+
+    /**
+     * Announces units sold from (or, when negative, returned to) quota as one stock change.
+     * Runs after the quota rows are written, so the new stock counts them.
+     */
+    private void publishSales(Long productId, int sold) {
+        if (sold == 0) {
+            return;
+        }
+        productRepository.findStockViewById(productId).ifPresent(stock -> {
+            int quantity = stock.getStockQuantity() + heldQuota(productId);
+            stockChangePublisher.publish(stock, quantity + sold, quantity, sold > 0 ? "SUBTRACT" : "ADD", "Hot stock sales");
+        });
+    }
+
+    private int recordUsage(Long productId, int quantity) {
+        return jdbcTemplate.update(RECORD_USAGE_SQL, quantity, productId, instanceId);
+    }
+
+    private int settleUsage(Long productId, String owner) {
+        Integer used = jdbcTemplate.queryForObject(SETTLE_USAGE_SQL, Integer.class, productId, owner);
+        return used != null ? used : 0;
+    }
+
+    private void trackSale(Long productId, Quota quota, int quantity) {
+        int generation = quota.generation.get();
+        quota.inFlight.addAndGet(quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean recorded;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                // Recorded last, so the key lock it takes on the quota row is held only while committing
+                if (recordUsage(productId, quantity) == 0) {
+                    throw new ProductException("Stock of product " + productId + " was reset, please retry");
+                }
+                // The usage row stands for the units from here on; renewals wait for the commit to see it
+                recorded = true;
+                quota.inFlight.addAndGet(-quantity);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK && quota.generation.get() == generation) {
+                    quota.counter.add(quantity);
+                }
+                if (!recorded) {
+                    quota.inFlight.addAndGet(-quantity);
+                }
+            }
+        });
+    }
+
+    private static void trackInFlight(Quota quota, int quantity, boolean restoreOnCommit) {
+        // Renewals keep counting the units until the transaction settles whether they come back
+        int generation = quota.generation.get();
+        quota.inFlight.addAndGet(quantity);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                boolean restore = restoreOnCommit ? status == STATUS_COMMITTED : status == STATUS_ROLLED_BACK;
+                if (restore && quota.generation.get() == generation) {
+                    quota.counter.add(quantity);
+                }
+                quota.inFlight.addAndGet(-quantity);
+            }
+        });
+    }
+
+    private record Reconciled(int held, int sold) {
+    }
+
+    private static final class Quota {
+        private final StripedStockCounter counter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        // Bumped whenever quota is taken away, so pending transactions cannot put it back
+        private final AtomicInteger generation = new AtomicInteger();
+        private volatile long renewedAt = System.nanoTime();
+
+        private Quota(StripedStockCounter counter) {
+            this.counter = counter;
+        }
+
+        private boolean leaseExpired(long leaseNanos) {
+            return System.nanoTime() - renewedAt > leaseNanos;
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package dev.dammak.productservice.inventory;
+
+import dev.dammak.productservice.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Keeps the ids of products below their minimum stock level in memory, so listing them never
+ * compares stock columns across the whole table.
+ * <p>
+ * The set is loaded at startup through the partial index on low-stock rows and reloaded
+ * periodically as a safety net. In between, every stock change and product write seen on the
+ * event stream moves its product in or out of the set. Changes that arrive while a reload is
+ * running are recorded and replayed on top of the loaded snapshot.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LowStockTracker {
+
+    private final ProductRepository productRepository;
+    private final HotStockAllocator hotStockAllocator;
+
+    private final Object lock = new Object();
+    private volatile NavigableSet<Long> lowStockIds = new ConcurrentSkipListSet<>();
+    private Map<Long, Boolean> rebuildJournal;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${app.inventory.low-stock-refresh-interval-ms:900000}",
+            fixedDelayString = "${app.inventory.low-stock-refresh-interval-ms:900000}")
+    public void refresh() {
+        synchronized (lock) {
+            rebuildJournal = new HashMap<>();
+        }
+        try {
+            NavigableSet<Long> loaded = new ConcurrentSkipListSet<>(productRepository.findLowStockIds());
+            // The index only sees the row, while hot products also have stock held as quota
+            hotStockAllocator.heldQuotas().forEach((productId, held) ->
+                    productRepository.findStockViewById(productId).ifPresent(stock -> apply(loaded, productId,
+                            StockChange.isLowStock(stock.getStockQuantity() + held, stock.getMinStockLevel()))));
+            synchronized (lock) {
+                rebuildJournal.forEach((productId, low) -> apply(loaded, productId, low));
+                lowStockIds = loaded;
+            }
+            log.info("Loaded {} low stock products", loaded.size());
+        } catch (Exception e) {
+            log.error("Error loading low stock products: {}", e.getMessage(), e);
+        } finally {
+            synchronized (lock) {
+                rebuildJournal = null;
+            }
+        }
+    }
+
+    /**
+     * Records the current stock of a product, adding it to or removing it from the set.
+     */
+    public void update(Long productId, int stockQuantity, Integer minStockLevel) {
+        boolean low = StockChange.isLowStock(stockQuantity, minStockLevel);
+        synchronized (lock) {
+            apply(lowStockIds, productId, low);
+            if (rebuildJournal != null) {
+                rebuildJournal.put(productId, low);
+            }
+        }
+    }
+
+    /**
+     * One page of low stock product ids, in id order.
+     */
+    public Page<Long> getLowStockIds(Pageable pageable) {
+        NavigableSet<Long> ids = lowStockIds;
+        List<Long> content = ids.stream()
+                .skip(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .toList();
+        return new PageImpl<>(content, pageable, ids.size());
+    }
+
+    // Private helper methods
+    private static void apply(NavigableSet<Long> ids, Long productId, boolean low) {
+        if (low) {
+            ids.add(productId);
+        } else {
+            ids.remove(productId);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package dev.dammak.productservice.inventory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A committed stock change, published as a {@code stock.changed} event keyed by product id.
+ */
+public record StockChange(Long productId, String sku, int oldQuantity, int newQuantity, Integer minStockLevel,
+                          String operation, String reason) {
+
+    public static boolean isLowStock(int quantity, Integer minStockLevel) {
+        return minStockLevel != null && quantity < minStockLevel;
+    }
+
+    /**
+     * Whether this change took the product from its minimum stock level or above to below it.
+     */
+    public boolean fellBelowMinimum() {
+        return !isLowStock(oldQuantity, minStockLevel) && isLowStock(newQuantity, minStockLevel);
+    }
+
+    public Map<String, Object> toEvent() {
+        Map<String, Object> event = new HashMap<>(Map.of(
+                "productId", productId,
+                "sku", sku,
+                "oldQuantity", oldQuantity,
+                "newQuantity", newQuantity,
+                "operation", operation,
+                "reason", reason != null ? reason : "Manual update"
+        ));
+        if (minStockLevel != null) {
+            event.put("minStockLevel", minStockLevel);
+        }
+        return event;
+    }
+
+    public Map<String, Object> toLowStockEvent() {
+        return Map.of(
+                "productId", productId,
+                "sku", sku,
+                "stockQuantity", newQuantity,
+                "minStockLevel", minStockLevel
+        );
+    }
+}
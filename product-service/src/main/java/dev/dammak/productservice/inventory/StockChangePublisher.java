@@ -0,0 +1,81 @@
+package dev.dammak.productservice.inventory;
+
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.cache.SearchResultCache;
+import dev.dammak.productservice.outbox.OutboxWriter;
+import dev.dammak.productservice.repository.projection.ProductStockView;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Announces changes to product stock from within the transaction that made them: evicts the
+ * cached products and stock-dependent search results, and records {@code stock.changed}
+ * events in the outbox, keyed by product id so all changes of one product are published in
+ * order. A change that takes a product below its minimum stock level also records a
+ * {@code stock.low} event; changes that stay below it do not repeat the alert.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class StockChangePublisher {
+
+    private static final String STOCK_CHANGED_TOPIC = "stock.changed";
+    private static final String STOCK_LOW_TOPIC = "stock.low";
+
+    private final OutboxWriter outboxWriter;
+    private final ProductCacheMaintainer productCacheMaintainer;
+    private final SearchResultCache searchResultCache;
+
+    public void publish(ProductStockView stock, int oldQuantity, String operation, String reason) {
+        publish(stock, oldQuantity, stock.getStockQuantity(), operation, reason);
+    }
+
+    /**
+     * Records a change whose new quantity is not the row value, such as hot products whose
+     * stock is partly held as quota.
+     */
+    public void publish(ProductStockView stock, int oldQuantity, int newQuantity, String operation, String reason) {
+        StockChange change = new StockChange(stock.getId(), stock.getSku(), oldQuantity, newQuantity,
+                stock.getMinStockLevel(), operation, reason);
+        productCacheMaintainer.evictProduct(change.productId());
+        searchResultCache.stockChanged();
+        outboxWriter.append(STOCK_CHANGED_TOPIC, String.valueOf(change.productId()), change.toEvent());
+        if (change.fellBelowMinimum()) {
+            outboxWriter.append(STOCK_LOW_TOPIC, String.valueOf(change.productId()), change.toLowStockEvent());
+        }
+        log.info("Updated inventory for product {} from {} to {}", change.productId(), oldQuantity, change.newQuantity());
+    }
+
+    /**
+     * Records many changes at once: each product is evicted once and all events are written
+     * to the outbox with one batch insert.
+     */
+    public void publishAll(Collection<StockChange> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        Set<Long> productIds = new LinkedHashSet<>();
+        changes.forEach(change -> productIds.add(change.productId()));
+        productIds.forEach(productCacheMaintainer::evictProduct);
+        searchResultCache.stockChanged();
+
+        outboxWriter.appendAll(STOCK_CHANGED_TOPIC, changes.stream()
+                .map(change -> new OutboxWriter.Message(String.valueOf(change.productId()), change.toEvent()))
+                .toList());
+        List<OutboxWriter.Message> lowStock = changes.stream()
+                .filter(StockChange::fellBelowMinimum)
+                .map(change -> new OutboxWriter.Message(String.valueOf(change.productId()), change.toLowStockEvent()))
+                .toList();
+        if (!lowStock.isEmpty()) {
+            outboxWriter.appendAll(STOCK_LOW_TOPIC, lowStock);
+        }
+        log.info("Recorded {} stock changes for {} products", changes.size(), productIds.size());
+    }
+}
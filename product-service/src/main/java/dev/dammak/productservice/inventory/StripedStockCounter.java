@@ -0,0 +1,108 @@
+package dev.dammak.productservice.inventory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free stock counter split across padded stripes.
+ * <p>
+ * Each thread starts at its own stripe and takes units with a CAS, so concurrent buyers of
+ * the same product rarely touch the same cache line. A thread whose stripe runs dry moves
+ * to the stripe it found stock in. Units are never duplicated: every unit
+ * lives in exactly one stripe until it is taken. When no single stripe holds enough for a
+ * request, a slow path gathers units across stripes under a lock.
+ */
+public class StripedStockCounter {
+
+    // 16 ints = 64 bytes between stripes to avoid false sharing
+    private static final int PADDING = 16;
+
+    private static final AtomicInteger NEXT_PROBE = new AtomicInteger();
+    private static final ThreadLocal<int[]> PROBE = ThreadLocal.withInitial(() -> new int[]{NEXT_PROBE.getAndIncrement()});
+
+    private final int stripes;
+    private final int mask;
+    private final AtomicIntegerArray cells;
+
+    public StripedStockCounter(int stripes) {
+        int requested = Math.max(1, stripes);
+        this.stripes = requested == 1 ? 1 : Integer.highestOneBit(requested - 1) << 1;
+        this.mask = this.stripes - 1;
+        this.cells = new AtomicIntegerArray(this.stripes * PADDING);
+    }
+
+    /**
+     * Takes {@code quantity} units if available.
+     */
+    public boolean tryAcquire(int quantity) {
+        int[] probe = PROBE.get();
+        int start = probe[0];
+        for (int i = 0; i < stripes; i++) {
+            int stripe = (start + i) & mask;
+            int index = stripe * PADDING;
+            int current;
+            while ((current = cells.get(index)) >= quantity) {
+                if (cells.compareAndSet(index, current, current - quantity)) {
+                    if (i > 0) {
+                        probe[0] = stripe;
+                    }
+                    return true;
+                }
+            }
+        }
+        return acquireAcrossStripes(quantity);
+    }
+
+    /**
+     * Adds units, spread evenly across stripes so buyers on every stripe find stock.
+     */
+    public void add(int quantity) {
+        int perStripe = quantity / stripes;
+        int start = PROBE.get()[0];
+        if (perStripe > 0) {
+            for (int i = 0; i < stripes; i++) {
+                cells.addAndGet(i * PADDING, perStripe);
+            }
+        }
+        int remainder = quantity - perStripe * stripes;
+        if (remainder > 0) {
+            cells.addAndGet((start & mask) * PADDING, remainder);
+        }
+    }
+
+    /**
+     * Removes and returns every unit currently held.
+     */
+    public int drain() {
+        int drained = 0;
+        for (int i = 0; i < stripes; i++) {
+            drained += cells.getAndSet(i * PADDING, 0);
+        }
+        return drained;
+    }
+
+    public int available() {
+        int available = 0;
+        for (int i = 0; i < stripes; i++) {
+            available += cells.get(i * PADDING);
+        }
+        return available;
+    }
+
+    private synchronized boolean acquireAcrossStripes(int quantity) {
+        int collected = 0;
+        for (int i = 0; i < stripes && collected < quantity; i++) {
+            collected += cells.getAndSet(i * PADDING, 0);
+        }
+        if (collected >= quantity) {
+            if (collected > quantity) {
+                add(collected - quantity);
+            }
+            return true;
+        }
+        if (collected > 0) {
+            add(collected);
+        }
+        return false;
+    }
+}
@@ -0,0 +1,71 @@
+package dev.dammak.productservice.listener;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.cache.EntityCacheEvictor;
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.inventory.LowStockTracker;
+import dev.dammak.productservice.search.IndexedProduct;
+import dev.dammak.productservice.search.ProductSearchIndex;
+import dev.dammak.productservice.search.SuggestionIndex;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps this instance's in-memory search and suggestion indexes, low-stock set and cached
+ * product collections in sync with catalog changes. Every replica holds its own copy, so each
+ * one consumes with a unique group id.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductEventListener {
+
+    private final ProductSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final LowStockTracker lowStockTracker;
+    private final EntityCacheEvictor entityCacheEvictor;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = {"product.created", "product.updated", "product.deleted", "stock.changed"},
+            groupId = "${spring.application.name}-search-${random.uuid}")
+    public void handleProductEvent(@Payload String message,
+                                   @Header(KafkaHeaders.RECEIVED_TOPIC) String topic) {
+        try {
+            if ("stock.changed".equals(topic)) {
+                JsonNode stockEvent = objectMapper.readTree(message);
+                long productId = stockEvent.get("productId").asLong();
+                int newQuantity = stockEvent.get("newQuantity").asInt();
+                searchIndex.updateStock(productId, newQuantity);
+                suggestionIndex.updateStock(productId, newQuantity);
+                JsonNode minStockLevel = stockEvent.get("minStockLevel");
+                lowStockTracker.update(productId, newQuantity, minStockLevel != null ? minStockLevel.asInt() : null);
+                return;
+            }
+
+            ProductDto product = objectMapper.readValue(message, ProductDto.class);
+            if (!"product.created".equals(topic)) {
+                entityCacheEvictor.evictProductCollections(product.getId());
+            }
+            if (product.getStockQuantity() != null) {
+                lowStockTracker.update(product.getId(), product.getStockQuantity(), product.getMinStockLevel());
+            }
+            if ("product.deleted".equals(topic) || !Boolean.TRUE.equals(product.getActive())) {
+                searchIndex.remove(product.getId());
+                suggestionIndex.remove(product.getId());
+            } else {
+                IndexedProduct indexed = IndexedProduct.from(product);
+                searchIndex.index(indexed);
+                suggestionIndex.index(indexed);
+            }
+            log.debug("Applied {} event for product {} to search indexes", topic, product.getId());
+        } catch (Exception e) {
+            log.error("Failed to apply {} event to search indexes: {}", topic, e.getMessage(), e);
+        }
+    }
+}
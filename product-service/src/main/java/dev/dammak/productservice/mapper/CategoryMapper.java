@@ -1,5 +1,6 @@
 package dev.dammak.productservice.mapper;
 
+import dev.dammak.productservice.category.CategoryNode;
 import dev.dammak.productservice.dto.CategoryDto;
 import dev.dammak.productservice.entity.Category;
 import org.springframework.stereotype.Component;
@@ -27,6 +28,23 @@ public class CategoryMapper {
                 .build();
     }
 
+    public CategoryDto toDto(CategoryNode node) {
+        if (node == null) {
+            return null;
+        }
+
+        return CategoryDto.builder()
+                .id(node.getId())
+                .name(node.getName())
+                .description(node.getDescription())
+                .parentId(node.getParentId())
+                .displayOrder(node.getDisplayOrder())
+                .active(node.isActive())
+                .createdAt(node.getCreatedAt())
+                .updatedAt(node.getUpdatedAt())
+                .build();
+    }
+
     public Category toEntity(CategoryDto dto) {
         if (dto == null) {
             return null;
@@ -62,6 +80,12 @@ public class CategoryMapper {
                 .collect(Collectors.toList());
     }
 
+    public List<CategoryDto> toDtoListFromNodes(List<CategoryNode> nodes) {
+        return nodes.stream()
+                .map(this::toDto)
+                .collect(Collectors.toList());
+    }
+
     public List<Category> toEntityList(List<CategoryDto> dtos) {
         return dtos.stream()
                 .map(this::toEntity)
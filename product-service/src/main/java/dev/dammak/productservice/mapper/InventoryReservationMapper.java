@@ -0,0 +1,25 @@
+package dev.dammak.productservice.mapper;
+
+import dev.dammak.productservice.dto.ReservationDto;
+import dev.dammak.productservice.entity.InventoryReservation;
+import org.springframework.stereotype.Component;
+
+@Component
+public class InventoryReservationMapper {
+
+    public ReservationDto toDto(InventoryReservation reservation) {
+        if (reservation == null) {
+            return null;
+        }
+
+        return ReservationDto.builder()
+                .reservationId(reservation.getReservationId())
+                .productId(reservation.getProductId())
+                .quantity(reservation.getQuantity())
+                .status(reservation.getStatus())
+                .reference(reservation.getReference())
+                .expiresAt(reservation.getExpiresAt())
+                .createdAt(reservation.getCreatedAt())
+                .build();
+    }
+}
@@ -2,16 +2,25 @@ package dev.dammak.productservice.mapper;
 
 
 import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.dto.ProductSummaryDto;
 import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.repository.projection.ProductSummaryView;
+import dev.dammak.productservice.util.ImageVariantGenerator;
+import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Component
+@RequiredArgsConstructor
 public class ProductMapper {
 
+    private final ImageVariantGenerator imageVariantGenerator;
+
     public ProductDto toDto(Product product) {
         if (product == null) {
             return null;
@@ -30,6 +39,7 @@ public class ProductMapper {
                 .active(product.getActive())
                 .featured(product.getFeatured())
                 .imageUrls(new ArrayList<>(product.getImageUrls()))
+                .imageVariants(toImageVariants(product.getImageUrls()))
                 .tags(product.getTags())
                 .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
                 .categoryName(product.getCategory() != null ? product.getCategory().getName() : null)
@@ -43,6 +53,50 @@ public class ProductMapper {
                 .build();
     }
 
+    public ProductSummaryDto toSummaryDto(ProductSummaryView view, String imageUrl) {
+        if (view == null) {
+            return null;
+        }
+
+        return ProductSummaryDto.builder()
+                .id(view.getId())
+                .name(view.getName())
+                .brand(view.getBrand())
+                .price(view.getPrice())
+                .discountPrice(view.getDiscountPrice())
+                .sku(view.getSku())
+                .stockQuantity(view.getStockQuantity())
+                .featured(view.getFeatured())
+                .categoryId(view.getCategoryId())
+                .categoryName(view.getCategoryName())
+                .imageUrl(imageUrl)
+                .imageVariants(imageUrl != null ? imageVariantGenerator.variantUrls(imageUrl) : Map.of())
+                .build();
+    }
+
+    public ProductSummaryDto toSummaryDto(ProductDto product) {
+        if (product == null) {
+            return null;
+        }
+
+        String imageUrl = product.getImageUrls() != null && !product.getImageUrls().isEmpty()
+                ? product.getImageUrls().get(0) : null;
+        return ProductSummaryDto.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .brand(product.getBrand())
+                .price(product.getPrice())
+                .discountPrice(product.getDiscountPrice())
+                .sku(product.getSku())
+                .stockQuantity(product.getStockQuantity())
+                .featured(product.getFeatured())
+                .categoryId(product.getCategoryId())
+                .categoryName(product.getCategoryName())
+                .imageUrl(imageUrl)
+                .imageVariants(imageUrl != null ? imageVariantGenerator.variantUrls(imageUrl) : Map.of())
+                .build();
+    }
+
     public Product toEntity(ProductDto dto) {
         if (dto == null) {
             return null;
@@ -120,4 +174,16 @@ public class ProductMapper {
                 .map(this::toEntity)
                 .collect(Collectors.toList());
     }
+
+    // Private helper methods
+    private Map<String, Map<String, String>> toImageVariants(List<String> imageUrls) {
+        Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+        for (String imageUrl : imageUrls) {
+            Map<String, String> urls = imageVariantGenerator.variantUrls(imageUrl);
+            if (!urls.isEmpty()) {
+                variants.put(imageUrl, urls);
+            }
+        }
+        return variants;
+    }
 }
@@ -0,0 +1,179 @@
+package dev.dammak.productservice.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.config.OutboxConfig;
+import dev.dammak.productservice.entity.OutboxEvent;
+import dev.dammak.productservice.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.RetriableException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drains the outbox to Kafka in id order.
+ * <p>
+ * Each batch is read and published inside one transaction guarded by a Postgres advisory lock,
+ * so only one instance relays at a time. Within a batch, events are sent in waves: each wave
+ * sends the oldest unsent event of every key and waits for the acknowledgements, so an event is
+ * only sent once the one before it with the same key is acknowledged. Acknowledged events are
+ * deleted. Delivery is at least once.
+ * <p>
+ * A failed event stops its key for the rest of the batch and is retried with exponential
+ * backoff ({@code retry-backoff} up to {@code max-retry-backoff}); later events with its key
+ * wait behind it, while other keys carry on. After {@code max-attempts} failures that Kafka does
+ * not consider transient, the event is parked: it keeps its row with the last error but no
+ * longer blocks its key. Parked events are requeued by clearing {@code parked_at}.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final long RELAY_LOCK_ID = 0x6f7574626f78L; // "outbox"
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final OutboxConfig outboxConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       JdbcTemplate jdbcTemplate,
+                       ObjectMapper objectMapper,
+                       OutboxConfig outboxConfig,
+                       PlatformTransactionManager transactionManager) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.outboxConfig = outboxConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.poll-interval-ms:500}")
+    public void relay() {
+        try {
+            Integer relayed;
+            do {
+                relayed = transactionTemplate.execute(status -> relayBatch());
+            } while (relayed != null && relayed == outboxConfig.getBatchSize());
+        } catch (Exception e) {
+            log.error("Outbox relay failed", e);
+        }
+    }
+
+    // Private helper methods
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_ID);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+
+        List<OutboxEvent> batch = outboxEventRepository.findDue(LocalDateTime.now(), outboxConfig.getBatchSize());
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        // Events without a key have no order to keep, so each gets a queue of its own
+        Map<Object, Deque<OutboxEvent>> queues = new LinkedHashMap<>();
+        for (OutboxEvent event : batch) {
+            Object key = event.getEventKey() != null ? event.getEventKey() : event.getId();
+            queues.computeIfAbsent(key, k -> new ArrayDeque<>()).add(event);
+        }
+
+        List<Long> published = new ArrayList<>(batch.size());
+        int failed = 0;
+        while (!queues.isEmpty()) {
+            Map<Object, CompletableFuture<?>> wave = new LinkedHashMap<>();
+            queues.forEach((key, queue) -> wave.put(key, send(queue.peekFirst())));
+            kafkaTemplate.flush();
+
+            long deadline = System.nanoTime() + outboxConfig.getSendTimeout().toNanos();
+            for (Map.Entry<Object, CompletableFuture<?>> sent : wave.entrySet()) {
+                Deque<OutboxEvent> queue = queues.get(sent.getKey());
+                OutboxEvent event = queue.pollFirst();
+                try {
+                    sent.getValue().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                    published.add(event.getId());
+                    if (queue.isEmpty()) {
+                        queues.remove(sent.getKey());
+                    }
+                } catch (Exception e) {
+                    if (e instanceof InterruptedException) {
+                        Thread.currentThread().interrupt();
+                    }
+                    recordFailure(event, e);
+                    queues.remove(sent.getKey());
+                    failed++;
+                }
+            }
+        }
+
+        outboxEventRepository.deleteAllByIdInBatch(published);
+        log.debug("Relayed {} of {} outbox events", published.size(), batch.size());
+        // Back off until the next poll when anything failed
+        return failed == 0 ? batch.size() : 0;
+    }
+
+    private void recordFailure(OutboxEvent event, Exception e) {
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        int attempts = event.getAttempts() + 1;
+        event.setAttempts(attempts);
+        event.setLastError(cause.toString());
+
+        if (attempts >= outboxConfig.getMaxAttempts() && !isTransient(cause)) {
+            event.setParkedAt(LocalDateTime.now());
+            event.setNextAttemptAt(null);
+            log.error("Parked outbox event {} to {} after {} attempts: {}", event.getId(), event.getTopic(), attempts, cause.toString());
+            return;
+        }
+
+        event.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        log.warn("Failed to publish outbox event {} to {} (attempt {}): {}", event.getId(), event.getTopic(), attempts, cause.toString());
+    }
+
+    private Duration backoff(int attempts) {
+        Duration max = outboxConfig.getMaxRetryBackoff();
+        Duration backoff = outboxConfig.getRetryBackoff().multipliedBy(1L << Math.min(attempts - 1, 30));
+        return backoff.compareTo(max) > 0 ? max : backoff;
+    }
+
+    private static boolean isTransient(Throwable e) {
+        // Broker outages and timeouts must not park events, however long they last
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof RetriableException || cause instanceof TimeoutException
+                    || cause instanceof InterruptedException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private CompletableFuture<?> send(OutboxEvent event) {
+        try {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            return kafkaTemplate.send(event.getTopic(), event.getEventKey(), payload);
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package dev.dammak.productservice.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.entity.OutboxEvent;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.repository.OutboxEventRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * Records events in the {@code outbox_events} table as part of the caller's transaction, so an
+ * event exists exactly when the change it describes commits. {@link OutboxRelay} publishes them
+ * to Kafka afterwards.
+ * <p>
+ * Callers must write the event after the changed row is locked (flushed or updated), so events
+ * for the same key get ids in commit order.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO outbox_events (topic, event_key, payload, created_at) VALUES (?, ?, ?, CURRENT_TIMESTAMP)";
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, String key, Object payload) {
+        outboxEventRepository.save(OutboxEvent.builder()
+                .topic(topic)
+                .eventKey(key)
+                .payload(toJson(payload))
+                .build());
+    }
+
+    /**
+     * Appends many events of one topic with a single JDBC batch.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void appendAll(String topic, List<Message> messages) {
+        if (messages.isEmpty()) {
+            return;
+        }
+        List<Object[]> batchArgs = messages.stream()
+                .map(message -> new Object[]{topic, message.key(), toJson(message.payload())})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_SQL, batchArgs);
+    }
+
+    private String toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new ProductException("Failed to serialize event payload: " + e.getOriginalMessage());
+        }
+    }
+
+    public record Message(String key, Object payload) {
+    }
+}
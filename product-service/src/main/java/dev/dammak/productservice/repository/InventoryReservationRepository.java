@@ -0,0 +1,34 @@
+package dev.dammak.productservice.repository;
+
+import dev.dammak.productservice.entity.InventoryReservation;
+import dev.dammak.productservice.enums.ReservationStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface InventoryReservationRepository extends JpaRepository<InventoryReservation, Long> {
+
+    Optional<InventoryReservation> findByReservationId(String reservationId);
+
+    @Query("SELECT r.id FROM InventoryReservation r WHERE r.status = :status AND r.expiresAt < :now ORDER BY r.expiresAt")
+    List<Long> findIdsByStatusAndExpiresAtBefore(@Param("status") ReservationStatus status,
+                                                 @Param("now") LocalDateTime now,
+                                                 Pageable pageable);
+
+    /**
+     * Moves a reservation from one status to another only if it is still in the expected
+     * status, so concurrent commit, release and expiry cannot both succeed.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE InventoryReservation r SET r.status = :to, r.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE r.id = :id AND r.status = :from")
+    int transition(@Param("id") Long id, @Param("from") ReservationStatus from, @Param("to") ReservationStatus to);
+}
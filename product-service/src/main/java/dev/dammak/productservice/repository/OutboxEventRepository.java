@@ -0,0 +1,26 @@
+package dev.dammak.productservice.repository;
+
+import dev.dammak.productservice.entity.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    /**
+     * The oldest events that are due for delivery, in id order. Parked events are skipped, and
+     * so is every event queued behind one that is waiting to be retried with the same key.
+     */
+    @Query(value = "SELECT e.* FROM outbox_events e WHERE e.parked_at IS NULL " +
+            "AND (e.next_attempt_at IS NULL OR e.next_attempt_at <= :now) " +
+            "AND NOT EXISTS (SELECT 1 FROM outbox_events b WHERE b.event_key = e.event_key AND b.id < e.id " +
+            "AND b.next_attempt_at > :now) " +
+            "ORDER BY e.id LIMIT :limit",
+            nativeQuery = true)
+    List<OutboxEvent> findDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+}
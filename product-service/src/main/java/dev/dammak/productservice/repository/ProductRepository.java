@@ -2,17 +2,33 @@ package dev.dammak.productservice.repository;
 
 
 import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.repository.projection.LowStockView;
+import dev.dammak.productservice.repository.projection.ProductFacetView;
+import dev.dammak.productservice.repository.projection.ProductImageView;
+import dev.dammak.productservice.repository.projection.ProductStockView;
+import dev.dammak.productservice.repository.projection.ProductSummaryView;
+import dev.dammak.productservice.repository.projection.ProductTagView;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.math.BigDecimal;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Long> {
@@ -31,20 +47,130 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     @Query("SELECT p FROM Product p LEFT JOIN FETCH p.imageUrls WHERE p.id = :id")
     Optional<Product> findByIdWithImages(@Param("id") Long id);
 
+    @EntityGraph(attributePaths = {"imageUrls", "tags", "category"})
+    @Query("SELECT p FROM Product p WHERE p.id IN :ids")
+    List<Product> findAllByIdInWithImagesAndTags(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(attributePaths = {"imageUrls", "tags", "category"})
+    @Query("SELECT p FROM Product p WHERE p.sku IN :skus")
+    List<Product> findAllBySkuInWithImagesAndTags(@Param("skus") Collection<String> skus);
+
     List<Product> findByActiveTrue();
 
+    List<Product> findByActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
     Page<Product> findByActiveTrue(Pageable pageable);
+
+    // Cursor pages map full DTOs, so the category is fetched with the page instead of per row
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByActiveTrue(ScrollPosition position, Sort sort, Limit limit);
+
     Page<Product> findByPriceBetweenAndActiveTrue(BigDecimal price, BigDecimal price2, Pageable pageable);
 
 
     Page<Product> findByCategoryIdAndActiveTrue(Long categoryId, Pageable pageable);
 
+    @EntityGraph(attributePaths = "category")
+    Window<Product> findByCategoryIdAndActiveTrue(Long categoryId, ScrollPosition position, Sort sort, Limit limit);
+
     Page<Product> findByBrandIgnoreCaseAndActiveTrue(String brand, Pageable pageable);
 
     List<Product> findByFeaturedTrueAndActiveTrue();
 
-    @Query("SELECT p FROM Product p WHERE p.stockQuantity < p.minStockLevel")
-    List<Product> findByStockQuantityLessThanMinStockLevel();
+    // Listing projections: card columns only, so descriptions, specifications and the
+    // element collections are never loaded for a page of results
+    String SUMMARY_SELECT = "SELECT p.id AS id, p.name AS name, p.brand AS brand, p.price AS price, " +
+            "p.discountPrice AS discountPrice, p.sku AS sku, p.stockQuantity AS stockQuantity, " +
+            "p.featured AS featured, c.id AS categoryId, c.name AS categoryName FROM Product p JOIN p.category c ";
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true")
+    Page<ProductSummaryView> findActiveSummaries(Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true AND c.id IN :categoryIds",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND p.category.id IN :categoryIds")
+    Page<ProductSummaryView> findActiveSummariesByCategoryIds(@Param("categoryIds") Collection<Long> categoryIds,
+                                                              Pageable pageable);
+
+    @Query(SUMMARY_SELECT + "WHERE p.id IN :ids")
+    List<ProductSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true AND " +
+            "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND " +
+                    "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(p.brand) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<ProductSummaryView> searchSummaries(@Param("keyword") String keyword, Pageable pageable);
+
+    @Query(value = SUMMARY_SELECT + "WHERE p.active = true AND " +
+            "(:categoryId IS NULL OR c.id = :categoryId) AND " +
+            "(:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:featuredOnly = false OR p.featured = true) AND " +
+            "(:inStockOnly = false OR p.stockQuantity > 0) AND " +
+            "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))",
+            countQuery = "SELECT COUNT(p) FROM Product p WHERE p.active = true AND " +
+                    "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+                    "(:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) AND " +
+                    "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+                    "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+                    "(:featuredOnly = false OR p.featured = true) AND " +
+                    "(:inStockOnly = false OR p.stockQuantity > 0) AND " +
+                    "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+                    "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    Page<ProductSummaryView> findSummariesWithFilters(
+            @Param("categoryId") Long categoryId,
+            @Param("brand") String brand,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("keyword") String keyword,
+            @Param("featuredOnly") boolean featuredOnly,
+            @Param("inStockOnly") boolean inStockOnly,
+            Pageable pageable
+    );
+
+    // product_images has no order column, so physical order is the list order Hibernate loads
+    @Query(value = "SELECT DISTINCT ON (product_id) product_id AS \"productId\", image_url AS \"imageUrl\" " +
+            "FROM product_images WHERE product_id IN (:productIds) ORDER BY product_id, ctid",
+            nativeQuery = true)
+    List<ProductImageView> findFirstImages(@Param("productIds") Collection<Long> productIds);
+
+    String EXPORT_FETCH_SIZE = "500";
+
+    /**
+     * Active products in id order, read through a server-side cursor. Must be consumed and
+     * closed inside a transaction; collections are not fetched, load them per slice with
+     * {@link #findImages} and {@link #findTags}.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p JOIN FETCH p.category WHERE p.active = true ORDER BY p.id")
+    Stream<Product> streamActiveProducts();
+
+    @Query(value = "SELECT product_id AS \"productId\", image_url AS \"imageUrl\" " +
+            "FROM product_images WHERE product_id IN (:productIds) ORDER BY product_id, ctid",
+            nativeQuery = true)
+    List<ProductImageView> findImages(@Param("productIds") Collection<Long> productIds);
+
+    @Query(value = "SELECT product_id AS \"productId\", tag AS \"tag\" " +
+            "FROM product_tags WHERE product_id IN (:productIds)",
+            nativeQuery = true)
+    List<ProductTagView> findTags(@Param("productIds") Collection<Long> productIds);
+
+    // Matches the predicate of the partial index idx_product_low_stock
+    @Query(value = "SELECT id FROM products WHERE stock_quantity < min_stock_level", nativeQuery = true)
+    List<Long> findLowStockIds();
+
+    @Query("SELECT p.id AS id, p.sku AS sku, p.name AS name, p.stockQuantity AS stockQuantity, " +
+            "p.minStockLevel AS minStockLevel FROM Product p WHERE p.id IN :ids ORDER BY p.id")
+    List<LowStockView> findLowStockViews(@Param("ids") Collection<Long> ids);
 
     @Query("SELECT p FROM Product p WHERE p.active = true AND " +
             "(LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
@@ -68,8 +194,82 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
             Pageable pageable
     );
 
+    @Query("SELECT p.brand AS brand, p.category.id AS categoryId, p.price AS price, p.stockQuantity AS stockQuantity " +
+            "FROM Product p WHERE p.active = true AND " +
+            "(:categoryId IS NULL OR p.category.id = :categoryId) AND " +
+            "(:brand IS NULL OR LOWER(p.brand) = LOWER(:brand)) AND " +
+            "(:minPrice IS NULL OR p.price >= :minPrice) AND " +
+            "(:maxPrice IS NULL OR p.price <= :maxPrice) AND " +
+            "(:featuredOnly = false OR p.featured = true) AND " +
+            "(:inStockOnly = false OR p.stockQuantity > 0) AND " +
+            "(:keyword IS NULL OR LOWER(p.name) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(p.description) LIKE LOWER(CONCAT('%', :keyword, '%')))")
+    List<ProductFacetView> findFacetValuesWithFilters(
+            @Param("categoryId") Long categoryId,
+            @Param("brand") String brand,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("keyword") String keyword,
+            @Param("featuredOnly") boolean featuredOnly,
+            @Param("inStockOnly") boolean inStockOnly
+    );
+
+    // Full-text search backed by the GIN-indexed search_vector column with trigram fallback on the name.
+    // Ranking only applies when rankByRelevance is set; otherwise the pageable sort orders the rows.
+    @Query(value = "SELECT p.id FROM products p WHERE p.active = true AND " +
+            "(p.search_vector @@ to_tsquery('english', :tsQuery) OR lower(p.name) % lower(:keyword)) AND " +
+            "(CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId) AND " +
+            "(CAST(:brand AS VARCHAR) IS NULL OR lower(p.brand) = lower(CAST(:brand AS VARCHAR))) AND " +
+            "(CAST(:minPrice AS NUMERIC) IS NULL OR p.price >= :minPrice) AND " +
+            "(CAST(:maxPrice AS NUMERIC) IS NULL OR p.price <= :maxPrice) AND " +
+            "(:featuredOnly = false OR p.is_featured = true) AND " +
+            "(:inStockOnly = false OR p.stock_quantity > 0) " +
+            "ORDER BY CASE WHEN :rankByRelevance THEN " +
+            "ts_rank(p.search_vector, to_tsquery('english', :tsQuery)) + similarity(lower(p.name), lower(:keyword)) " +
+            "END DESC",
+            countQuery = "SELECT count(*) FROM products p WHERE p.active = true AND " +
+                    "(p.search_vector @@ to_tsquery('english', :tsQuery) OR lower(p.name) % lower(:keyword)) AND " +
+                    "(CAST(:categoryId AS BIGINT) IS NULL OR p.category_id = :categoryId) AND " +
+                    "(CAST(:brand AS VARCHAR) IS NULL OR lower(p.brand) = lower(CAST(:brand AS VARCHAR))) AND " +
+                    "(CAST(:minPrice AS NUMERIC) IS NULL OR p.price >= :minPrice) AND " +
+                    "(CAST(:maxPrice AS NUMERIC) IS NULL OR p.price <= :maxPrice) AND " +
+                    "(:featuredOnly = false OR p.is_featured = true) AND " +
+                    "(:inStockOnly = false OR p.stock_quantity > 0)",
+            nativeQuery = true)
+    Page<Long> searchProductIdsFullText(
+            @Param("tsQuery") String tsQuery,
+            @Param("keyword") String keyword,
+            @Param("categoryId") Long categoryId,
+            @Param("brand") String brand,
+            @Param("minPrice") BigDecimal minPrice,
+            @Param("maxPrice") BigDecimal maxPrice,
+            @Param("featuredOnly") boolean featuredOnly,
+            @Param("inStockOnly") boolean inStockOnly,
+            @Param("rankByRelevance") boolean rankByRelevance,
+            Pageable pageable
+    );
+
     @Query("SELECT DISTINCT p.brand FROM Product p WHERE p.active = true ORDER BY p.brand")
     List<String> findDistinctBrands();
 
     boolean existsBySku(String sku);
-}
\ No newline at end of file
+
+    @Query("SELECT p.id AS id, p.sku AS sku, p.stockQuantity AS stockQuantity, p.minStockLevel AS minStockLevel " +
+            "FROM Product p WHERE p.id = :id")
+    Optional<ProductStockView> findStockViewById(@Param("id") Long id);
+
+    // Conditional updates: the row lock taken by the UPDATE makes check-and-decrement atomic
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity - :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id = :id AND p.stockQuantity >= :quantity")
+    int decrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = p.stockQuantity + :quantity, p.updatedAt = CURRENT_TIMESTAMP " +
+            "WHERE p.id = :id")
+    int incrementStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Product p SET p.stockQuantity = :quantity, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :id")
+    int setStock(@Param("id") Long id, @Param("quantity") int quantity);
+}
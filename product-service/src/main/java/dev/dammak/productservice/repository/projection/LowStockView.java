@@ -0,0 +1,17 @@
+package dev.dammak.productservice.repository.projection;
+
+/**
+ * What the low-stock listing shows of a product, read without loading the entity.
+ */
+public interface LowStockView {
+
+    Long getId();
+
+    String getSku();
+
+    String getName();
+
+    Integer getStockQuantity();
+
+    Integer getMinStockLevel();
+}
@@ -0,0 +1,14 @@
+package dev.dammak.productservice.repository.projection;
+
+import java.math.BigDecimal;
+
+public interface ProductFacetView {
+
+    String getBrand();
+
+    Long getCategoryId();
+
+    BigDecimal getPrice();
+
+    Integer getStockQuantity();
+}
@@ -0,0 +1,8 @@
+package dev.dammak.productservice.repository.projection;
+
+public interface ProductImageView {
+
+    Long getProductId();
+
+    String getImageUrl();
+}
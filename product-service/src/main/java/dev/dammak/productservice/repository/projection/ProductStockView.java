@@ -0,0 +1,15 @@
+package dev.dammak.productservice.repository.projection;
+
+/**
+ * Stock columns of a product, read without loading the entity.
+ */
+public interface ProductStockView {
+
+    Long getId();
+
+    String getSku();
+
+    Integer getStockQuantity();
+
+    Integer getMinStockLevel();
+}
@@ -0,0 +1,29 @@
+package dev.dammak.productservice.repository.projection;
+
+import java.math.BigDecimal;
+
+/**
+ * Product card columns for listings, read without loading the entity or its collections.
+ */
+public interface ProductSummaryView {
+
+    Long getId();
+
+    String getName();
+
+    String getBrand();
+
+    BigDecimal getPrice();
+
+    BigDecimal getDiscountPrice();
+
+    String getSku();
+
+    Integer getStockQuantity();
+
+    Boolean getFeatured();
+
+    Long getCategoryId();
+
+    String getCategoryName();
+}
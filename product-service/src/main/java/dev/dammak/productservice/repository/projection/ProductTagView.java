@@ -0,0 +1,8 @@
+package dev.dammak.productservice.repository.projection;
+
+public interface ProductTagView {
+
+    Long getProductId();
+
+    String getTag();
+}
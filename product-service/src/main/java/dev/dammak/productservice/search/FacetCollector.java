@@ -0,0 +1,70 @@
+package dev.dammak.productservice.search;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Accumulates brand, category, price-range and stock facet counts while a result set is scanned once.
+ */
+public class FacetCollector {
+
+    private final List<BigDecimal> priceBoundaries;
+    private final Map<String, Long> brandCounts = new HashMap<>();
+    private final Map<Long, Long> categoryCounts = new HashMap<>();
+    private final long[] priceRangeCounts;
+    private long inStockCount;
+
+    /**
+     * @param priceBoundaries ascending upper bounds of the price ranges; one extra open-ended range is added
+     */
+    public FacetCollector(List<BigDecimal> priceBoundaries) {
+        this.priceBoundaries = priceBoundaries;
+        this.priceRangeCounts = new long[priceBoundaries.size() + 1];
+    }
+
+    public void add(String brand, Long categoryId, BigDecimal price, Integer stockQuantity) {
+        if (brand != null) {
+            brandCounts.merge(brand, 1L, Long::sum);
+        }
+        if (categoryId != null) {
+            categoryCounts.merge(categoryId, 1L, Long::sum);
+        }
+        if (price != null) {
+            priceRangeCounts[priceRange(price)]++;
+        }
+        if (stockQuantity != null && stockQuantity > 0) {
+            inStockCount++;
+        }
+    }
+
+    public Map<String, Long> getBrandCounts() {
+        return brandCounts;
+    }
+
+    public Map<Long, Long> getCategoryCounts() {
+        return categoryCounts;
+    }
+
+    public List<BigDecimal> getPriceBoundaries() {
+        return priceBoundaries;
+    }
+
+    public long[] getPriceRangeCounts() {
+        return priceRangeCounts;
+    }
+
+    public long getInStockCount() {
+        return inStockCount;
+    }
+
+    private int priceRange(BigDecimal price) {
+        for (int i = 0; i < priceBoundaries.size(); i++) {
+            if (price.compareTo(priceBoundaries.get(i)) < 0) {
+                return i;
+            }
+        }
+        return priceBoundaries.size();
+    }
+}
@@ -0,0 +1,67 @@
+package dev.dammak.productservice.search;
+
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.entity.Product;
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Immutable snapshot of the product fields the search index needs for matching,
+ * filtering and sorting. Full product data is always hydrated from the database.
+ */
+@Value
+@Builder(toBuilder = true)
+public class IndexedProduct {
+
+    Long id;
+    String name;
+    String description;
+    String brand;
+    Set<String> tags;
+    Long categoryId;
+    BigDecimal price;
+    Integer stockQuantity;
+    Boolean featured;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+
+    public static IndexedProduct from(Product product) {
+        return IndexedProduct.builder()
+                .id(product.getId())
+                .name(product.getName())
+                .description(product.getDescription())
+                .brand(product.getBrand())
+                .tags(product.getTags() != null ? Set.copyOf(product.getTags()) : Set.of())
+                .categoryId(product.getCategory() != null ? product.getCategory().getId() : null)
+                .price(product.getPrice())
+                .stockQuantity(product.getStockQuantity())
+                .featured(product.getFeatured())
+                .createdAt(product.getCreatedAt())
+                .updatedAt(product.getUpdatedAt())
+                .build();
+    }
+
+    public static IndexedProduct from(ProductDto dto) {
+        return IndexedProduct.builder()
+                .id(dto.getId())
+                .name(dto.getName())
+                .description(dto.getDescription())
+                .brand(dto.getBrand())
+                .tags(dto.getTags() != null ? Set.copyOf(dto.getTags()) : Set.of())
+                .categoryId(dto.getCategoryId())
+                .price(dto.getPrice())
+                .stockQuantity(dto.getStockQuantity())
+                .featured(dto.getFeatured())
+                .createdAt(dto.getCreatedAt())
+                .updatedAt(dto.getUpdatedAt())
+                .build();
+    }
+
+    public boolean isInStock() {
+        return stockQuantity != null && stockQuantity > 0;
+    }
+}
@@ -0,0 +1,347 @@
+package dev.dammak.productservice.search;
+
+import dev.dammak.productservice.util.SearchUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over active products.
+ * <p>
+ * Every token of a product's name, brand, tags and description maps to a posting list of
+ * product ids with a field weight. A keyword query only touches the posting lists of its
+ * terms (plus prefix expansions), so lookup cost depends on how many products match rather
+ * than on catalog size. Results are ranked with a weighted idf score.
+ */
+@Component
+@Slf4j
+public class ProductSearchIndex {
+
+    private static final float NAME_WEIGHT = 3.0f;
+    private static final float BRAND_WEIGHT = 2.0f;
+    private static final float TAG_WEIGHT = 1.5f;
+    private static final float DESCRIPTION_WEIGHT = 1.0f;
+    private static final float PREFIX_MATCH_FACTOR = 0.5f;
+    private static final int MIN_PREFIX_LENGTH = 2;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private NavigableMap<String, Map<Long, Float>> postings = new TreeMap<>();
+    private Map<Long, IndexedProduct> documents = new HashMap<>();
+    private List<Runnable> rebuildJournal;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(IndexedProduct product) {
+        lock.writeLock().lock();
+        try {
+            indexInternal(product);
+            journal(() -> indexInternal(product));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            removeInternal(productId);
+            journal(() -> removeInternal(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long productId, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            updateStockInternal(productId, stockQuantity);
+            journal(() -> updateStockInternal(productId, stockQuantity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording incremental changes so they can be replayed on top of a snapshot
+     * that is being loaded concurrently.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps in a freshly loaded snapshot and replays any changes received while it was loading.
+     */
+    public void completeRebuild(Collection<IndexedProduct> products) {
+        NavigableMap<String, Map<Long, Float>> newPostings = new TreeMap<>();
+        Map<Long, IndexedProduct> newDocuments = new HashMap<>(products.size() * 2);
+        for (IndexedProduct product : products) {
+            newDocuments.put(product.getId(), product);
+            addPostings(newPostings, product);
+        }
+
+        lock.writeLock().lock();
+        try {
+            postings = newPostings;
+            documents = newDocuments;
+            if (rebuildJournal != null) {
+                rebuildJournal.forEach(Runnable::run);
+                rebuildJournal = null;
+            }
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Search index rebuilt with {} products and {} terms", newDocuments.size(), newPostings.size());
+    }
+
+    /**
+     * Stops recording changes after the snapshot of a rebuild failed to load. Changes were
+     * applied as they came, so the index keeps serving its current contents.
+     */
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(SearchQuery query) {
+        return search(query, null);
+    }
+
+    /**
+     * Runs the query and, when a collector is given, feeds every filtered match into it
+     * during the same pass that selects the requested page.
+     */
+    public SearchHits search(SearchQuery query, FacetCollector facets) {
+        List<String> terms = SearchUtil.tokenize(query.getKeyword()).stream().distinct().toList();
+
+        lock.readLock().lock();
+        try {
+            Map<Long, Float> scores = terms.isEmpty() ? allDocuments() : matchAllTerms(terms);
+
+            Comparator<Hit> order = hitComparator(query.getSort());
+            long wanted = query.getOffset() + query.getLimit();
+            PriorityQueue<Hit> top = new PriorityQueue<>(order.reversed());
+            long total = 0;
+
+            for (Map.Entry<Long, Float> entry : scores.entrySet()) {
+                IndexedProduct product = documents.get(entry.getKey());
+                if (product == null || !matchesFilters(product, query)) {
+                    continue;
+                }
+                total++;
+                if (facets != null) {
+                    facets.add(product.getBrand(), product.getCategoryId(), product.getPrice(), product.getStockQuantity());
+                }
+                top.offer(new Hit(product, entry.getValue()));
+                if (top.size() > wanted) {
+                    top.poll();
+                }
+            }
+
+            List<Hit> ranked = new ArrayList<>(top);
+            ranked.sort(order);
+            List<Long> ids = ranked.stream()
+                    .skip(query.getOffset())
+                    .map(hit -> hit.product().getId())
+                    .toList();
+            return new SearchHits(ids, total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+    private void journal(Runnable change) {
+        if (rebuildJournal != null) {
+            rebuildJournal.add(change);
+        }
+    }
+
+    private void indexInternal(IndexedProduct product) {
+        removeInternal(product.getId());
+        documents.put(product.getId(), product);
+        addPostings(postings, product);
+    }
+
+    private void removeInternal(Long productId) {
+        IndexedProduct existing = documents.remove(productId);
+        if (existing == null) {
+            return;
+        }
+        for (String token : fieldWeights(existing).keySet()) {
+            Map<Long, Float> list = postings.get(token);
+            if (list != null) {
+                list.remove(productId);
+                if (list.isEmpty()) {
+                    postings.remove(token);
+                }
+            }
+        }
+    }
+
+    private void updateStockInternal(Long productId, int stockQuantity) {
+        IndexedProduct existing = documents.get(productId);
+        if (existing != null) {
+            documents.put(productId, existing.toBuilder().stockQuantity(stockQuantity).build());
+        }
+    }
+
+    private static void addPostings(Map<String, Map<Long, Float>> target, IndexedProduct product) {
+        fieldWeights(product).forEach((token, weight) ->
+                target.computeIfAbsent(token, t -> new HashMap<>()).put(product.getId(), weight));
+    }
+
+    private static Map<String, Float> fieldWeights(IndexedProduct product) {
+        Map<String, Float> weights = new HashMap<>();
+        addField(weights, product.getName(), NAME_WEIGHT);
+        addField(weights, product.getBrand(), BRAND_WEIGHT);
+        if (product.getTags() != null) {
+            product.getTags().forEach(tag -> addField(weights, tag, TAG_WEIGHT));
+        }
+        addField(weights, product.getDescription(), DESCRIPTION_WEIGHT);
+        return weights;
+    }
+
+    private static void addField(Map<String, Float> weights, String text, float weight) {
+        // A token counts once per field, so long descriptions cannot outweigh the name
+        new HashSet<>(SearchUtil.tokenize(text)).forEach(token -> weights.merge(token, weight, Float::sum));
+    }
+
+    private Map<Long, Float> allDocuments() {
+        Map<Long, Float> scores = new HashMap<>(documents.size() * 2);
+        documents.keySet().forEach(id -> scores.put(id, 0f));
+        return scores;
+    }
+
+    private Map<Long, Float> matchAllTerms(List<String> terms) {
+        List<Map<Long, Float>> perTerm = new ArrayList<>(terms.size());
+        for (String term : terms) {
+            Map<Long, Float> termScores = scoreTerm(term);
+            if (termScores.isEmpty()) {
+                return Map.of();
+            }
+            perTerm.add(termScores);
+        }
+
+        // Intersect starting from the most selective term
+        perTerm.sort(Comparator.comparingInt(Map::size));
+        Map<Long, Float> result = new HashMap<>(perTerm.get(0));
+        for (int i = 1; i < perTerm.size() && !result.isEmpty(); i++) {
+            Map<Long, Float> other = perTerm.get(i);
+            result.entrySet().removeIf(entry -> !other.containsKey(entry.getKey()));
+            result.replaceAll((id, score) -> score + other.get(id));
+        }
+        return result;
+    }
+
+    private Map<Long, Float> scoreTerm(String term) {
+        Map<Long, Float> scores = new HashMap<>();
+        int totalDocuments = Math.max(1, documents.size());
+
+        Map<Long, Float> exact = postings.get(term);
+        if (exact != null) {
+            accumulate(scores, exact, idf(totalDocuments, exact.size()));
+        }
+
+        if (term.length() >= MIN_PREFIX_LENGTH) {
+            String upper = term + Character.MAX_VALUE;
+            for (Map<Long, Float> list : postings.subMap(term, false, upper, false).values()) {
+                accumulate(scores, list, idf(totalDocuments, list.size()) * PREFIX_MATCH_FACTOR);
+            }
+        }
+        return scores;
+    }
+
+    private static void accumulate(Map<Long, Float> scores, Map<Long, Float> list, float factor) {
+        list.forEach((id, weight) -> scores.merge(id, weight * factor, Float::sum));
+    }
+
+    private static float idf(int totalDocuments, int documentFrequency) {
+        return (float) Math.log(1.0 + (double) totalDocuments / documentFrequency);
+    }
+
+    private static boolean matchesFilters(IndexedProduct product, SearchQuery query) {
+        if (query.getCategoryId() != null && !query.getCategoryId().equals(product.getCategoryId())) {
+            return false;
+        }
+        if (query.getBrand() != null && !query.getBrand().equalsIgnoreCase(product.getBrand())) {
+            return false;
+        }
+        if (query.getMinPrice() != null && (product.getPrice() == null || product.getPrice().compareTo(query.getMinPrice()) < 0)) {
+            return false;
+        }
+        if (query.getMaxPrice() != null && (product.getPrice() == null || product.getPrice().compareTo(query.getMaxPrice()) > 0)) {
+            return false;
+        }
+        if (Boolean.TRUE.equals(query.getFeatured()) && !Boolean.TRUE.equals(product.getFeatured())) {
+            return false;
+        }
+        return !Boolean.TRUE.equals(query.getInStock()) || product.isInStock();
+    }
+
+    private static Comparator<Hit> hitComparator(Sort sort) {
+        Comparator<Hit> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<Hit> field = fieldComparator(order.getProperty());
+            if (field == null) {
+                continue;
+            }
+            if (order.isDescending()) {
+                field = field.reversed();
+            }
+            comparator = comparator == null ? field : comparator.thenComparing(field);
+        }
+
+        Comparator<Hit> byRelevance = Comparator.comparing(Hit::score, Comparator.reverseOrder());
+        comparator = comparator == null ? byRelevance : comparator.thenComparing(byRelevance);
+        return comparator.thenComparing(hit -> hit.product().getId());
+    }
+
+    private static Comparator<Hit> fieldComparator(String property) {
+        return switch (property) {
+            case "name" -> Comparator.comparing(hit -> hit.product().getName(),
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            case "brand" -> Comparator.comparing(hit -> hit.product().getBrand(),
+                    Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+            case "price" -> Comparator.comparing(hit -> hit.product().getPrice(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "stockQuantity" -> Comparator.comparing(hit -> hit.product().getStockQuantity(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "createdAt" -> Comparator.comparing(hit -> hit.product().getCreatedAt(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            case "updatedAt" -> Comparator.comparing(hit -> hit.product().getUpdatedAt(),
+                    Comparator.nullsLast(Comparator.naturalOrder()));
+            default -> null;
+        };
+    }
+
+    private record Hit(IndexedProduct product, float score) {
+    }
+}
@@ -0,0 +1,100 @@
+package dev.dammak.productservice.search;
+
+import dev.dammak.productservice.config.SearchConfig;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.enums.SearchBackend;
+import dev.dammak.productservice.inventory.HotStockAllocator;
+import dev.dammak.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Loads the full {@link ProductSearchIndex} and {@link SuggestionIndex} snapshots at startup
+ * and periodically afterwards. Incremental updates in between arrive through product events.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ProductSearchIndexer {
+
+    private final ProductRepository productRepository;
+    private final ProductSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SearchConfig searchConfig;
+    private final HotStockAllocator hotStockAllocator;
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    @Scheduled(initialDelayString = "${app.search.index-rebuild-interval-ms:1800000}",
+            fixedDelayString = "${app.search.index-rebuild-interval-ms:1800000}")
+    public void rebuild() {
+        // Typeahead always runs from memory; the search index only serves the INDEX backend
+        boolean searchIndexEnabled = searchConfig.getBackend() == SearchBackend.INDEX;
+
+        try {
+            long start = System.currentTimeMillis();
+            if (searchIndexEnabled) {
+                searchIndex.beginRebuild();
+            }
+            suggestionIndex.beginRebuild();
+            List<IndexedProduct> snapshot = loadActiveProducts();
+            if (searchIndexEnabled) {
+                searchIndex.completeRebuild(snapshot);
+            }
+            suggestionIndex.completeRebuild(snapshot);
+            log.info("Loaded {} products into search indexes in {} ms", snapshot.size(), System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            // Otherwise the journals keep growing with every change until the next successful rebuild
+            searchIndex.abortRebuild();
+            suggestionIndex.abortRebuild();
+            log.error("Error rebuilding search indexes: {}", e.getMessage(), e);
+        }
+    }
+
+    private List<IndexedProduct> loadActiveProducts() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        return transactionTemplate.execute(status -> {
+            List<IndexedProduct> snapshot = new ArrayList<>();
+            int batchSize = searchConfig.getIndexBatchSize();
+            long lastId = 0L;
+            // Hot products keep part of their stock as quota outside the row
+            Map<Long, Integer> heldQuotas = hotStockAllocator.heldQuotas();
+
+            // Walk the table by id so every batch is an index range scan
+            List<Product> batch;
+            do {
+                batch = productRepository.findByActiveTrueAndIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, batchSize));
+                for (Product product : batch) {
+                    IndexedProduct indexed = IndexedProduct.from(product);
+                    Integer held = heldQuotas.get(product.getId());
+                    snapshot.add(held != null
+                            ? indexed.toBuilder().stockQuantity(indexed.getStockQuantity() + held).build()
+                            : indexed);
+                    lastId = product.getId();
+                }
+                entityManager.clear();
+            } while (batch.size() == batchSize);
+
+            return snapshot;
+        });
+    }
+}
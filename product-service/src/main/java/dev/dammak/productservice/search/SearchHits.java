@@ -0,0 +1,15 @@
+package dev.dammak.productservice.search;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * One page of product ids in rank order plus the total number of matches.
+ */
+@Value
+public class SearchHits {
+
+    List<Long> ids;
+    long total;
+}
@@ -0,0 +1,29 @@
+package dev.dammak.productservice.search;
+
+import lombok.Builder;
+import lombok.Value;
+import org.springframework.data.domain.Sort;
+
+import java.math.BigDecimal;
+
+/**
+ * Query against the in-memory product index. An unsorted {@link #sort} ranks hits by relevance.
+ */
+@Value
+@Builder
+public class SearchQuery {
+
+    String keyword;
+    Long categoryId;
+    String brand;
+    BigDecimal minPrice;
+    BigDecimal maxPrice;
+    Boolean featured;
+    Boolean inStock;
+
+    @Builder.Default
+    Sort sort = Sort.unsorted();
+
+    long offset;
+    int limit;
+}
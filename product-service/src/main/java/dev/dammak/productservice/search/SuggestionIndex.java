@@ -0,0 +1,555 @@
+package dev.dammak.productservice.search;
+
+import dev.dammak.productservice.enums.SuggestionType;
+import dev.dammak.productservice.util.SearchUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory prefix index for search box typeahead over product names, brands and tags.
+ * <p>
+ * Suggestions live in a compressed trie under their normalized text starting at each of
+ * their first few words, so "iph" finds "Apple iPhone 15". Every node with more than a
+ * handful of keys below it caches the best suggestions of its subtree, built from its
+ * children's caches, so a lookup walks the prefix and reads one list whatever the catalog
+ * size. A change only clears the caches on the paths of the keys it touches.
+ * <p>
+ * Suggestions are ranked by popularity. A product's popularity comes from whether it is
+ * featured and in stock. A brand's or tag's popularity grows with the number of active
+ * products that carry it. Product events update the index in place; a periodic snapshot
+ * from {@link ProductSearchIndexer} corrects any drift.
+ */
+@Component
+@Slf4j
+public class SuggestionIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    private static final int MAX_WORD_STARTS = 4;
+    private static final float INNER_WORD_FACTOR = 0.8f;
+    // Subtrees this small are scanned instead of cached
+    private static final int SCAN_LIMIT = 64;
+
+    private static final Comparator<Candidate> RANKING = Comparator.comparingDouble(Candidate::score).reversed()
+            .thenComparingInt(candidate -> candidate.entry().text.length())
+            .thenComparing(candidate -> candidate.entry().text)
+            .thenComparing(candidate -> candidate.entry().id);
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private State state = new State();
+    private List<Runnable> rebuildJournal;
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return state.root.count;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void index(IndexedProduct product) {
+        lock.writeLock().lock();
+        try {
+            indexInternal(product);
+            journal(() -> indexInternal(product));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long productId) {
+        lock.writeLock().lock();
+        try {
+            state.remove(productId);
+            journal(() -> state.remove(productId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void updateStock(Long productId, int stockQuantity) {
+        lock.writeLock().lock();
+        try {
+            updateStockInternal(productId, stockQuantity);
+            journal(() -> updateStockInternal(productId, stockQuantity));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Starts recording incremental changes so they can be replayed on top of a snapshot
+     * that is being loaded concurrently.
+     */
+    public void beginRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Swaps in a freshly loaded snapshot and replays any changes received while it was loading.
+     */
+    public void completeRebuild(Collection<IndexedProduct> products) {
+        State newState = new State();
+        products.forEach(newState::add);
+
+        lock.writeLock().lock();
+        try {
+            state = newState;
+            if (rebuildJournal != null) {
+                rebuildJournal.forEach(Runnable::run);
+                rebuildJournal = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Suggestion index rebuilt with {} products and {} keys", products.size(), newState.root.count);
+    }
+
+    /**
+     * Stops recording changes after the snapshot of a rebuild failed to load. Changes were
+     * applied as they came, so the index keeps serving its current contents.
+     */
+    public void abortRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuildJournal = null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Most popular suggestions whose text, or one of its first words onwards, starts with the
+     * given prefix.
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalized = normalize(prefix);
+        if (normalized.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        lock.readLock().lock();
+        try {
+            Node node = state.find(normalized);
+            if (node == null) {
+                return List.of();
+            }
+            return top(node).stream()
+                    .limit(Math.min(limit, MAX_SUGGESTIONS))
+                    .map(candidate -> new Suggestion(candidate.entry().text, candidate.entry().type,
+                            candidate.entry().productId))
+                    .toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Private helper methods
+    private void journal(Runnable change) {
+        if (rebuildJournal != null) {
+            rebuildJournal.add(change);
+        }
+    }
+
+    private void indexInternal(IndexedProduct product) {
+        state.remove(product.getId());
+        state.add(product);
+    }
+
+    private void updateStockInternal(Long productId, int stockQuantity) {
+        IndexedProduct existing = state.products.get(productId);
+        if (existing == null) {
+            return;
+        }
+        IndexedProduct updated = existing.toBuilder().stockQuantity(stockQuantity).build();
+        if (existing.isInStock() != updated.isInStock()) {
+            // Only crossing zero changes the ranking
+            indexInternal(updated);
+        } else {
+            state.products.put(productId, updated);
+        }
+    }
+
+    /**
+     * Best suggestions below a node. Readers may race to fill the same cache under the read
+     * lock; they compute the same list, and writers clear caches under the write lock.
+     */
+    private static List<Candidate> top(Node node) {
+        if (node.count <= SCAN_LIMIT) {
+            Map<Entry, Candidate> best = new HashMap<>();
+            collectAll(node, best);
+            return rank(best.values());
+        }
+
+        List<Candidate> cached = node.top;
+        if (cached == null) {
+            Map<Entry, Candidate> best = new HashMap<>();
+            addTerminals(node, best);
+            for (Node child : node.children) {
+                top(child).forEach(candidate -> keepBest(best, candidate));
+            }
+            cached = rank(best.values());
+            node.top = cached;
+        }
+        return cached;
+    }
+
+    private static void collectAll(Node node, Map<Entry, Candidate> best) {
+        addTerminals(node, best);
+        for (Node child : node.children) {
+            collectAll(child, best);
+        }
+    }
+
+    private static void addTerminals(Node node, Map<Entry, Candidate> best) {
+        for (KeyRef ref : node.terminals) {
+            keepBest(best, new Candidate(ref.entry(), ref.entry().popularity * ref.factor()));
+        }
+    }
+
+    private static void keepBest(Map<Entry, Candidate> best, Candidate candidate) {
+        // The same suggestion can match at several word starts; keep its best score
+        best.merge(candidate.entry(), candidate, (a, b) -> a.score() >= b.score() ? a : b);
+    }
+
+    private static List<Candidate> rank(Collection<Candidate> candidates) {
+        return candidates.stream()
+                .sorted(RANKING)
+                .limit(MAX_SUGGESTIONS)
+                .toList();
+    }
+
+    private static String normalize(String text) {
+        return String.join(" ", SearchUtil.tokenize(text));
+    }
+
+    private static float productPopularity(IndexedProduct product) {
+        float popularity = 1.0f;
+        if (Boolean.TRUE.equals(product.getFeatured())) {
+            popularity += 1.0f;
+        }
+        if (product.isInStock()) {
+            popularity += 0.5f;
+        }
+        return popularity;
+    }
+
+    private static float termPopularity(SuggestionType type, int productCount) {
+        float popularity = 1.0f + (float) Math.log1p(productCount);
+        return type == SuggestionType.TAG ? popularity * 0.5f : popularity;
+    }
+
+    public record Suggestion(String text, SuggestionType type, Long productId) {
+    }
+
+    private record Candidate(Entry entry, float score) {
+    }
+
+    private record KeyRef(Entry entry, float factor) {
+    }
+
+    /**
+     * One suggestion and the keys it is stored under. Popularity only changes under the
+     * write lock, and every change clears the caches on the entry's key paths.
+     */
+    private static final class Entry {
+
+        private final String id;
+        private final String text;
+        private final SuggestionType type;
+        private final Long productId;
+        private final List<String> keys = new ArrayList<>(MAX_WORD_STARTS);
+        private float popularity;
+        private int productCount;
+
+        private Entry(String id, String text, SuggestionType type, Long productId) {
+            this.id = id;
+            this.text = text;
+            this.type = type;
+            this.productId = productId;
+        }
+    }
+
+    /**
+     * Compressed trie node: the edge label from its parent, the keys ending here and the
+     * number of keys in its subtree.
+     */
+    private static final class Node {
+
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private String label;
+        private Node[] children = NO_CHILDREN;
+        private List<KeyRef> terminals = List.of();
+        private int count;
+        private volatile List<Candidate> top;
+
+        private Node(String label) {
+            this.label = label;
+        }
+
+        private Node child(char first) {
+            for (Node child : children) {
+                if (child.label.charAt(0) == first) {
+                    return child;
+                }
+            }
+            return null;
+        }
+
+        private void addChild(Node child) {
+            children = Arrays.copyOf(children, children.length + 1);
+            children[children.length - 1] = child;
+        }
+
+        private void replaceChild(Node existing, Node replacement) {
+            for (int i = 0; i < children.length; i++) {
+                if (children[i] == existing) {
+                    children[i] = replacement;
+                    return;
+                }
+            }
+        }
+
+        private void removeChild(Node child) {
+            Node[] remaining = new Node[children.length - 1];
+            int next = 0;
+            for (Node candidate : children) {
+                if (candidate != child) {
+                    remaining[next++] = candidate;
+                }
+            }
+            children = remaining;
+        }
+
+        private void addTerminal(KeyRef ref) {
+            if (terminals.isEmpty()) {
+                terminals = new ArrayList<>(1);
+            }
+            terminals.add(ref);
+        }
+    }
+
+    /**
+     * Everything the index holds, so a rebuild can prepare a complete replacement off-lock.
+     */
+    private static final class State {
+
+        private final Node root = new Node("");
+        private final Map<String, Entry> entries = new HashMap<>();
+        private final Map<Long, IndexedProduct> products = new HashMap<>();
+
+        private void add(IndexedProduct product) {
+            products.put(product.getId(), product);
+
+            Entry name = entries.get(productId(product.getId()));
+            if (name == null) {
+                name = addEntry(productId(product.getId()), product.getName(), SuggestionType.PRODUCT, product.getId());
+            }
+            if (name != null) {
+                name.popularity = productPopularity(product);
+                invalidate(name);
+            }
+            addTerm(SuggestionType.BRAND, product.getBrand());
+            if (product.getTags() != null) {
+                product.getTags().forEach(tag -> addTerm(SuggestionType.TAG, tag));
+            }
+        }
+
+        private void remove(Long productId) {
+            IndexedProduct product = products.remove(productId);
+            if (product == null) {
+                return;
+            }
+
+            Entry name = entries.get(productId(productId));
+            if (name != null) {
+                removeEntry(name);
+            }
+            removeTerm(SuggestionType.BRAND, product.getBrand());
+            if (product.getTags() != null) {
+                product.getTags().forEach(tag -> removeTerm(SuggestionType.TAG, tag));
+            }
+        }
+
+        /**
+         * Node whose subtree holds exactly the keys starting with the prefix, or null.
+         */
+        private Node find(String prefix) {
+            Node node = root;
+            int position = 0;
+            while (position < prefix.length()) {
+                Node child = node.child(prefix.charAt(position));
+                if (child == null) {
+                    return null;
+                }
+                int common = commonPrefix(child.label, prefix, position);
+                if (position + common == prefix.length()) {
+                    return child;
+                }
+                if (common < child.label.length()) {
+                    return null;
+                }
+                node = child;
+                position += common;
+            }
+            return node;
+        }
+
+        private void addTerm(SuggestionType type, String text) {
+            String id = termId(type, text);
+            if (id == null) {
+                return;
+            }
+            Entry term = entries.get(id);
+            if (term == null) {
+                term = addEntry(id, text.trim(), type, null);
+            }
+            term.productCount++;
+            term.popularity = termPopularity(type, term.productCount);
+            invalidate(term);
+        }
+
+        private void removeTerm(SuggestionType type, String text) {
+            String id = termId(type, text);
+            Entry term = id == null ? null : entries.get(id);
+            if (term == null) {
+                return;
+            }
+            term.productCount--;
+            if (term.productCount <= 0) {
+                removeEntry(term);
+            } else {
+                term.popularity = termPopularity(type, term.productCount);
+                invalidate(term);
+            }
+        }
+
+        private Entry addEntry(String id, String text, SuggestionType type, Long productId) {
+            List<String> words = SearchUtil.tokenize(text);
+            if (words.isEmpty()) {
+                return null;
+            }
+            Entry entry = new Entry(id, text, type, productId);
+            for (int start = 0; start < Math.min(words.size(), MAX_WORD_STARTS); start++) {
+                String key = String.join(" ", words.subList(start, words.size()));
+                insert(key, new KeyRef(entry, start == 0 ? 1.0f : INNER_WORD_FACTOR));
+                entry.keys.add(key);
+            }
+            entries.put(id, entry);
+            return entry;
+        }
+
+        private void removeEntry(Entry entry) {
+            entry.keys.forEach(key -> delete(key, entry));
+            entries.remove(entry.id);
+        }
+
+        private void insert(String key, KeyRef ref) {
+            Node node = root;
+            node.count++;
+            node.top = null;
+            int position = 0;
+            while (position < key.length()) {
+                Node child = node.child(key.charAt(position));
+                if (child == null) {
+                    child = new Node(key.substring(position));
+                    child.addTerminal(ref);
+                    child.count = 1;
+                    node.addChild(child);
+                    return;
+                }
+                int common = commonPrefix(child.label, key, position);
+                if (common < child.label.length()) {
+                    // Split the edge where the key diverges
+                    Node middle = new Node(child.label.substring(0, common));
+                    child.label = child.label.substring(common);
+                    middle.addChild(child);
+                    middle.count = child.count;
+                    node.replaceChild(child, middle);
+                    child = middle;
+                }
+                child.count++;
+                child.top = null;
+                node = child;
+                position += common;
+            }
+            node.addTerminal(ref);
+        }
+
+        private void delete(String key, Entry entry) {
+            List<Node> path = new ArrayList<>();
+            Node node = root;
+            path.add(node);
+            int position = 0;
+            while (position < key.length()) {
+                node = node.child(key.charAt(position));
+                if (node == null || !key.startsWith(node.label, position)) {
+                    return;
+                }
+                path.add(node);
+                position += node.label.length();
+            }
+            if (node.terminals.isEmpty() || !node.terminals.removeIf(ref -> ref.entry() == entry)) {
+                return;
+            }
+
+            for (int i = path.size() - 1; i >= 0; i--) {
+                Node current = path.get(i);
+                current.count--;
+                current.top = null;
+                if (current.count == 0 && i > 0) {
+                    path.get(i - 1).removeChild(current);
+                }
+            }
+        }
+
+        private void invalidate(Entry entry) {
+            for (String key : entry.keys) {
+                Node node = root;
+                node.top = null;
+                int position = 0;
+                while (position < key.length()) {
+                    node = node.child(key.charAt(position));
+                    if (node == null || !key.startsWith(node.label, position)) {
+                        break;
+                    }
+                    node.top = null;
+                    position += node.label.length();
+                }
+            }
+        }
+
+        private static int commonPrefix(String label, String key, int offset) {
+            int max = Math.min(label.length(), key.length() - offset);
+            int i = 0;
+            while (i < max && label.charAt(i) == key.charAt(offset + i)) {
+                i++;
+            }
+            return i;
+        }
+
+        private static String productId(Long id) {
+            return "p" + id;
+        }
+
+        private static String termId(SuggestionType type, String text) {
+            String normalized = normalize(text);
+            if (normalized.isEmpty()) {
+                return null;
+            }
+            return (type == SuggestionType.BRAND ? "b" : "t") + normalized;
+        }
+    }
+}
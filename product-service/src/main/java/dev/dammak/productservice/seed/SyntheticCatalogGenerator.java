@@ -0,0 +1,141 @@
+package dev.dammak.productservice.seed;
+
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.entity.Product;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Generates synthetic products for production-scale query plans and benchmarks.
+ * <p>
+ * Every product is derived from the seed and its index alone, so a catalog of any size comes
+ * out the same on every run no matter how the indexes are spread across workers. Values follow
+ * skewed distributions like a real catalog: a few categories, brands and tags dominate, prices
+ * are log-normal, some products are out of stock and a small share is inactive or featured.
+ */
+public class SyntheticCatalogGenerator {
+
+    public static final String SKU_PREFIX = "SYN-";
+
+    static final String[] BRANDS = {
+            "Acme", "Northwind", "Contoso", "Globex", "Initech", "Umbrella", "Stark", "Wayne", "Wonka", "Tyrell",
+            "Cyberdyne", "Soylent", "Hooli", "Vandelay", "Aperture", "Oscorp", "Gringotts", "Pied Piper", "Monarch",
+            "Massive Dynamic", "Dunder", "Sterling", "Prestige", "Bluth", "Krusty", "Duff", "Zorg", "Nakatomi",
+            "Gekko", "Cogswell", "Spacely", "Rekall", "Omni", "Virtucon", "Ollivander", "Wernham", "Sirius", "Veidt",
+            "Abstergo", "Blue Sun"
+    };
+    private static final String[] ADJECTIVES = {
+            "Classic", "Pro", "Ultra", "Compact", "Deluxe", "Essential", "Premium", "Smart", "Eco", "Advanced",
+            "Lightweight", "Heavy Duty", "Wireless", "Portable", "Signature", "Sport", "Vintage", "Modern", "Mini",
+            "Max"
+    };
+    private static final String[] NOUNS = {
+            "Phone", "Charger", "Case", "Laptop", "Keyboard", "Monitor", "Tablet", "Stylus", "Headphones", "Speaker",
+            "Jacket", "Shirt", "Jeans", "Dress", "Sneakers", "Boots", "Novel", "Thriller", "Biography", "Cookbook",
+            "Lamp", "Chair", "Planter", "Drill", "Tent", "Backpack", "Bicycle", "Dumbbell", "Tire", "Dash Cam",
+            "Serum", "Shampoo", "Puzzle", "Board Game", "Drone", "Watch"
+    };
+    private static final String[] TAGS = {
+            "bestseller", "new", "sale", "eco-friendly", "premium", "budget", "gift", "limited", "bundle", "refurbished",
+            "wireless", "waterproof", "organic", "handmade", "imported", "portable", "kids", "outdoor", "indoor",
+            "professional", "travel", "vintage", "smart", "durable", "lightweight", "compact", "classic", "sport",
+            "winter", "summer", "unisex", "vegan", "recycled", "fast-charging", "noise-cancelling", "ergonomic",
+            "bluetooth", "stainless", "cotton", "leather"
+    };
+    private static final String[] COLORS = {
+            "black", "white", "silver", "blue", "red", "green", "grey", "navy", "beige", "gold"
+    };
+    private static final LocalDateTime FIRST_CREATED_AT = LocalDateTime.of(2023, 1, 1, 0, 0);
+    private static final BigDecimal HUNDRED = BigDecimal.valueOf(100);
+
+    private final long seed;
+    private final List<Category> categories;
+
+    /**
+     * @param categories the categories products are spread over, in a stable order
+     */
+    public SyntheticCatalogGenerator(long seed, List<Category> categories) {
+        this.seed = seed;
+        this.categories = List.copyOf(categories);
+    }
+
+    public static String sku(long index) {
+        String digits = Long.toString(index);
+        return SKU_PREFIX + "0".repeat(Math.max(0, 9 - digits.length())) + digits;
+    }
+
+    /**
+     * The product at the given index, without an id.
+     */
+    public Product generate(long index) {
+        SplittableRandom random = new SplittableRandom(seed * 0x9E3779B97F4A7C15L + index);
+
+        int categoryIndex = skewed(random, categories.size());
+        Category category = categories.get(categoryIndex);
+        String brand = BRANDS[(categoryIndex * 7 + skewed(random, 12)) % BRANDS.length];
+        String noun = NOUNS[(categoryIndex * 3 + random.nextInt(4)) % NOUNS.length];
+        String adjective = ADJECTIVES[random.nextInt(ADJECTIVES.length)];
+        String model = (char) ('A' + random.nextInt(26)) + Integer.toString(random.nextInt(100, 1000));
+        String sku = sku(index);
+
+        BigDecimal price = BigDecimal.valueOf(Math.floor(Math.min(9999, Math.exp(4.1 + random.nextGaussian()))) + 0.99)
+                .setScale(2, RoundingMode.HALF_UP);
+        BigDecimal discountPrice = random.nextInt(5) == 0
+                ? price.multiply(BigDecimal.valueOf(random.nextInt(70, 96))).divide(HUNDRED, 2, RoundingMode.HALF_UP)
+                : null;
+        int stockQuantity = random.nextInt(100) < 8 ? 0 : (int) Math.min(5000, -Math.log(1 - random.nextDouble()) * 80);
+        boolean active = random.nextInt(100) < 97;
+
+        Set<String> tags = new LinkedHashSet<>();
+        int tagCount = 1 + random.nextInt(5);
+        while (tags.size() < tagCount) {
+            tags.add(TAGS[skewed(random, TAGS.length)]);
+        }
+        int imageCount = 1 + random.nextInt(4);
+        List<String> imageUrls = new ArrayList<>(imageCount);
+        for (int i = 1; i <= imageCount; i++) {
+            imageUrls.add("https://cdn.example.com/products/" + sku.toLowerCase() + "/" + i + ".jpg");
+        }
+
+        // One product a minute from the start date, so creation order follows the index
+        LocalDateTime createdAt = FIRST_CREATED_AT.plusMinutes(index).plusSeconds(random.nextInt(60));
+        return Product.builder()
+                .name(brand + " " + adjective + " " + noun + " " + model)
+                .description(adjective + " " + noun.toLowerCase() + " by " + brand + " in " + category.getName()
+                        + ", model " + model + ".")
+                .brand(brand)
+                .price(price)
+                .discountPrice(discountPrice)
+                .sku(sku)
+                .stockQuantity(stockQuantity)
+                .minStockLevel(5 + random.nextInt(16))
+                .active(active)
+                .featured(active && random.nextInt(200) == 0)
+                .category(category)
+                .tags(tags)
+                .imageUrls(imageUrls)
+                .specifications("{\"model\":\"" + model + "\",\"color\":\"" + COLORS[random.nextInt(COLORS.length)]
+                        + "\",\"warranty_months\":" + (12 * (1 + random.nextInt(3))) + "}")
+                .weight(BigDecimal.valueOf(random.nextInt(50, 25000), 3))
+                .length(BigDecimal.valueOf(random.nextInt(100, 12000), 2))
+                .width(BigDecimal.valueOf(random.nextInt(100, 8000), 2))
+                .height(BigDecimal.valueOf(random.nextInt(50, 5000), 2))
+                .createdAt(createdAt)
+                .updatedAt(createdAt.plusSeconds(random.nextInt(30 * 24 * 3600)))
+                .build();
+    }
+
+    // Private helper methods
+    private static int skewed(SplittableRandom random, int bound) {
+        // Squaring a uniform value favours low indexes, roughly like real popularity
+        double u = random.nextDouble();
+        return (int) (u * u * bound);
+    }
+}
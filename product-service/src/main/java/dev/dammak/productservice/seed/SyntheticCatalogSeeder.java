@@ -0,0 +1,143 @@
+package dev.dammak.productservice.seed;
+
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.cache.SearchResultCache;
+import dev.dammak.productservice.config.SeedDataConfig;
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.importer.ProductBatchWriter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Seeds a large synthetic catalog for local benchmarks and production-scale query plans.
+ * <p>
+ * Products come from {@link SyntheticCatalogGenerator} over the active leaf categories and
+ * are written in chunks through JDBC batches, one transaction per chunk, by parallel workers.
+ * No events are published. SKUs that already exist are skipped, so seeding again tops up an
+ * interrupted or smaller run instead of failing. Afterwards the tables are analyzed and the
+ * catalog-wide cache entries invalidated; the in-memory indexes load the new rows when the
+ * application becomes ready.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SyntheticCatalogSeeder {
+
+    private static final String FIND_LEAF_CATEGORIES_SQL =
+            "SELECT id, name FROM categories c WHERE c.active " +
+                    "AND NOT EXISTS (SELECT 1 FROM categories child WHERE child.parent_id = c.id) ORDER BY c.id";
+    private static final String ANALYZE_SQL = "ANALYZE products, product_images, product_tags";
+    private static final int PROGRESS_LOG_CHUNKS = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductBatchWriter productBatchWriter;
+    private final ProductCacheMaintainer productCacheMaintainer;
+    private final SearchResultCache searchResultCache;
+    private final SeedDataConfig seedDataConfig;
+    private final PlatformTransactionManager transactionManager;
+
+    public void seed() {
+        long count = seedDataConfig.getSyntheticProducts();
+        List<Category> categories = jdbcTemplate.query(FIND_LEAF_CATEGORIES_SQL,
+                (rs, rowNum) -> Category.builder().id(rs.getLong("id")).name(rs.getString("name")).build());
+        if (categories.isEmpty()) {
+            log.warn("No active categories to seed synthetic products into");
+            return;
+        }
+
+        log.info("Seeding {} synthetic products into {} categories with {} workers...",
+                count, categories.size(), seedDataConfig.getThreads());
+        long started = System.nanoTime();
+        SyntheticCatalogGenerator generator = new SyntheticCatalogGenerator(seedDataConfig.getRandomSeed(), categories);
+        int batchSize = seedDataConfig.getBatchSize();
+        long chunks = (count + batchSize - 1) / batchSize;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        AtomicLong nextChunk = new AtomicLong();
+        AtomicLong inserted = new AtomicLong();
+
+        AtomicInteger workerNumber = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(seedDataConfig.getThreads(),
+                runnable -> new Thread(runnable, "catalog-seed-" + workerNumber.incrementAndGet()));
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int i = 0; i < seedDataConfig.getThreads(); i++) {
+                results.add(workers.submit(() -> {
+                    for (long chunk = nextChunk.getAndIncrement(); chunk < chunks; chunk = nextChunk.getAndIncrement()) {
+                        long from = chunk * batchSize;
+                        long to = Math.min(count, from + batchSize);
+                        Integer written = transactionTemplate.execute(status -> insertChunk(generator, from, to));
+                        long total = inserted.addAndGet(written != null ? written : 0);
+                        if (chunk % PROGRESS_LOG_CHUNKS == 0) {
+                            log.info("Seeded synthetic products up to index {} ({} new so far)", to, total);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Synthetic catalog seeding failed: " + e.getCause().getMessage(), e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Synthetic catalog seeding interrupted", e);
+        } finally {
+            workers.shutdownNow();
+        }
+
+        // Fresh statistics, so the planner sees the seeded distribution right away
+        jdbcTemplate.execute(ANALYZE_SQL);
+        invalidateCaches(categories);
+        log.info("Seeded {} new synthetic products ({} requested) in {} s",
+                inserted.get(), count, TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - started));
+    }
+
+    // Private helper methods
+    private int insertChunk(SyntheticCatalogGenerator generator, long from, long to) {
+        List<Product> products = new ArrayList<>((int) (to - from));
+        for (long index = from; index < to; index++) {
+            products.add(generator.generate(index));
+        }
+        Set<String> existing = productBatchWriter.findExistingSkus(products.stream().map(Product::getSku).toList());
+        if (!existing.isEmpty()) {
+            products.removeIf(product -> existing.contains(product.getSku()));
+        }
+        if (products.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = productBatchWriter.allocateIds(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            products.get(i).setId(ids.get(i));
+        }
+        return productBatchWriter.insert(products).size();
+    }
+
+    private void invalidateCaches(List<Category> categories) {
+        try {
+            productCacheMaintainer.productsCreatedInBulk();
+            searchResultCache.productsChanged(categories.stream().map(Category::getId).toList(),
+                    Arrays.asList(SyntheticCatalogGenerator.BRANDS));
+        } catch (RuntimeException e) {
+            log.warn("Could not invalidate caches after seeding: {}", e.getMessage());
+        }
+    }
+}
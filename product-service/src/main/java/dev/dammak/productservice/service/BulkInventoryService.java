@@ -0,0 +1,267 @@
+package dev.dammak.productservice.service;
+
+import com.fasterxml.jackson.core.JacksonException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import dev.dammak.productservice.config.InventoryConfig;
+import dev.dammak.productservice.dto.BulkInventoryFailureDto;
+import dev.dammak.productservice.dto.BulkInventoryResultDto;
+import dev.dammak.productservice.dto.InventoryUpdateDto;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.inventory.HotStockAllocator;
+import dev.dammak.productservice.inventory.StockChange;
+import dev.dammak.productservice.inventory.StockChangePublisher;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Array;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Applies large streams of inventory updates, such as nightly warehouse syncs.
+ * <p>
+ * The request array is parsed incrementally and applied in chunks. Each chunk runs in its own
+ * transaction: the affected product rows are locked and read with one query, the updates are
+ * applied in memory in request order, and the final quantities are written with a single JDBC
+ * batch. Rejected items are reported individually and never abort the rest of the batch. The
+ * resulting {@code stock.changed} events are written to the outbox in the same transaction.
+ */
+@Service
+@Slf4j
+public class BulkInventoryService {
+
+    private static final String LOCK_STOCK_SQL =
+            "SELECT id, sku, stock_quantity, min_stock_level FROM products WHERE id = ANY (?) ORDER BY id FOR UPDATE";
+    private static final String UPDATE_STOCK_SQL =
+            "UPDATE products SET stock_quantity = ?, updated_at = CURRENT_TIMESTAMP WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final StockChangePublisher stockChangePublisher;
+    private final HotStockAllocator hotStockAllocator;
+    private final InventoryConfig inventoryConfig;
+    private final Validator validator;
+    private final ObjectReader updateReader;
+    private final TransactionTemplate transactionTemplate;
+
+    public BulkInventoryService(JdbcTemplate jdbcTemplate,
+                                StockChangePublisher stockChangePublisher,
+                                HotStockAllocator hotStockAllocator,
+                                InventoryConfig inventoryConfig,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.stockChangePublisher = stockChangePublisher;
+        this.hotStockAllocator = hotStockAllocator;
+        this.inventoryConfig = inventoryConfig;
+        this.validator = validator;
+        this.updateReader = objectMapper.readerFor(InventoryUpdateDto.class);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public BulkInventoryResultDto bulkUpdateInventory(InputStream body) throws IOException {
+        BulkInventoryResultDto result = new BulkInventoryResultDto();
+        int chunkSize = Math.max(1, inventoryConfig.getBulkChunkSize());
+        List<Item> chunk = new ArrayList<>(chunkSize);
+
+        try (JsonParser parser = updateReader.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ProductException("Bulk inventory update must be a JSON array");
+            }
+
+            int index = 0;
+            while (true) {
+                JsonToken token;
+                InventoryUpdateDto update;
+                try {
+                    token = parser.nextToken();
+                    if (token == JsonToken.END_ARRAY || token == null) {
+                        break;
+                    }
+                    update = updateReader.readValue(parser);
+                } catch (JacksonException e) {
+                    // The stream cannot be resynchronised after malformed JSON, so stop here
+                    result.getFailures().add(failure(index, null, "Malformed update: " + e.getOriginalMessage()));
+                    result.setFailed(result.getFailed() + 1);
+                    result.setTotal(index + 1);
+                    break;
+                }
+
+                Item item = new Item(index++, update);
+                result.setTotal(index);
+                String invalid = validate(update);
+                if (invalid != null) {
+                    reject(result, item, invalid);
+                    continue;
+                }
+
+                chunk.add(item);
+                if (chunk.size() == chunkSize) {
+                    applyChunk(chunk, result);
+                    chunk.clear();
+                }
+            }
+        }
+
+        if (!chunk.isEmpty()) {
+            applyChunk(chunk, result);
+        }
+
+        log.info("Bulk inventory update finished: {} total, {} applied, {} rejected",
+                result.getTotal(), result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    // Private helper methods
+    private void applyChunk(List<Item> chunk, BulkInventoryResultDto result) {
+        List<BulkInventoryFailureDto> failures = new ArrayList<>();
+        List<StockChange> changes;
+        try {
+            changes = transactionTemplate.execute(status -> applyInTransaction(chunk, failures));
+        } catch (RuntimeException e) {
+            log.error("Bulk inventory chunk of {} updates failed", chunk.size(), e);
+            chunk.forEach(item -> reject(result, item, "Chunk failed: " + e.getMessage()));
+            return;
+        }
+
+        result.getFailures().addAll(failures);
+        result.setFailed(result.getFailed() + failures.size());
+        result.setSucceeded(result.getSucceeded() + (changes != null ? changes.size() : 0));
+    }
+
+    private List<StockChange> applyInTransaction(List<Item> chunk, List<BulkInventoryFailureDto> failures) {
+        Map<Long, StockRow> rows = lockStock(chunk.stream()
+                .map(item -> item.update().getProductId())
+                .collect(Collectors.toCollection(TreeSet::new)));
+
+        List<StockChange> changes = new ArrayList<>(chunk.size());
+        for (Item item : chunk) {
+            InventoryUpdateDto update = item.update();
+            StockRow row = rows.get(update.getProductId());
+            if (row == null) {
+                failures.add(failure(item.index(), update.getProductId(), "Product not found with id: " + update.getProductId()));
+                continue;
+            }
+
+            // Events carry the whole stock, which for hot products includes the quota held by instances
+            int held = hotStockAllocator.heldQuota(row.id);
+            int oldQuantity = row.quantity;
+            int newQuantity = calculateNewQuantity(oldQuantity, update);
+            int newTotal = newQuantity + held;
+            if ("SET".equalsIgnoreCase(update.getOperation())) {
+                // Hot stock quota held by instances is part of the new count, only the rest goes to the row
+                newQuantity = hotStockAllocator.settleSet(row.id, newQuantity);
+                newTotal = update.getQuantity();
+            }
+            if (newQuantity < 0) {
+                failures.add(failure(item.index(), update.getProductId(),
+                        "Insufficient stock. Available: " + oldQuantity + ", Requested: " + update.getQuantity()));
+                continue;
+            }
+
+            row.quantity = newQuantity;
+            row.changed = true;
+            changes.add(new StockChange(row.id, row.sku, oldQuantity + held, newTotal, row.minStockLevel,
+                    update.getOperation(), update.getReason() != null ? update.getReason() : "Bulk update"));
+        }
+
+        List<Object[]> batchArgs = rows.values().stream()
+                .filter(row -> row.changed)
+                .map(row -> new Object[]{row.quantity, row.id})
+                .toList();
+        if (!batchArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(UPDATE_STOCK_SQL, batchArgs);
+        }
+        stockChangePublisher.publishAll(changes);
+        return changes;
+    }
+
+    private Map<Long, StockRow> lockStock(Set<Long> productIds) {
+        Map<Long, StockRow> rows = new HashMap<>(productIds.size() * 2);
+        // Rows are locked in id order so concurrent bulk updates cannot deadlock
+        jdbcTemplate.query(LOCK_STOCK_SQL,
+                ps -> {
+                    Array ids = ps.getConnection().createArrayOf("bigint", productIds.toArray());
+                    ps.setArray(1, ids);
+                },
+                rs -> {
+                    StockRow row = new StockRow(rs.getLong("id"), rs.getString("sku"), rs.getInt("stock_quantity"),
+                            rs.getObject("min_stock_level", Integer.class));
+                    rows.put(row.id, row);
+                });
+        return rows;
+    }
+
+    private String validate(InventoryUpdateDto update) {
+        if (update == null) {
+            return "Update must not be null";
+        }
+        Set<ConstraintViolation<InventoryUpdateDto>> violations = validator.validate(update);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
+        if (update.getOperation() == null) {
+            return "Operation is required";
+        }
+        return switch (update.getOperation().toUpperCase()) {
+            case "ADD", "SUBTRACT", "SET" -> null;
+            default -> "Invalid operation: " + update.getOperation();
+        };
+    }
+
+    private static int calculateNewQuantity(int currentQuantity, InventoryUpdateDto update) {
+        return switch (update.getOperation().toUpperCase()) {
+            case "ADD" -> currentQuantity + update.getQuantity();
+            case "SUBTRACT" -> currentQuantity - update.getQuantity();
+            case "SET" -> update.getQuantity();
+            default -> throw new ProductException("Invalid operation: " + update.getOperation());
+        };
+    }
+
+    private static void reject(BulkInventoryResultDto result, Item item, String message) {
+        Long productId = item.update() != null ? item.update().getProductId() : null;
+        result.getFailures().add(failure(item.index(), productId, message));
+        result.setFailed(result.getFailed() + 1);
+    }
+
+    private static BulkInventoryFailureDto failure(int index, Long productId, String message) {
+        return BulkInventoryFailureDto.builder()
+                .index(index)
+                .productId(productId)
+                .message(message)
+                .build();
+    }
+
+    private record Item(int index, InventoryUpdateDto update) {
+    }
+
+    private static final class StockRow {
+        private final long id;
+        private final String sku;
+        private final Integer minStockLevel;
+        private int quantity;
+        private boolean changed;
+
+        private StockRow(long id, String sku, int quantity, Integer minStockLevel) {
+            this.id = id;
+            this.sku = sku;
+            this.minStockLevel = minStockLevel;
+            this.quantity = quantity;
+        }
+    }
+}
@@ -2,6 +2,10 @@ package dev.dammak.productservice.service;
 
 
 
+import dev.dammak.productservice.cache.CatalogVersions;
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.category.CategoryTree;
+import dev.dammak.productservice.category.CategoryTreeLoader;
 import dev.dammak.productservice.dto.CategoryDto;
 import dev.dammak.productservice.entity.Category;
 import dev.dammak.productservice.exception.ProductException;
@@ -26,6 +30,9 @@ public class CategoryService {
 
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final CategoryTreeLoader categoryTreeLoader;
+    private final CatalogVersions catalogVersions;
+    private final ProductCacheMaintainer productCacheMaintainer;
 
     @Cacheable(value = "categories", key = "#id")
     public CategoryDto getCategoryById(Long id) {
@@ -44,8 +51,25 @@ public class CategoryService {
                 .map(categoryMapper::toDto);
     }
 
+    /**
+     * Identifies the category tree the tree-backed reads are served from.
+     */
+    public String getTreeFingerprint() {
+        return categoryTreeLoader.getTree().getFingerprint();
+    }
+
     public List<CategoryDto> getCategoriesByParent(Long parentId) {
-        return categoryMapper.toDtoList(categoryRepository.findByParentIdOrderByDisplayOrder(parentId));
+        return categoryMapper.toDtoListFromNodes(categoryTreeLoader.getTree().children(parentId));
+    }
+
+    public List<CategoryDto> getDescendants(Long id, boolean activeOnly) {
+        CategoryTree tree = requireInTree(id);
+        return categoryMapper.toDtoListFromNodes(tree.descendants(id, activeOnly));
+    }
+
+    public List<CategoryDto> getBreadcrumb(Long id) {
+        CategoryTree tree = requireInTree(id);
+        return categoryMapper.toDtoListFromNodes(tree.breadcrumb(id));
     }
 
     public Page<CategoryDto> searchCategories(String keyword, Pageable pageable) {
@@ -62,6 +86,8 @@ public class CategoryService {
         Category category = categoryMapper.toEntity(categoryDto);
         category = categoryRepository.save(category);
         log.info("Created new category with id: {}", category.getId());
+        categoryTreeLoader.reloadAfterCommit();
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.CATEGORIES));
        return categoryMapper.toDto(category);
     }
 
@@ -75,6 +101,16 @@ public class CategoryService {
             throw new ProductException("Category with name '" + categoryDto.getName() + "' already exists");
         }
 
+        CategoryTree tree = categoryTreeLoader.getTree();
+        if (categoryDto.getParentId() != null &&
+                (categoryDto.getParentId().equals(id) || tree.isAncestor(id, categoryDto.getParentId()))) {
+            throw new ProductException("Category cannot be moved under itself or one of its subcategories");
+        }
+
+        if (!existingCategory.getName().equals(categoryDto.getName())) {
+            // Product entity tags include the category version bumped below
+            productCacheMaintainer.categoryRenamed();
+        }
         existingCategory.setName(categoryDto.getName());
         existingCategory.setDescription(categoryDto.getDescription());
         existingCategory.setParentId(categoryDto.getParentId());
@@ -83,6 +119,8 @@ public class CategoryService {
 
         existingCategory = categoryRepository.save(existingCategory);
         log.info("Updated category with id: {}", existingCategory.getId());
+        categoryTreeLoader.reloadAfterCommit();
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.CATEGORIES));
 
         return categoryMapper.toDto(existingCategory);
     }
@@ -95,5 +133,16 @@ public class CategoryService {
         category.setActive(false);
         categoryRepository.save(category);
         log.info("Soft deleted category with id: {}", id);
+        categoryTreeLoader.reloadAfterCommit();
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.CATEGORIES));
+    }
+
+    // Private helper methods
+    private CategoryTree requireInTree(Long id) {
+        CategoryTree tree = categoryTreeLoader.getTree();
+        if (!tree.contains(id)) {
+            throw new ProductException("Category not found with id: " + id);
+        }
+        return tree;
     }
 }
\ No newline at end of file
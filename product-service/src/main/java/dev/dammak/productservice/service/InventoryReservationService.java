@@ -0,0 +1,184 @@
+package dev.dammak.productservice.service;
+
+import dev.dammak.productservice.config.InventoryConfig;
+import dev.dammak.productservice.dto.ReservationDto;
+import dev.dammak.productservice.dto.ReservationRequestDto;
+import dev.dammak.productservice.entity.InventoryReservation;
+import dev.dammak.productservice.enums.ReservationStatus;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.inventory.HotStockAllocator;
+import dev.dammak.productservice.mapper.InventoryReservationMapper;
+import dev.dammak.productservice.repository.InventoryReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Two-phase stock reservations: {@code reserve} takes stock immediately and records a
+ * reservation with a TTL, {@code commit} makes it final and {@code release} gives the stock
+ * back. Reservations that are neither committed nor released before they expire are swept
+ * and their stock is returned. Every status change is a conditional update from
+ * {@link ReservationStatus#RESERVED}, so stock is returned at most once even when release
+ * and expiry race across instances.
+ */
+@Service
+@Slf4j
+@Transactional
+public class InventoryReservationService {
+
+    private final InventoryReservationRepository reservationRepository;
+    private final InventoryService inventoryService;
+    private final HotStockAllocator hotStockAllocator;
+    private final InventoryReservationMapper reservationMapper;
+    private final InventoryConfig inventoryConfig;
+    private final TransactionTemplate transactionTemplate;
+
+    public InventoryReservationService(InventoryReservationRepository reservationRepository,
+                                       InventoryService inventoryService,
+                                       HotStockAllocator hotStockAllocator,
+                                       InventoryReservationMapper reservationMapper,
+                                       InventoryConfig inventoryConfig,
+                                       PlatformTransactionManager transactionManager) {
+        this.reservationRepository = reservationRepository;
+        this.inventoryService = inventoryService;
+        this.hotStockAllocator = hotStockAllocator;
+        this.reservationMapper = reservationMapper;
+        this.inventoryConfig = inventoryConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public ReservationDto reserve(ReservationRequestDto request) {
+        Long productId = request.getProductId();
+        int quantity = request.getQuantity();
+
+        if (!hotStockAllocator.tryAcquire(productId, quantity)) {
+            inventoryService.decrementStock(productId, quantity, "SUBTRACT", "Stock reservation");
+        }
+
+        InventoryReservation reservation = InventoryReservation.builder()
+                .reservationId(UUID.randomUUID().toString())
+                .productId(productId)
+                .quantity(quantity)
+                .status(ReservationStatus.RESERVED)
+                .reference(request.getReference())
+                .expiresAt(LocalDateTime.now().plus(resolveTtl(request.getTtlSeconds())))
+                .build();
+        reservation = reservationRepository.save(reservation);
+
+        log.info("Reserved {} units of product {} as {}", quantity, productId, reservation.getReservationId());
+        return reservationMapper.toDto(reservation);
+    }
+
+    public ReservationDto commit(String reservationId) {
+        InventoryReservation reservation = getReservationEntity(reservationId);
+        requireReserved(reservation);
+        if (reservation.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new ProductException("Reservation has expired: " + reservationId);
+        }
+
+        transition(reservation, ReservationStatus.COMMITTED);
+        log.info("Committed reservation {}", reservationId);
+        return reservationMapper.toDto(getReservationEntity(reservationId));
+    }
+
+    public ReservationDto release(String reservationId) {
+        InventoryReservation reservation = getReservationEntity(reservationId);
+        requireReserved(reservation);
+
+        transition(reservation, ReservationStatus.RELEASED);
+        restoreStock(reservation, "Stock release");
+        log.info("Released reservation {}", reservationId);
+        return reservationMapper.toDto(getReservationEntity(reservationId));
+    }
+
+    // Not read-only: clients read reservations right after creating them, which a replica may not have yet
+    public ReservationDto getReservation(String reservationId) {
+        return reservationMapper.toDto(getReservationEntity(reservationId));
+    }
+
+    /**
+     * Expires overdue reservations in batches, each in its own transaction so one failure
+     * does not hold back the rest.
+     */
+    @Scheduled(fixedDelayString = "${app.inventory.expiry-sweep-interval-ms:30000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void expireReservations() {
+        int expired = 0;
+        List<Long> overdue;
+        int handled;
+        do {
+            overdue = reservationRepository.findIdsByStatusAndExpiresAtBefore(ReservationStatus.RESERVED,
+                    LocalDateTime.now(), PageRequest.of(0, inventoryConfig.getExpiryBatchSize()));
+            handled = 0;
+            for (Long id : overdue) {
+                try {
+                    Boolean done = transactionTemplate.execute(status -> expire(id));
+                    handled++;
+                    if (Boolean.TRUE.equals(done)) {
+                        expired++;
+                    }
+                } catch (Exception e) {
+                    log.error("Failed to expire reservation {}", id, e);
+                }
+            }
+            // Stop when a batch made no progress so failing rows are retried on the next sweep
+        } while (overdue.size() == inventoryConfig.getExpiryBatchSize() && handled > 0);
+
+        if (expired > 0) {
+            log.info("Expired {} stock reservations", expired);
+        }
+    }
+
+    // Private helper methods
+    private boolean expire(Long id) {
+        if (reservationRepository.transition(id, ReservationStatus.RESERVED, ReservationStatus.EXPIRED) == 0) {
+            return false;
+        }
+        reservationRepository.findById(id).ifPresent(reservation -> restoreStock(reservation, "Reservation expired"));
+        return true;
+    }
+
+    private void transition(InventoryReservation reservation, ReservationStatus target) {
+        if (reservationRepository.transition(reservation.getId(), ReservationStatus.RESERVED, target) == 0) {
+            throw new ProductException("Reservation is no longer active: " + reservation.getReservationId());
+        }
+    }
+
+    private void restoreStock(InventoryReservation reservation, String reason) {
+        if (!hotStockAllocator.returnStock(reservation.getProductId(), reservation.getQuantity())) {
+            inventoryService.incrementStock(reservation.getProductId(), reservation.getQuantity(), "ADD", reason);
+        }
+    }
+
+    private void requireReserved(InventoryReservation reservation) {
+        if (reservation.getStatus() != ReservationStatus.RESERVED) {
+            throw new ProductException("Reservation " + reservation.getReservationId() + " is already "
+                    + reservation.getStatus());
+        }
+    }
+
+    private Duration resolveTtl(Long ttlSeconds) {
+        if (ttlSeconds == null) {
+            return inventoryConfig.getReservationTtl();
+        }
+        Duration requested = Duration.ofSeconds(ttlSeconds);
+        return requested.compareTo(inventoryConfig.getMaxReservationTtl()) > 0
+                ? inventoryConfig.getMaxReservationTtl()
+                : requested;
+    }
+
+    private InventoryReservation getReservationEntity(String reservationId) {
+        return reservationRepository.findByReservationId(reservationId)
+                .orElseThrow(() -> new ProductException("Reservation not found: " + reservationId));
+    }
+}
@@ -1,19 +1,29 @@
 package dev.dammak.productservice.service;
 
 import dev.dammak.productservice.dto.InventoryUpdateDto;
-import dev.dammak.productservice.entity.Product;
 import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.inventory.HotStockAllocator;
+import dev.dammak.productservice.inventory.LowStockTracker;
+import dev.dammak.productservice.inventory.StockChangePublisher;
 import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.repository.projection.LowStockView;
+import dev.dammak.productservice.repository.projection.ProductStockView;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
-import java.util.Map;
+import java.util.Optional;
 
+/**
+ * Stock changes are applied with conditional UPDATE statements rather than read-modify-write
+ * on the entity, so concurrent buyers can never drive stock below zero and do not hold the
+ * row lock for longer than the UPDATE itself.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -21,75 +31,101 @@ import java.util.Map;
 public class InventoryService {
 
     private final ProductRepository productRepository;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final StockChangePublisher stockChangePublisher;
+    private final HotStockAllocator hotStockAllocator;
+    private final LowStockTracker lowStockTracker;
 
-    @CacheEvict(value = "products", key = "#updateDto.productId")
     public void updateInventory(InventoryUpdateDto updateDto) {
-        Product product = productRepository.findById(updateDto.getProductId())
-                .orElseThrow(() -> new ProductException("Product not found with id: " + updateDto.getProductId()));
+        Long productId = updateDto.getProductId();
+        int quantity = updateDto.getQuantity();
+        String reason = updateDto.getReason() != null ? updateDto.getReason() : "Manual update";
 
-        int oldQuantity = product.getStockQuantity();
-        int newQuantity = calculateNewQuantity(oldQuantity, updateDto);
-
-        if (newQuantity < 0) {
-            throw new ProductException("Insufficient stock. Available: " + oldQuantity + ", Requested: " + updateDto.getQuantity());
+        switch (updateDto.getOperation().toUpperCase()) {
+            case "ADD" -> incrementStock(productId, quantity, updateDto.getOperation(), reason);
+            case "SUBTRACT" -> decrementStock(productId, quantity, updateDto.getOperation(), reason);
+            case "SET" -> setStock(productId, quantity, updateDto.getOperation(), reason);
+            default -> throw new ProductException("Invalid operation: " + updateDto.getOperation());
         }
-
-        product.setStockQuantity(newQuantity);
-        productRepository.save(product);
-
-        // Publish stock changed event
-        Map<String, Object> stockEvent = Map.of(
-                "productId", product.getId(),
-                "sku", product.getSku(),
-                "oldQuantity", oldQuantity,
-                "newQuantity", newQuantity,
-                "operation", updateDto.getOperation(),
-                "reason", updateDto.getReason() != null ? updateDto.getReason() : "Manual update"
-        );
-
-        kafkaTemplate.send("stock.changed", stockEvent);
-        log.info("Updated inventory for product {} from {} to {}", product.getId(), oldQuantity, newQuantity);
     }
 
-    public List<Product> getLowStockProducts() {
-        return productRepository.findByStockQuantityLessThanMinStockLevel();
+    /**
+     * Products below their minimum stock level, in id order. The ids come from the in-memory
+     * {@link LowStockTracker}; only the requested page is read from the database.
+     */
+    @Transactional(readOnly = true)
+    public Page<LowStockView> getLowStockProducts(Pageable pageable) {
+        Page<Long> ids = lowStockTracker.getLowStockIds(pageable);
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), pageable, ids.getTotalElements());
+        }
+        return new PageImpl<>(productRepository.findLowStockViews(ids.getContent()), pageable, ids.getTotalElements());
     }
 
     public boolean isInStock(Long productId, int quantity) {
-        Product product = productRepository.findById(productId)
-                .orElseThrow(() -> new ProductException("Product not found with id: " + productId));
-        return product.getStockQuantity() >= quantity;
+        return getStockQuantity(productId) >= quantity;
     }
 
-    @CacheEvict(value = "products", key = "#productId")
     public void reserveStock(Long productId, int quantity) {
-        InventoryUpdateDto updateDto = InventoryUpdateDto.builder()
-                .productId(productId)
-                .quantity(quantity)
-                .operation("SUBTRACT")
-                .reason("Stock reservation")
-                .build();
-        updateInventory(updateDto);
+        decrementStock(productId, quantity, "SUBTRACT", "Stock reservation");
     }
 
-    @CacheEvict(value = "products", key = "#productId")
     public void releaseStock(Long productId, int quantity) {
-        InventoryUpdateDto updateDto = InventoryUpdateDto.builder()
-                .productId(productId)
-                .quantity(quantity)
-                .operation("ADD")
-                .reason("Stock release")
-                .build();
-        updateInventory(updateDto);
+        incrementStock(productId, quantity, "ADD", "Stock release");
     }
 
-    private int calculateNewQuantity(int currentQuantity, InventoryUpdateDto updateDto) {
-        return switch (updateDto.getOperation().toUpperCase()) {
-            case "ADD" -> currentQuantity + updateDto.getQuantity();
-            case "SUBTRACT" -> currentQuantity - updateDto.getQuantity();
-            case "SET" -> updateDto.getQuantity();
-            default -> throw new ProductException("Invalid operation: " + updateDto.getOperation());
-        };
+    /**
+     * Atomically takes stock if enough is available.
+     *
+     * @return the remaining stock, or empty when there is not enough stock
+     */
+    public Optional<Integer> tryDecrementStock(Long productId, int quantity, String operation, String reason) {
+        if (productRepository.decrementStock(productId, quantity) == 0) {
+            // Fails the lookup for unknown products, otherwise stock was insufficient
+            getStockView(productId);
+            return Optional.empty();
+        }
+
+        // The UPDATE holds the row lock until commit, so this read sees exactly our change
+        ProductStockView stock = getStockView(productId);
+        int newQuantity = stock.getStockQuantity() + hotStockAllocator.heldQuota(productId);
+        stockChangePublisher.publish(stock, newQuantity + quantity, newQuantity, operation, reason);
+        return Optional.of(newQuantity);
+    }
+
+    public int decrementStock(Long productId, int quantity, String operation, String reason) {
+        return tryDecrementStock(productId, quantity, operation, reason)
+                .orElseThrow(() -> new ProductException("Insufficient stock. Available: "
+                        + getStockView(productId).getStockQuantity() + ", Requested: " + quantity));
+    }
+
+    public int incrementStock(Long productId, int quantity, String operation, String reason) {
+        if (productRepository.incrementStock(productId, quantity) == 0) {
+            throw new ProductException("Product not found with id: " + productId);
+        }
+
+        ProductStockView stock = getStockView(productId);
+        int newQuantity = stock.getStockQuantity() + hotStockAllocator.heldQuota(productId);
+        stockChangePublisher.publish(stock, newQuantity - quantity, newQuantity, operation, reason);
+        return newQuantity;
+    }
+
+    private void setStock(Long productId, int quantity, String operation, String reason) {
+        int oldQuantity = getStockQuantity(productId);
+        // Hot stock quota held by instances is part of the new count, only the rest goes to the row
+        int rowQuantity = hotStockAllocator.settleSet(productId, quantity);
+        productRepository.setStock(productId, rowQuantity);
+
+        ProductStockView stock = getStockView(productId);
+        stockChangePublisher.publish(stock, oldQuantity, quantity, operation, reason);
+    }
+
+    private int getStockQuantity(Long productId) {
+        // Hot products keep part of their stock as quota, held by any instance
+        return getStockView(productId).getStockQuantity() + hotStockAllocator.heldQuota(productId);
+    }
+
+    private ProductStockView getStockView(Long productId) {
+        return productRepository.findStockViewById(productId)
+                .orElseThrow(() -> new ProductException("Product not found with id: " + productId));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,85 @@
+package dev.dammak.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.enums.ExportFormat;
+import dev.dammak.productservice.exporter.ProductExportWriter;
+import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.repository.ProductRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+/**
+ * Streams the whole active catalog to a feed.
+ * <p>
+ * Products come from a single server-side cursor in id order instead of offset pages, so
+ * every slice costs the same. Each slice of one fetch size is detached from the persistence
+ * context before it is written and its images and tags are loaded with one query each, which
+ * keeps memory flat whatever the catalog size.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProductExportService {
+
+    private static final int SLICE_SIZE = Integer.parseInt(ProductRepository.EXPORT_FETCH_SIZE);
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(readOnly = true)
+    public void exportActiveProducts(ExportFormat format, OutputStream out) throws IOException {
+        long exported = 0;
+        try (Stream<Product> products = productRepository.streamActiveProducts();
+             ProductExportWriter writer = ProductExportWriter.open(format, out, objectMapper)) {
+            Iterator<Product> iterator = products.iterator();
+            List<Product> slice = new ArrayList<>(SLICE_SIZE);
+            while (iterator.hasNext()) {
+                slice.add(iterator.next());
+                if (slice.size() == SLICE_SIZE || !iterator.hasNext()) {
+                    writeSlice(slice, writer);
+                    exported += slice.size();
+                    slice.clear();
+                }
+            }
+        }
+        log.info("Exported {} products as {}", exported, format);
+    }
+
+    // Private helper methods
+    private void writeSlice(List<Product> slice, ProductExportWriter writer) throws IOException {
+        // Detach first, so replacing the lazy collections below is never seen as a change
+        entityManager.clear();
+
+        List<Long> ids = slice.stream().map(Product::getId).toList();
+        Map<Long, List<String>> images = new HashMap<>();
+        productRepository.findImages(ids).forEach(image ->
+                images.computeIfAbsent(image.getProductId(), id -> new ArrayList<>()).add(image.getImageUrl()));
+        Map<Long, Set<String>> tags = new HashMap<>();
+        productRepository.findTags(ids).forEach(tag ->
+                tags.computeIfAbsent(tag.getProductId(), id -> new HashSet<>()).add(tag.getTag()));
+
+        for (Product product : slice) {
+            product.setImageUrls(images.getOrDefault(product.getId(), List.of()));
+            product.setTags(tags.getOrDefault(product.getId(), Set.of()));
+            writer.write(productMapper.toDto(product));
+        }
+        writer.flush();
+    }
+}
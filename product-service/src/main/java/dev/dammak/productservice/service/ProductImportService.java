@@ -0,0 +1,555 @@
+package dev.dammak.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.cache.SearchResultCache;
+import dev.dammak.productservice.category.CategoryNode;
+import dev.dammak.productservice.category.CategoryTree;
+import dev.dammak.productservice.category.CategoryTreeLoader;
+import dev.dammak.productservice.config.ProductImportConfig;
+import dev.dammak.productservice.dto.ProductDto;
+import dev.dammak.productservice.dto.ProductImportErrorDto;
+import dev.dammak.productservice.dto.ProductImportStatusDto;
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.entity.Product;
+import dev.dammak.productservice.enums.ImportFormat;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.importer.ImportRow;
+import dev.dammak.productservice.importer.ProductBatchWriter;
+import dev.dammak.productservice.importer.ProductImportJob;
+import dev.dammak.productservice.importer.ProductImportJobStore;
+import dev.dammak.productservice.importer.ProductImportReader;
+import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.outbox.OutboxWriter;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Imports supplier catalogs of any size as background jobs.
+ * <p>
+ * The upload is spooled to disk and read row by row, so memory use is bounded by the chunk
+ * size. Each chunk resolves its categories against the in-memory category tree (with one query
+ * for any it does not know), checks SKUs with one query, and inserts products, images and tags
+ * with JDBC batches using ids allocated from the sequence up front. The chunk's
+ * {@code product.created} events go to the outbox in the same transaction. Rejected rows never
+ * stop the import: the first few are kept for the status response and all of them are written
+ * to the job's error report.
+ * <p>
+ * Job state lives in the {@link ProductImportJobStore}, so status and error reports can be read
+ * from any instance; only the spooled upload is local to the instance running the job. Uploads
+ * left behind by a stopped instance are removed at startup and with the hourly cleanup.
+ */
+@Service
+@Slf4j
+public class ProductImportService {
+
+    private static final String FIND_CATEGORIES_SQL =
+            "SELECT id, name FROM categories WHERE id = ANY (?) OR lower(name) = ANY (?)";
+    // Column widths of product_images.image_url and product_tags.tag
+    private static final int MAX_IMAGE_URL_LENGTH = 500;
+    private static final int MAX_TAG_LENGTH = 100;
+    private static final String UPLOAD_SUFFIX = ".upload";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ProductBatchWriter productBatchWriter;
+    private final ProductImportJobStore productImportJobStore;
+    private final OutboxWriter outboxWriter;
+    private final ProductMapper productMapper;
+    private final ProductCacheMaintainer productCacheMaintainer;
+    private final SearchResultCache searchResultCache;
+    private final CategoryTreeLoader categoryTreeLoader;
+    private final ProductImportConfig productImportConfig;
+    private final ThreadPoolTaskExecutor productImportExecutor;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    // Jobs queued or running on this instance
+    private final Map<String, ProductImportJob> jobs = new ConcurrentHashMap<>();
+
+    public ProductImportService(JdbcTemplate jdbcTemplate,
+                                ProductBatchWriter productBatchWriter,
+                                ProductImportJobStore productImportJobStore,
+                                OutboxWriter outboxWriter,
+                                ProductMapper productMapper,
+                                ProductCacheMaintainer productCacheMaintainer,
+                                SearchResultCache searchResultCache,
+                                CategoryTreeLoader categoryTreeLoader,
+                                ProductImportConfig productImportConfig,
+                                @Qualifier("productImportExecutor") ThreadPoolTaskExecutor productImportExecutor,
+                                Validator validator,
+                                ObjectMapper objectMapper,
+                                PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.productBatchWriter = productBatchWriter;
+        this.productImportJobStore = productImportJobStore;
+        this.outboxWriter = outboxWriter;
+        this.productMapper = productMapper;
+        this.productCacheMaintainer = productCacheMaintainer;
+        this.searchResultCache = searchResultCache;
+        this.categoryTreeLoader = categoryTreeLoader;
+        this.productImportConfig = productImportConfig;
+        this.productImportExecutor = productImportExecutor;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Spools the upload to disk and queues it for import. Uploads larger than the configured
+     * maximum are rejected.
+     */
+    public ProductImportStatusDto startImport(ImportFormat format, InputStream body) throws IOException {
+        Path workDir = Paths.get(productImportConfig.getWorkDir());
+        Files.createDirectories(workDir);
+
+        String jobId = UUID.randomUUID().toString();
+        Path uploadFile = workDir.resolve(jobId + UPLOAD_SUFFIX);
+        ProductImportJob job;
+        try {
+            long size = spool(body, uploadFile);
+            job = new ProductImportJob(jobId, format, uploadFile, size, productImportConfig.getMaxReportedErrors());
+            productImportJobStore.create(job);
+        } catch (IOException | RuntimeException e) {
+            deleteQuietly(uploadFile);
+            throw e;
+        }
+
+        jobs.put(jobId, job);
+        try {
+            productImportExecutor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(jobId);
+            deleteQuietly(uploadFile);
+            job.failed("Too many product imports in progress");
+            productImportJobStore.save(job, List.of());
+            throw new ProductException("Too many product imports in progress, try again later");
+        }
+
+        log.info("Queued {} product import {} ({} bytes)", format, jobId, job.getTotalBytes());
+        return job.toStatusDto();
+    }
+
+    public ProductImportStatusDto getStatus(String jobId) {
+        ProductImportJob job = jobs.get(jobId);
+        if (job != null) {
+            return job.toStatusDto();
+        }
+        return productImportJobStore.find(jobId, productImportConfig.getMaxReportedErrors())
+                .orElseThrow(() -> new ProductException("Import job not found: " + jobId));
+    }
+
+    /**
+     * Copies every rejected row recorded so far, one JSON object per line. Rows rejected by a
+     * running job appear once the chunk they belong to is done.
+     */
+    public void writeErrorReport(String jobId, OutputStream out) throws IOException {
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        try {
+            productImportJobStore.forEachError(jobId, error -> {
+                try {
+                    writer.write(objectMapper.writeValueAsString(error));
+                    writer.newLine();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Keeps the jobs of this instance alive in the store and fails the jobs of instances that
+     * stopped.
+     */
+    @Scheduled(fixedDelayString = "${app.product-import.heartbeat-interval-ms:30000}")
+    public void heartbeat() {
+        productImportJobStore.heartbeat(jobs.keySet());
+        int abandoned = productImportJobStore.failAbandoned(productImportConfig.getJobStaleAfter());
+        if (abandoned > 0) {
+            log.warn("Failed {} product imports whose instance stopped", abandoned);
+        }
+    }
+
+    @Scheduled(fixedDelay = 3600000) // 1 hour
+    public void removeExpiredJobs() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(productImportConfig.getJobRetention());
+        int removed = productImportJobStore.deleteFinishedBefore(cutoff);
+        if (removed > 0) {
+            log.info("Removed {} expired product import jobs", removed);
+        }
+        removeOrphanedUploads();
+    }
+
+    /**
+     * Deletes spooled uploads no running job reads any more, such as those of a previous run of
+     * this instance.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void removeOrphanedUploads() {
+        Path workDir = Paths.get(productImportConfig.getWorkDir());
+        if (!Files.isDirectory(workDir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(workDir)) {
+            files.filter(file -> file.getFileName().toString().endsWith(UPLOAD_SUFFIX))
+                    .filter(this::isOrphaned)
+                    .forEach(file -> {
+                        deleteQuietly(file);
+                        log.info("Removed orphaned product import upload {}", file.getFileName());
+                    });
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to remove orphaned product import uploads: {}", e.getMessage());
+        }
+    }
+
+    // Private helper methods
+    private long spool(InputStream body, Path uploadFile) throws IOException {
+        long maxSize = productImportConfig.getMaxUploadSize();
+        byte[] buffer = new byte[8192];
+        long size = 0;
+        try (OutputStream out = Files.newOutputStream(uploadFile, StandardOpenOption.CREATE_NEW)) {
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                size += read;
+                if (size > maxSize) {
+                    throw new ProductException("Import file exceeds the maximum size of " + maxSize + " bytes");
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return size;
+    }
+
+    private boolean isOrphaned(Path uploadFile) {
+        String name = uploadFile.getFileName().toString();
+        String jobId = name.substring(0, name.length() - UPLOAD_SUFFIX.length());
+        if (jobs.containsKey(jobId)) {
+            return false;
+        }
+        Duration staleAfter = productImportConfig.getJobStaleAfter();
+        try {
+            // A work directory shared with other instances may hold an upload still being spooled
+            if (Files.getLastModifiedTime(uploadFile).toInstant().isAfter(Instant.now().minus(staleAfter))) {
+                return false;
+            }
+        } catch (IOException e) {
+            return false;
+        }
+        return !productImportJobStore.isAlive(jobId, staleAfter);
+    }
+
+    private void run(ProductImportJob job) {
+        job.started();
+        int chunkSize = Math.max(1, productImportConfig.getChunkSize());
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        List<ProductImportErrorDto> errors = new ArrayList<>();
+
+        try (InputStream in = new CountingInputStream(Files.newInputStream(job.getUploadFile()), job.getProcessedBytes());
+             ProductImportReader reader = ProductImportReader.open(job.getFormat(), in, objectMapper)) {
+            checkpoint(job, errors);
+            ImportRow row;
+            while ((row = reader.next()) != null) {
+                job.getRowsRead().incrementAndGet();
+                if (row.error() != null) {
+                    reject(job, errors, row.row(), null, row.error());
+                    if (errors.size() >= chunkSize) {
+                        checkpoint(job, errors);
+                    }
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    importChunk(job, errors, chunk);
+                    chunk.clear();
+                    checkpoint(job, errors);
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(job, errors, chunk);
+            }
+            job.completed();
+            log.info("Product import {} finished: {} rows, {} imported, {} rejected",
+                    job.getId(), job.getRowsRead().get(), job.getImported().get(), job.getFailed().get());
+        } catch (IOException | RuntimeException e) {
+            log.error("Product import {} failed after {} rows", job.getId(), job.getRowsRead().get(), e);
+            job.failed(e.getMessage());
+        } finally {
+            deleteQuietly(job.getUploadFile());
+            try {
+                checkpoint(job, errors);
+            } catch (RuntimeException e) {
+                // Left unfinished in the store; the heartbeat sweep fails it once this instance stops renewing it
+                log.error("Failed to save the final state of product import {}", job.getId(), e);
+            }
+            jobs.remove(job.getId());
+        }
+    }
+
+    private void checkpoint(ProductImportJob job, List<ProductImportErrorDto> errors) {
+        productImportJobStore.save(job, errors);
+        errors.clear();
+    }
+
+    private void importChunk(ProductImportJob job, List<ProductImportErrorDto> errors, List<ImportRow> chunk) {
+        Map<Long, String> categories = resolveCategories(chunk);
+
+        List<ImportRow> candidates = new ArrayList<>(chunk.size());
+        Set<String> chunkSkus = new HashSet<>();
+        for (ImportRow row : chunk) {
+            ProductDto product = row.product();
+            String invalid = prepare(product, categories);
+            if (invalid != null) {
+                reject(job, errors, row.row(), product.getSku(), invalid);
+            } else if (!chunkSkus.add(product.getSku())) {
+                reject(job, errors, row.row(), product.getSku(), "Duplicate SKU '" + product.getSku() + "' in import");
+            } else {
+                candidates.add(row);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return;
+        }
+
+        List<ImportRow> duplicates = new ArrayList<>();
+        List<ProductDto> created;
+        try {
+            created = transactionTemplate.execute(status -> insertInTransaction(candidates, categories, duplicates));
+        } catch (RuntimeException e) {
+            log.error("Product import {} chunk of {} rows failed", job.getId(), candidates.size(), e);
+            for (ImportRow row : candidates) {
+                reject(job, errors, row.row(), row.product().getSku(), "Chunk failed: " + e.getMessage());
+            }
+            return;
+        }
+
+        for (ImportRow row : duplicates) {
+            reject(job, errors, row.row(), row.product().getSku(),
+                    "Product with SKU '" + row.product().getSku() + "' already exists");
+        }
+        job.getImported().addAndGet(created != null ? created.size() : 0);
+    }
+
+    private List<ProductDto> insertInTransaction(List<ImportRow> candidates, Map<Long, String> categories,
+                                                 List<ImportRow> duplicates) {
+        Set<String> existing = productBatchWriter.findExistingSkus(
+                candidates.stream().map(row -> row.product().getSku()).toList());
+        List<ImportRow> rows = new ArrayList<>(candidates.size());
+        for (ImportRow row : candidates) {
+            (existing.contains(row.product().getSku()) ? duplicates : rows).add(row);
+        }
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+
+        List<Long> ids = productBatchWriter.allocateIds(rows.size());
+        LocalDateTime now = LocalDateTime.now();
+        List<Product> products = new ArrayList<>(rows.size());
+        for (int i = 0; i < rows.size(); i++) {
+            ProductDto dto = rows.get(i).product();
+            Product product = productMapper.toEntity(dto);
+            product.setId(ids.get(i));
+            product.setCategory(Category.builder().id(dto.getCategoryId()).name(categories.get(dto.getCategoryId())).build());
+            product.setCreatedAt(now);
+            product.setUpdatedAt(now);
+            products.add(product);
+        }
+
+        Set<Long> insertedIds = productBatchWriter.insert(products);
+        List<Product> inserted = new ArrayList<>(products.size());
+        for (int i = 0; i < products.size(); i++) {
+            if (!insertedIds.contains(products.get(i).getId())) {
+                duplicates.add(rows.get(i));
+            } else {
+                inserted.add(products.get(i));
+            }
+        }
+
+        List<ProductDto> created = productMapper.toDtoList(inserted);
+        outboxWriter.appendAll("product.created", created.stream()
+                .map(dto -> new OutboxWriter.Message(String.valueOf(dto.getId()), dto))
+                .toList());
+        created.forEach(productCacheMaintainer::productCreated);
+        created.forEach(dto -> searchResultCache.productChanged(dto.getCategoryId(), dto.getBrand()));
+        return created;
+    }
+
+    /**
+     * Resolves the categories a chunk refers to, by id or by name, into id to name. Known
+     * categories come from the category tree; the rest are looked up with one query.
+     */
+    private Map<Long, String> resolveCategories(List<ImportRow> chunk) {
+        CategoryTree tree = categoryTreeLoader.getTree();
+        Map<Long, String> categories = new HashMap<>();
+        Set<Long> missingIds = new LinkedHashSet<>();
+        Set<String> missingNames = new LinkedHashSet<>();
+
+        for (ImportRow row : chunk) {
+            ProductDto product = row.product();
+            if (product.getCategoryId() != null) {
+                tree.find(product.getCategoryId()).ifPresentOrElse(
+                        node -> categories.put(node.getId(), node.getName()),
+                        () -> missingIds.add(product.getCategoryId()));
+            } else if (product.getCategoryName() != null) {
+                tree.findByName(product.getCategoryName()).ifPresentOrElse(
+                        node -> {
+                            categories.put(node.getId(), node.getName());
+                            product.setCategoryId(node.getId());
+                        },
+                        () -> missingNames.add(product.getCategoryName().toLowerCase()));
+            }
+        }
+        if (missingIds.isEmpty() && missingNames.isEmpty()) {
+            return categories;
+        }
+
+        Map<String, Long> idsByName = new HashMap<>();
+        jdbcTemplate.query(FIND_CATEGORIES_SQL,
+                ps -> {
+                    ps.setArray(1, ps.getConnection().createArrayOf("bigint", missingIds.toArray()));
+                    ps.setArray(2, ps.getConnection().createArrayOf("varchar", missingNames.toArray()));
+                },
+                rs -> {
+                    categories.put(rs.getLong("id"), rs.getString("name"));
+                    idsByName.put(rs.getString("name").toLowerCase(), rs.getLong("id"));
+                });
+        for (ImportRow row : chunk) {
+            ProductDto product = row.product();
+            if (product.getCategoryId() == null && product.getCategoryName() != null) {
+                product.setCategoryId(idsByName.get(product.getCategoryName().toLowerCase()));
+            }
+        }
+        return categories;
+    }
+
+    /**
+     * Normalizes a parsed row and returns why it cannot be imported, or null if it can.
+     */
+    private String prepare(ProductDto product, Map<Long, String> categories) {
+        product.setId(null);
+        if (product.getImageUrls() == null) {
+            product.setImageUrls(new ArrayList<>());
+        }
+        if (product.getTags() == null) {
+            product.setTags(new HashSet<>());
+        }
+
+        if (product.getCategoryId() == null && product.getCategoryName() != null) {
+            return "Category not found with name: " + product.getCategoryName();
+        }
+        Set<ConstraintViolation<ProductDto>> violations = validator.validate(product);
+        if (!violations.isEmpty()) {
+            return violations.stream().map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(", "));
+        }
+        if (!categories.containsKey(product.getCategoryId())) {
+            return "Category not found with id: " + product.getCategoryId();
+        }
+        // Checked here so an oversized value fails its row instead of the whole chunk's batch
+        for (String url : product.getImageUrls()) {
+            if (url == null || url.isBlank() || url.length() > MAX_IMAGE_URL_LENGTH) {
+                return "Image URLs must be non-empty and at most " + MAX_IMAGE_URL_LENGTH + " characters";
+            }
+        }
+        for (String tag : product.getTags()) {
+            if (tag == null || tag.isBlank() || tag.length() > MAX_TAG_LENGTH) {
+                return "Tags must be non-empty and at most " + MAX_TAG_LENGTH + " characters";
+            }
+        }
+        return null;
+    }
+
+    private void reject(ProductImportJob job, List<ProductImportErrorDto> errors, long row, String sku,
+                        String message) {
+        ProductImportErrorDto error = ProductImportErrorDto.builder()
+                .row(row)
+                .sku(sku)
+                .message(message)
+                .build();
+        job.rejected(error);
+        errors.add(error);
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete import file {}", path);
+        }
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+
+        private final AtomicLong count;
+
+        private CountingInputStream(InputStream in, AtomicLong count) {
+            super(in);
+            this.count = count;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count.incrementAndGet();
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count.addAndGet(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count.addAndGet(skipped);
+            return skipped;
+        }
+    }
+}
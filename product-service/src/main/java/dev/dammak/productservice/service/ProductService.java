@@ -1,27 +1,45 @@
 package dev.dammak.productservice.service;
 
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.cache.SearchResultCache;
+import dev.dammak.productservice.category.CategoryTreeLoader;
+import dev.dammak.productservice.dto.CursorPageDto;
+import dev.dammak.productservice.dto.ProductBatchRequestDto;
 import dev.dammak.productservice.dto.ProductDto;
 import dev.dammak.productservice.dto.ProductSearchDto;
+import dev.dammak.productservice.dto.ProductSummaryDto;
 import dev.dammak.productservice.entity.Category;
 import dev.dammak.productservice.entity.Product;
 import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.inventory.HotStockAllocator;
 import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.outbox.OutboxWriter;
 import dev.dammak.productservice.repository.CategoryRepository;
 import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.util.CursorUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.Hibernate;
-import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.StringUtils;
 
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiFunction;
 
 @Service
 @RequiredArgsConstructor
@@ -32,9 +50,15 @@ public class ProductService {
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
+    private final ProductCacheMaintainer productCacheMaintainer;
+    private final SearchResultCache searchResultCache;
+    private final CategoryTreeLoader categoryTreeLoader;
+    private final ProductSummaryService productSummaryService;
+    private final HotStockAllocator hotStockAllocator;
 
-    @Cacheable(value = "products", key = "#id")
+    // Not read-only: what cache misses load is shared for an hour, so it must not come from a lagging replica
+    @Cacheable(value = "products", key = "#id", sync = true)
     public ProductDto getProductById(Long id) {
         Product product = productRepository.findByIdWithImagesAndTags(id)
                 .orElseThrow(() -> new ProductException("Product not found with id: " + id));
@@ -46,6 +70,7 @@ public class ProductService {
         return productMapper.toDto(product);
     }
 
+    // Not read-only: tagged with the current catalog version, see getAllProducts
     public ProductDto getProductBySku(String sku) {
         Product product = productRepository.findBySkuWithTags(sku)
                 .orElseThrow(() -> new ProductException("Product not found with SKU: " + sku));
@@ -53,16 +78,86 @@ public class ProductService {
         return productMapper.toDto(product);
     }
 
-    public Page<ProductDto> getAllProducts(Pageable pageable) {
-        return productRepository.findByActiveTrue(pageable)
-                .map(productMapper::toDto);
+    /**
+     * Resolves many products in one call: ids are served from the product cache where possible
+     * and the rest, together with any SKUs, are loaded with one query each. Unknown ids and
+     * SKUs are left out of the result.
+     */
+    public Map<Long, ProductDto> getProductsBatch(ProductBatchRequestDto request) {
+        Set<Long> ids = distinctNonNull(request.getIds());
+        Set<String> skus = distinctNonNull(request.getSkus());
+        if (ids.isEmpty() && skus.isEmpty()) {
+            throw new ProductException("At least one product ID or SKU is required");
+        }
+        if (ids.size() + skus.size() > ProductBatchRequestDto.MAX_BATCH_SIZE) {
+            throw new ProductException("At most " + ProductBatchRequestDto.MAX_BATCH_SIZE
+                    + " products can be requested at once");
+        }
+
+        Map<Long, ProductDto> products = new LinkedHashMap<>();
+        if (!ids.isEmpty()) {
+            Map<Long, ProductDto> cached = productCacheMaintainer.getCachedProducts(ids);
+            List<Long> missing = ids.stream().filter(id -> !cached.containsKey(id)).toList();
+
+            Map<Long, ProductDto> loaded = new LinkedHashMap<>();
+            if (!missing.isEmpty()) {
+                productMapper.toDtoList(productRepository.findAllByIdInWithImagesAndTags(missing))
+                        .forEach(product -> loaded.put(product.getId(), product));
+                productCacheMaintainer.cacheProducts(loaded.values());
+            }
+
+            for (Long id : ids) {
+                ProductDto product = cached.containsKey(id) ? cached.get(id) : loaded.get(id);
+                if (product != null) {
+                    products.put(id, product);
+                }
+            }
+            log.debug("Batch lookup of {} ids: {} from cache, {} from database", ids.size(), cached.size(), loaded.size());
+        }
+
+        if (!skus.isEmpty()) {
+            productMapper.toDtoList(productRepository.findAllBySkuInWithImagesAndTags(skus))
+                    .forEach(product -> products.putIfAbsent(product.getId(), product));
+        }
+        return products;
+    }
+
+    // Not read-only: the controller tags the page with the catalog version it read first, and a lagging
+    // replica would pair that fresh ETag with stale rows that clients then revalidate as current
+    public Page<ProductSummaryDto> getAllProducts(Pageable pageable) {
+        return productSummaryService.toSummaryPage(productRepository.findActiveSummaries(pageable));
+    }
+
+    /**
+     * Products of a category, optionally including those of all its active subcategories.
+     * The subtree is resolved from the in-memory category tree, so the whole listing is a
+     * single query regardless of depth. Not read-only, for the same reason as {@link #getAllProducts}.
+     */
+    public Page<ProductSummaryDto> getProductsByCategory(Long categoryId, boolean includeDescendants, Pageable pageable) {
+        List<Long> categoryIds = includeDescendants
+                ? categoryTreeLoader.getTree().subtreeIds(categoryId, true)
+                : List.of();
+        if (categoryIds.isEmpty()) {
+            categoryIds = List.of(categoryId);
+        }
+        return productSummaryService.toSummaryPage(
+                productRepository.findActiveSummariesByCategoryIds(categoryIds, pageable));
     }
 
-    public Page<ProductDto> getProductsByCategory(Long categoryId, Pageable pageable) {
-        return productRepository.findByCategoryIdAndActiveTrue(categoryId, pageable)
-                .map(productMapper::toDto);
+    // Not read-only: tagged with the current catalog version, see getAllProducts
+    public CursorPageDto<ProductDto> getProductsByCursor(String cursor, String sortBy, String sortDirection, int size) {
+        return scrollProducts(cursor, sortBy, sortDirection, size,
+                (position, sort) -> productRepository.findByActiveTrue(position, sort, Limit.of(size)));
     }
 
+    // Not read-only: tagged with the current catalog version, see getAllProducts
+    public CursorPageDto<ProductDto> getProductsByCategoryCursor(Long categoryId, String cursor, String sortBy,
+                                                                 String sortDirection, int size) {
+        return scrollProducts(cursor, sortBy, sortDirection, size,
+                (position, sort) -> productRepository.findByCategoryIdAndActiveTrue(categoryId, position, sort, Limit.of(size)));
+    }
+
+    @Transactional(readOnly = true)
     public Page<ProductDto> searchProducts(ProductSearchDto searchDto) {
         Sort sort = Sort.by(
                 "desc".equalsIgnoreCase(searchDto.getSortDirection()) ?
@@ -86,17 +181,17 @@ public class ProductService {
         ).map(productMapper::toDto);
     }
 
-    @Cacheable(value = "featuredProducts")
+    @Cacheable(value = "featuredProducts", sync = true)
     public List<ProductDto> getFeaturedProducts() {
         List<Product> products = productRepository.findByFeaturedTrueAndActiveTrue();
         return productMapper.toDtoList(products);
     }
 
+    // Not read-only: tagged with the current catalog version, see getAllProducts
     public List<String> getAllBrands() {
         return productRepository.findDistinctBrands();
     }
 
-    @CacheEvict(value = {"products", "featuredProducts"}, allEntries = true)
     public ProductDto createProduct(ProductDto productDto) {
         validateUniqueSkuForCreate(productDto.getSku());
         Category category = getCategoryById(productDto.getCategoryId());
@@ -106,38 +201,81 @@ public class ProductService {
         product = productRepository.save(product);
 
         ProductDto createdProductDto = productMapper.toDto(product);
+        productCacheMaintainer.productCreated(createdProductDto);
+        searchResultCache.productChanged(createdProductDto.getCategoryId(), createdProductDto.getBrand());
         publishProductEvent("product.created", createdProductDto);
 
         log.info("Created new product with id: {}", product.getId());
         return createdProductDto;
     }
 
-    @CacheEvict(value = {"products", "featuredProducts"}, allEntries = true)
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         Product existingProduct = getProductEntityById(id);
         validateUniqueSkuForUpdate(existingProduct, productDto.getSku());
         Category category = getCategoryById(productDto.getCategoryId());
+        boolean wasFeatured = ProductCacheMaintainer.isFeatured(existingProduct.getFeatured(), existingProduct.getActive());
+        // Searches the product matched before the change are stale as well
+        searchResultCache.productChanged(existingProduct.getCategory().getId(), existingProduct.getBrand());
 
         productMapper.updateEntityFromDto(existingProduct, productDto);
         existingProduct.setCategory(category);
-        existingProduct = productRepository.save(existingProduct);
+        // Flush so the row is locked before the event is written and the cache gets the new updatedAt
+        existingProduct = productRepository.saveAndFlush(existingProduct);
 
         ProductDto updatedProductDto = productMapper.toDto(existingProduct);
+        productCacheMaintainer.productUpdated(wasFeatured, updatedProductDto);
+        searchResultCache.productChanged(updatedProductDto.getCategoryId(), updatedProductDto.getBrand());
         publishProductEvent("product.updated", updatedProductDto);
 
         log.info("Updated product with id: {}", existingProduct.getId());
         return updatedProductDto;
     }
 
-    @CacheEvict(value = {"products", "featuredProducts"}, allEntries = true)
     public void deleteProduct(Long id) {
         Product product = getProductEntityById(id);
+        boolean wasFeatured = ProductCacheMaintainer.isFeatured(product.getFeatured(), product.getActive());
         product.setActive(false);
-        productRepository.save(product);
+        // Flush so the row is locked before the event is written
+        product = productRepository.saveAndFlush(product);
+
+        ProductDto deletedProductDto = productMapper.toDto(product);
+        productCacheMaintainer.productDeleted(wasFeatured, deletedProductDto);
+        searchResultCache.productChanged(deletedProductDto.getCategoryId(), deletedProductDto.getBrand());
+        publishProductEvent("product.deleted", deletedProductDto);
         log.info("Soft deleted product with id: {}", id);
     }
 
     // Private helper methods
+    private static <T> Set<T> distinctNonNull(Collection<T> values) {
+        Set<T> distinct = new LinkedHashSet<>();
+        if (values != null) {
+            values.stream().filter(Objects::nonNull).forEach(distinct::add);
+        }
+        return distinct;
+    }
+
+    private CursorPageDto<ProductDto> scrollProducts(String cursor, String sortBy, String sortDirection, int size,
+                                                     BiFunction<KeysetScrollPosition, Sort, Window<Product>> query) {
+        CursorUtil.Cursor position = StringUtils.hasText(cursor) ?
+                CursorUtil.decode(cursor) : CursorUtil.first(sortBy, sortDirection);
+
+        // Keyset seek on (sortKey, id): no offset scan and no count query at any depth
+        Window<Product> window = query.apply(position.position(), position.toSort());
+        List<ProductDto> content = window.getContent().stream()
+                .map(productMapper::toDto)
+                .toList();
+
+        String nextCursor = window.hasNext() && !window.isEmpty() ?
+                CursorUtil.encode(position, (KeysetScrollPosition) window.positionAt(window.size() - 1)) : null;
+
+        return CursorPageDto.<ProductDto>builder()
+                .content(content)
+                .size(content.size())
+                .hasNext(nextCursor != null)
+                .nextCursor(nextCursor)
+                .build();
+    }
+
     private Product getProductEntityById(Long id) {
         return productRepository.findById(id)
                 .orElseThrow(() -> new ProductException("Product not found with id: " + id));
@@ -161,11 +299,12 @@ public class ProductService {
     }
 
     private void publishProductEvent(String topic, ProductDto productDto) {
-        try {
-            kafkaTemplate.send(topic, productDto);
-        } catch (Exception e) {
-            log.error("Failed to publish product event to topic: {}", topic, e);
-            // Consider whether to throw exception or just log
-        }
+        // Consumers track stock from events, and a hot product also has stock held as quota outside the row
+        int held = hotStockAllocator.heldQuota(productDto.getId());
+        ProductDto event = held != 0 && productDto.getStockQuantity() != null
+                ? productDto.toBuilder().stockQuantity(productDto.getStockQuantity() + held).build()
+                : productDto;
+        // Recorded in the outbox with this transaction; OutboxRelay publishes it after commit
+        outboxWriter.append(topic, String.valueOf(productDto.getId()), event);
     }
 }
\ No newline at end of file
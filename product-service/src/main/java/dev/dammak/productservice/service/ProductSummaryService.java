@@ -0,0 +1,71 @@
+package dev.dammak.productservice.service;
+
+import dev.dammak.productservice.cache.ProductCacheMaintainer;
+import dev.dammak.productservice.dto.ProductSummaryDto;
+import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.repository.projection.ProductImageView;
+import dev.dammak.productservice.repository.projection.ProductSummaryView;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Builds product cards for listings from the summary projection plus one query for the
+ * first image of every product on the page, so a page costs two queries however many
+ * rows it has. Cards for known ids are taken from the product cache first.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class ProductSummaryService {
+
+    private final ProductRepository productRepository;
+    private final ProductMapper productMapper;
+    private final ProductCacheMaintainer productCacheMaintainer;
+
+    public Page<ProductSummaryDto> toSummaryPage(Page<ProductSummaryView> page) {
+        Map<Long, String> images = firstImages(page.getContent().stream().map(ProductSummaryView::getId).toList());
+        return page.map(view -> productMapper.toSummaryDto(view, images.get(view.getId())));
+    }
+
+    /**
+     * Summaries for the given ids in the given order; ids that no longer exist are skipped.
+     */
+    public List<ProductSummaryDto> getSummaries(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductSummaryDto> summaries = new HashMap<>(ids.size() * 2);
+        productCacheMaintainer.getCachedProducts(ids).forEach((id, product) ->
+                summaries.put(id, productMapper.toSummaryDto(product)));
+
+        List<Long> missing = ids.stream().filter(id -> !summaries.containsKey(id)).toList();
+        if (!missing.isEmpty()) {
+            List<ProductSummaryView> views = productRepository.findSummariesByIdIn(missing);
+            Map<Long, String> images = firstImages(views.stream().map(ProductSummaryView::getId).toList());
+            views.forEach(view -> summaries.put(view.getId(), productMapper.toSummaryDto(view, images.get(view.getId()))));
+        }
+        return ids.stream()
+                .map(summaries::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    // Private helper methods
+    private Map<Long, String> firstImages(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return Map.of();
+        }
+        return productRepository.findFirstImages(productIds).stream()
+                .collect(Collectors.toMap(ProductImageView::getProductId, ProductImageView::getImageUrl));
+    }
+}
@@ -1,58 +1,169 @@
 package dev.dammak.productservice.service;
 
+import dev.dammak.productservice.cache.CachedSearchResult;
+import dev.dammak.productservice.cache.SearchResultCache;
+import dev.dammak.productservice.config.SearchConfig;
+import dev.dammak.productservice.dto.FacetValueDto;
+import dev.dammak.productservice.dto.FacetedSearchResultDto;
 import dev.dammak.productservice.dto.ProductDto;
 import dev.dammak.productservice.dto.ProductSearchDto;
+import dev.dammak.productservice.dto.ProductSummaryDto;
+import dev.dammak.productservice.dto.SuggestionDto;
+import dev.dammak.productservice.entity.Category;
+import dev.dammak.productservice.enums.SearchBackend;
 import dev.dammak.productservice.mapper.ProductMapper;
+import dev.dammak.productservice.repository.CategoryRepository;
 import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.search.FacetCollector;
+import dev.dammak.productservice.search.ProductSearchIndex;
+import dev.dammak.productservice.search.SearchHits;
+import dev.dammak.productservice.search.SearchQuery;
+import dev.dammak.productservice.search.SuggestionIndex;
 import dev.dammak.productservice.util.SearchUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
 import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 import static dev.dammak.productservice.util.SearchUtil.createSort;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
+@Transactional(readOnly = true)
 public class SearchService {
 
     private final ProductRepository productRepository;
+    private final CategoryRepository categoryRepository;
     private final ProductMapper productMapper;
-
-    public Page<ProductDto> searchProducts(ProductSearchDto searchDto) {
+    private final ProductSearchIndex searchIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final SearchConfig searchConfig;
+    private final ProductSummaryService productSummaryService;
+    private final SearchResultCache searchResultCache;
+
+    // Not read-only: result ids are cached for every instance, so they must not come from a lagging replica
+    @Transactional
+    public Page<ProductSummaryDto> searchProducts(ProductSearchDto searchDto) {
         validateSearchRequest(searchDto);
 
-        Sort sort = createSort(searchDto.getSortBy(), searchDto.getSortDirection());
+        Sort sort = SearchUtil.isRelevanceSort(searchDto.getSortBy()) ?
+                Sort.unsorted() : createSort(searchDto.getSortBy(), searchDto.getSortDirection());
         Pageable pageable = createPageable(searchDto, sort);
 
         log.debug("Searching products with filters: categoryId={}, brand={}, minPrice={}, maxPrice={}, keyword={}",
                 searchDto.getCategoryId(), searchDto.getBrand(), searchDto.getMinPrice(),
                 searchDto.getMaxPrice(), searchDto.getKeyword());
 
-        return productRepository.findProductsWithFilters(
-                searchDto.getCategoryId(),
-                searchDto.getBrand(),
-                searchDto.getMinPrice(),
-                searchDto.getMaxPrice(),
-                searchDto.getKeyword(),
-                pageable
-        ).map(productMapper::toDto);
+        SearchBackend backend = resolveBackend(searchDto.getKeyword());
+        String cacheKey = searchResultCache.keyFor(searchDto, backend);
+        CachedSearchResult cached = searchResultCache.get(cacheKey);
+        if (cached != null) {
+            return new PageImpl<>(hydrate(cached.getIds()), pageable, cached.getTotal());
+        }
+
+        Page<ProductSummaryDto> results = runSearch(searchDto, backend, sort, pageable);
+        searchResultCache.put(cacheKey, results.map(ProductSummaryDto::getId).getContent(), results.getTotalElements());
+        return results;
     }
 
-    public Page<ProductDto> searchByKeyword(String keyword, Pageable pageable) {
+    public FacetedSearchResultDto facetedSearch(ProductSearchDto searchDto) {
+        validateSearchRequest(searchDto);
+
+        Sort sort = SearchUtil.isRelevanceSort(searchDto.getSortBy()) ?
+                Sort.unsorted() : createSort(searchDto.getSortBy(), searchDto.getSortDirection());
+        Pageable pageable = createPageable(searchDto, sort);
+        FacetCollector facets = new FacetCollector(searchConfig.getPriceFacetBoundaries());
+
+        log.debug("Faceted search with filters: categoryId={}, brand={}, minPrice={}, maxPrice={}, keyword={}",
+                searchDto.getCategoryId(), searchDto.getBrand(), searchDto.getMinPrice(),
+                searchDto.getMaxPrice(), searchDto.getKeyword());
+
+        Page<ProductSummaryDto> products;
+        if (searchConfig.getBackend() == SearchBackend.INDEX && searchIndex.isReady()) {
+            // Page selection and facet counting share a single pass over the index
+            SearchHits hits = searchIndex.search(toSearchQuery(searchDto, pageable), facets);
+            products = new PageImpl<>(hydrate(hits.getIds()), pageable, hits.getTotal());
+        } else {
+            products = productSummaryService.toSummaryPage(productRepository.findSummariesWithFilters(
+                    searchDto.getCategoryId(),
+                    searchDto.getBrand(),
+                    searchDto.getMinPrice(),
+                    searchDto.getMaxPrice(),
+                    searchDto.getKeyword(),
+                    Boolean.TRUE.equals(searchDto.getFeatured()),
+                    Boolean.TRUE.equals(searchDto.getInStock()),
+                    pageable
+            ));
+            productRepository.findFacetValuesWithFilters(
+                    searchDto.getCategoryId(),
+                    searchDto.getBrand(),
+                    searchDto.getMinPrice(),
+                    searchDto.getMaxPrice(),
+                    searchDto.getKeyword(),
+                    Boolean.TRUE.equals(searchDto.getFeatured()),
+                    Boolean.TRUE.equals(searchDto.getInStock())
+            ).forEach(row -> facets.add(row.getBrand(), row.getCategoryId(), row.getPrice(), row.getStockQuantity()));
+        }
+
+        return FacetedSearchResultDto.builder()
+                .products(products)
+                .brands(toBrandFacets(facets))
+                .categories(toCategoryFacets(facets))
+                .priceRanges(toPriceRangeFacets(facets))
+                .inStockCount(facets.getInStockCount())
+                .build();
+    }
+
+    public Page<ProductSummaryDto> searchByKeyword(String keyword, Pageable pageable) {
         validateKeywordSearch(keyword);
 
         log.debug("Searching products by keyword: {}", keyword);
 
-        return productRepository.searchProducts(keyword, pageable)
-                .map(productMapper::toDto);
+        SearchBackend backend = resolveBackend(keyword);
+        if (backend == SearchBackend.INDEX) {
+            SearchQuery query = SearchQuery.builder()
+                    .keyword(keyword)
+                    .sort(pageable.getSort())
+                    .offset(pageable.getOffset())
+                    .limit(pageable.getPageSize())
+                    .build();
+            return searchIndexed(query, pageable);
+        }
+        if (backend == SearchBackend.FULLTEXT) {
+            Page<Long> matches = productRepository.searchProductIdsFullText(
+                    SearchUtil.toPrefixTsQuery(keyword), keyword.trim(),
+                    null, null, null, null, false, false,
+                    pageable.getSort().isUnsorted(),
+                    toNativePageable(pageable)
+            );
+            return toHydratedPage(matches, pageable);
+        }
+
+        return productSummaryService.toSummaryPage(productRepository.searchSummaries(keyword, pageable));
+    }
+
+    public List<SuggestionDto> suggest(String prefix, int limit) {
+        return suggestionIndex.suggest(prefix, limit).stream()
+                .map(suggestion -> SuggestionDto.builder()
+                        .text(suggestion.text())
+                        .type(suggestion.type())
+                        .productId(suggestion.productId())
+                        .build())
+                .toList();
     }
 
     public Page<ProductDto> searchByCategory(Long categoryId, Pageable pageable) {
@@ -82,7 +193,131 @@ public class SearchService {
                 .map(productMapper::toDto);
     }
 
+    private SearchBackend resolveBackend(String keyword) {
+        if (!StringUtils.hasText(keyword)) {
+            return SearchBackend.DATABASE;
+        }
+        SearchBackend backend = searchConfig.getBackend();
+        if (backend == SearchBackend.INDEX && !searchIndex.isReady()) {
+            return SearchBackend.DATABASE;
+        }
+        return backend;
+    }
+
+    private SearchQuery toSearchQuery(ProductSearchDto searchDto, Pageable pageable) {
+        return SearchQuery.builder()
+                .keyword(searchDto.getKeyword())
+                .categoryId(searchDto.getCategoryId())
+                .brand(searchDto.getBrand())
+                .minPrice(searchDto.getMinPrice())
+                .maxPrice(searchDto.getMaxPrice())
+                .featured(searchDto.getFeatured())
+                .inStock(searchDto.getInStock())
+                .sort(pageable.getSort())
+                .offset(pageable.getOffset())
+                .limit(pageable.getPageSize())
+                .build();
+    }
+
+    private Page<ProductSummaryDto> runSearch(ProductSearchDto searchDto, SearchBackend backend,
+                                              Sort sort, Pageable pageable) {
+        if (backend == SearchBackend.INDEX) {
+            return searchIndexed(toSearchQuery(searchDto, pageable), pageable);
+        }
+        if (backend == SearchBackend.FULLTEXT) {
+            Page<Long> matches = productRepository.searchProductIdsFullText(
+                    SearchUtil.toPrefixTsQuery(searchDto.getKeyword()),
+                    searchDto.getKeyword().trim(),
+                    searchDto.getCategoryId(),
+                    searchDto.getBrand(),
+                    searchDto.getMinPrice(),
+                    searchDto.getMaxPrice(),
+                    Boolean.TRUE.equals(searchDto.getFeatured()),
+                    Boolean.TRUE.equals(searchDto.getInStock()),
+                    sort.isUnsorted(),
+                    toNativePageable(pageable)
+            );
+            return toHydratedPage(matches, pageable);
+        }
+
+        return productSummaryService.toSummaryPage(productRepository.findSummariesWithFilters(
+                searchDto.getCategoryId(),
+                searchDto.getBrand(),
+                searchDto.getMinPrice(),
+                searchDto.getMaxPrice(),
+                searchDto.getKeyword(),
+                Boolean.TRUE.equals(searchDto.getFeatured()),
+                Boolean.TRUE.equals(searchDto.getInStock()),
+                pageable
+        ));
+    }
 
+    private Page<ProductSummaryDto> searchIndexed(SearchQuery query, Pageable pageable) {
+        SearchHits hits = searchIndex.search(query);
+        return new PageImpl<>(hydrate(hits.getIds()), pageable, hits.getTotal());
+    }
+
+    private Page<ProductSummaryDto> toHydratedPage(Page<Long> matches, Pageable pageable) {
+        return new PageImpl<>(hydrate(matches.getContent()), pageable, matches.getTotalElements());
+    }
+
+    private Pageable toNativePageable(Pageable pageable) {
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                SearchUtil.toColumnSort(pageable.getSort()));
+    }
+
+    private List<ProductSummaryDto> hydrate(List<Long> ids) {
+        // Card columns and first images for the ranked ids, returned in rank order
+        return productSummaryService.getSummaries(ids);
+    }
+
+    private List<FacetValueDto> toBrandFacets(FacetCollector facets) {
+        return facets.getBrandCounts().entrySet().stream()
+                .map(entry -> FacetValueDto.builder()
+                        .value(entry.getKey())
+                        .label(entry.getKey())
+                        .count(entry.getValue())
+                        .build())
+                .sorted(Comparator.comparingLong(FacetValueDto::getCount).reversed()
+                        .thenComparing(FacetValueDto::getLabel))
+                .toList();
+    }
+
+    private List<FacetValueDto> toCategoryFacets(FacetCollector facets) {
+        Map<Long, String> categoryNames = categoryRepository.findAllById(facets.getCategoryCounts().keySet())
+                .stream()
+                .collect(Collectors.toMap(Category::getId, Category::getName));
+
+        return facets.getCategoryCounts().entrySet().stream()
+                .map(entry -> FacetValueDto.builder()
+                        .value(String.valueOf(entry.getKey()))
+                        .label(categoryNames.getOrDefault(entry.getKey(), String.valueOf(entry.getKey())))
+                        .count(entry.getValue())
+                        .build())
+                .sorted(Comparator.comparingLong(FacetValueDto::getCount).reversed()
+                        .thenComparing(FacetValueDto::getLabel))
+                .toList();
+    }
+
+    private List<FacetValueDto> toPriceRangeFacets(FacetCollector facets) {
+        List<BigDecimal> boundaries = facets.getPriceBoundaries();
+        long[] counts = facets.getPriceRangeCounts();
+        List<FacetValueDto> ranges = new ArrayList<>();
+
+        for (int i = 0; i < counts.length; i++) {
+            if (counts[i] == 0) {
+                continue;
+            }
+            BigDecimal from = i == 0 ? BigDecimal.ZERO : boundaries.get(i - 1);
+            BigDecimal to = i < boundaries.size() ? boundaries.get(i) : null;
+            ranges.add(FacetValueDto.builder()
+                    .value(from.toPlainString() + "-" + (to != null ? to.toPlainString() : ""))
+                    .label(to != null ? from.toPlainString() + " - " + to.toPlainString() : from.toPlainString() + " and above")
+                    .count(counts[i])
+                    .build());
+        }
+        return ranges;
+    }
 
     private Pageable createPageable(ProductSearchDto searchDto, Sort sort) {
         int page = Math.max(0, searchDto.getPage()); // Ensure page is not negative
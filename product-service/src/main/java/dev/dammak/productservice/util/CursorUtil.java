@@ -0,0 +1,90 @@
+package dev.dammak.productservice.util;
+
+import dev.dammak.productservice.exception.ProductException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.util.StringUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Encodes keyset scroll positions as opaque, URL-safe continuation tokens.
+ * <p>
+ * A token carries the sort field, the direction and the (sortKey, id) pair of the last row
+ * returned, so follow-up requests only need the token itself.
+ */
+public final class CursorUtil {
+
+    public static final String ID_FIELD = "id";
+
+    private static final String SEPARATOR = "|";
+
+    private CursorUtil() {
+        // Private constructor to prevent instantiation
+    }
+
+    public static Cursor first(String sortBy, String sortDirection) {
+        String sortField = StringUtils.hasText(sortBy) ? SearchUtil.validateAndGetSortField(sortBy) : ID_FIELD;
+        Sort.Direction direction = "desc".equalsIgnoreCase(sortDirection) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        return new Cursor(sortField, direction, ScrollPosition.keyset());
+    }
+
+    public static String encode(Cursor cursor, KeysetScrollPosition position) {
+        Map<String, ?> keys = position.getKeys();
+        Object id = keys.get(ID_FIELD);
+        Object sortValue = ID_FIELD.equals(cursor.sortField()) ? id : keys.get(cursor.sortField());
+
+        String raw = cursor.sortField() + SEPARATOR + cursor.direction() + SEPARATOR + id + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Cursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            // The sort value goes last since names may contain the separator
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+
+            String sortField = parts[0];
+            if (!ID_FIELD.equals(sortField) && !sortField.equals(SearchUtil.validateAndGetSortField(sortField))) {
+                throw new IllegalArgumentException("Unsupported sort field: " + sortField);
+            }
+            Sort.Direction direction = Sort.Direction.valueOf(parts[1]);
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            if (!ID_FIELD.equals(sortField)) {
+                keys.put(sortField, parseSortValue(sortField, parts[3]));
+            }
+            keys.put(ID_FIELD, Long.valueOf(parts[2]));
+
+            return new Cursor(sortField, direction, ScrollPosition.forward(keys));
+        } catch (IllegalArgumentException e) {
+            throw new ProductException("Invalid cursor", e);
+        }
+    }
+
+    private static Object parseSortValue(String sortField, String value) {
+        return switch (sortField) {
+            case "price" -> new BigDecimal(value);
+            case "createdAt", "updatedAt" -> LocalDateTime.parse(value);
+            case "stockQuantity" -> Integer.valueOf(value);
+            default -> value;
+        };
+    }
+
+    public record Cursor(String sortField, Sort.Direction direction, KeysetScrollPosition position) {
+
+        public Sort toSort() {
+            Sort idSort = Sort.by(direction, ID_FIELD);
+            return ID_FIELD.equals(sortField) ? idSort : Sort.by(direction, sortField).and(idSort);
+        }
+    }
+}
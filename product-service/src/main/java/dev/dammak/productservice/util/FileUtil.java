@@ -3,58 +3,202 @@ package dev.dammak.productservice.util;
 
 import dev.dammak.productservice.config.FileUploadConfig;
 import dev.dammak.productservice.exception.ProductException;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HexFormat;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Pattern;
 
+/**
+ * Stores product images content-addressed: each file is named after the SHA-256 of its bytes,
+ * so uploading the same image twice for a product keeps a single copy and the name doubles as
+ * a strong ETag. Files of one request are written in parallel, each streamed through a direct
+ * buffer into a {@link FileChannel} while the hash is computed, then moved into place.
+ * Resized variants are generated in the background by {@link ImageVariantGenerator}.
+ */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class FileUtil {
 
+    public static final String IMAGE_URL_PREFIX = "/images/products/";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Pattern PRODUCT_DIR = Pattern.compile("product-\\d+");
+    private static final Pattern IMAGE_FILENAME = Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*(\\.[A-Za-z0-9]+)?");
+    private static final Map<String, String> EXTENSIONS = Map.of(
+            "image/jpeg", ".jpg",
+            "image/png", ".png",
+            "image/gif", ".gif",
+            "image/webp", ".webp");
+
     private final FileUploadConfig fileUploadConfig;
+    private final ThreadPoolTaskExecutor imageUploadExecutor;
+    private final ImageVariantGenerator imageVariantGenerator;
+
+    public FileUtil(FileUploadConfig fileUploadConfig,
+                    @Qualifier("imageUploadExecutor") ThreadPoolTaskExecutor imageUploadExecutor,
+                    ImageVariantGenerator imageVariantGenerator) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.imageUploadExecutor = imageUploadExecutor;
+        this.imageVariantGenerator = imageVariantGenerator;
+    }
 
     public List<String> uploadProductImages(Long productId, List<MultipartFile> files) {
-        List<String> imageUrls = new ArrayList<>();
+        files.forEach(this::validateFile);
 
+        Path uploadPath = productDirectory(productId);
+        try {
+            Files.createDirectories(uploadPath);
+        } catch (IOException e) {
+            throw new ProductException("Failed to upload image: " + e.getMessage(), e);
+        }
+
+        List<CompletableFuture<String>> uploads = new ArrayList<>(files.size());
         for (MultipartFile file : files) {
-            validateFile(file);
-            String imageUrl = uploadSingleImage(productId, file);
-            imageUrls.add(imageUrl);
+            uploads.add(CompletableFuture.supplyAsync(() -> uploadSingleImage(productId, uploadPath, file),
+                    imageUploadExecutor));
         }
 
+        List<String> imageUrls = new ArrayList<>(files.size());
+        for (CompletableFuture<String> upload : uploads) {
+            try {
+                imageUrls.add(upload.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof ProductException productException) {
+                    throw productException;
+                }
+                throw new ProductException("Failed to upload image: " + e.getCause().getMessage(), e.getCause());
+            }
+        }
         return imageUrls;
     }
 
-    private String uploadSingleImage(Long productId, MultipartFile file) {
+    /**
+     * Resolves a stored image from the two path segments of its URL, rejecting anything that
+     * is not a plain product directory and file name.
+     */
+    public Optional<Path> resolveProductImage(String productDir, String filename) {
+        if (!PRODUCT_DIR.matcher(productDir).matches() || !IMAGE_FILENAME.matcher(filename).matches()) {
+            return Optional.empty();
+        }
+        Path root = Paths.get(fileUploadConfig.getUploadDir()).toAbsolutePath().normalize();
+        Path image = root.resolve(productDir).resolve(filename).normalize();
+        if (!image.startsWith(root) || !Files.isRegularFile(image)) {
+            return Optional.empty();
+        }
+        return Optional.of(image);
+    }
+
+    /**
+     * Content-derived validator encoded in the name of an image stored by this class, if it is
+     * one: the hash for originals and {@code <hash>_<variant>} for their resized variants.
+     */
+    public static Optional<String> contentHash(Path image) {
+        String name = image.getFileName().toString();
+        int dot = name.lastIndexOf('.');
+        String base = dot == -1 ? name : name.substring(0, dot);
+        if (base.length() < 64 || (base.length() > 64 && base.charAt(64) != '_')) {
+            return Optional.empty();
+        }
+        return base.chars().limit(64).allMatch(c -> Character.digit(c, 16) != -1)
+                ? Optional.of(base)
+                : Optional.empty();
+    }
+
+    /**
+     * File name of the stored original a variant name was derived from, used while the variant
+     * itself has not been generated yet. Queues the variants again, since their job may have been
+     * dropped or lost with a restart.
+     */
+    public Optional<String> resolveVariantOriginal(String productDir, String filename) {
+        if (filename.indexOf('_') != 64 || contentHash(Path.of(filename)).isEmpty()) {
+            return Optional.empty();
+        }
+        String hash = filename.substring(0, 64);
+        Optional<Path> original = EXTENSIONS.values().stream()
+                .map(extension -> resolveProductImage(productDir, hash + extension))
+                .flatMap(Optional::stream)
+                .findFirst();
+        original.ifPresent(imageVariantGenerator::generateAsync);
+        return original.map(path -> path.getFileName().toString());
+    }
+
+    private String uploadSingleImage(Long productId, Path uploadPath, MultipartFile file) {
+        Path tempFile = null;
         try {
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String newFilename = UUID.randomUUID().toString() + fileExtension;
+            tempFile = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+            String hash = writeAndHash(file, tempFile);
 
-            Path uploadPath = Paths.get(fileUploadConfig.getUploadDir(), "product-" + productId);
-            Files.createDirectories(uploadPath);
+            makeWorldReadable(tempFile);
 
+            String newFilename = hash + getFileExtension(file);
             Path filePath = uploadPath.resolve(newFilename);
-            Files.copy(file.getInputStream(), filePath);
+            if (Files.exists(filePath)) {
+                log.info("Image already stored for product {}: {}", productId, newFilename);
+            } else {
+                try {
+                    Files.move(tempFile, filePath, StandardCopyOption.ATOMIC_MOVE);
+                    tempFile = null;
+                } catch (FileAlreadyExistsException e) {
+                    // A concurrent upload of the same bytes won the race
+                }
+            }
 
-            String imageUrl = "/images/products/product-" + productId + "/" + newFilename;
-            log.info("Uploaded image: {}", imageUrl);
+            imageVariantGenerator.generateAsync(filePath);
 
+            String imageUrl = IMAGE_URL_PREFIX + "product-" + productId + "/" + newFilename;
+            log.info("Uploaded image: {}", imageUrl);
             return imageUrl;
         } catch (IOException e) {
             throw new ProductException("Failed to upload image: " + e.getMessage(), e);
+        } finally {
+            deleteQuietly(tempFile);
+        }
+    }
+
+    private static String writeAndHash(MultipartFile file, Path target) throws IOException {
+        MessageDigest digest = sha256();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (InputStream in = file.getInputStream();
+             ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel out = FileChannel.open(target, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) != -1) {
+                buffer.flip();
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+                buffer.clear();
+            }
+            out.force(false);
         }
+        return HexFormat.of().formatHex(digest.digest());
     }
 
     private void validateFile(MultipartFile file) {
@@ -73,10 +217,46 @@ public class FileUtil {
         }
     }
 
-    private String getFileExtension(String filename) {
+    private Path productDirectory(Long productId) {
+        return Paths.get(fileUploadConfig.getUploadDir(), "product-" + productId);
+    }
+
+    private String getFileExtension(MultipartFile file) {
+        String extension = EXTENSIONS.get(file.getContentType());
+        if (extension != null) {
+            return extension;
+        }
+        String filename = file.getOriginalFilename();
         if (filename == null || filename.lastIndexOf('.') == -1) {
             return "";
         }
-        return filename.substring(filename.lastIndexOf('.'));
+        return filename.substring(filename.lastIndexOf('.')).toLowerCase();
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static void makeWorldReadable(Path path) throws IOException {
+        // Temp files are created owner-only; stored images are public content
+        PosixFileAttributeView view = Files.getFileAttributeView(path, PosixFileAttributeView.class);
+        if (view != null) {
+            view.setPermissions(PosixFilePermissions.fromString("rw-r--r--"));
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Failed to delete temporary upload {}", path);
+        }
     }
-}
\ No newline at end of file
+}
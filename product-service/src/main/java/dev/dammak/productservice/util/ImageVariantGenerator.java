@@ -0,0 +1,222 @@
+package dev.dammak.productservice.util;
+
+import dev.dammak.productservice.config.FileUploadConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Generates resized variants of stored product images off the request thread.
+ * <p>
+ * Each variant is written next to its original as {@code <hash>_<variant><ext>}, so its URL is
+ * known as soon as the original is stored and the file can be served as immutable once it
+ * exists. Jobs run on a small bounded executor; when it is saturated the job is dropped and the
+ * variant URLs fall back to the original image until a request for a missing variant queues the
+ * job again. Each original has at most one job queued or running.
+ */
+@Component
+@Slf4j
+public class ImageVariantGenerator {
+
+    private static final float JPEG_QUALITY = 0.85f;
+
+    static {
+        // Decode in memory rather than through temporary cache files
+        ImageIO.setUseCache(false);
+    }
+
+    private final FileUploadConfig fileUploadConfig;
+    private final ThreadPoolTaskExecutor imageVariantExecutor;
+    private final Set<Path> pending = ConcurrentHashMap.newKeySet();
+
+    public ImageVariantGenerator(FileUploadConfig fileUploadConfig,
+                                 @Qualifier("imageVariantExecutor") ThreadPoolTaskExecutor imageVariantExecutor) {
+        this.fileUploadConfig = fileUploadConfig;
+        this.imageVariantExecutor = imageVariantExecutor;
+    }
+
+    /**
+     * Queues variant generation for a stored original image.
+     */
+    public void generateAsync(Path original) {
+        if (fileUploadConfig.getVariants().isEmpty() || variantExtension(original).isEmpty()
+                || !pending.add(original)) {
+            return;
+        }
+        try {
+            imageVariantExecutor.execute(() -> {
+                try {
+                    generate(original);
+                } finally {
+                    pending.remove(original);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            pending.remove(original);
+            log.warn("Image variant queue is full, skipping variants for {}", original.getFileName());
+        }
+    }
+
+    /**
+     * URLs of the configured variants of an image, keyed by variant name. Only content-addressed
+     * images in a format that can be resized have variants.
+     */
+    public Map<String, String> variantUrls(String imageUrl) {
+        if (imageUrl == null || !imageUrl.startsWith(FileUtil.IMAGE_URL_PREFIX)) {
+            return Map.of();
+        }
+        int slash = imageUrl.lastIndexOf('/');
+        String filename = imageUrl.substring(slash + 1);
+        int dot = filename.lastIndexOf('.');
+        if (dot == -1 || FileUtil.contentHash(Path.of(filename)).isEmpty()) {
+            return Map.of();
+        }
+        Optional<String> extension = variantExtension(filename.substring(dot));
+        if (extension.isEmpty()) {
+            return Map.of();
+        }
+
+        String prefix = imageUrl.substring(0, slash + 1) + filename.substring(0, dot) + "_";
+        Map<String, String> urls = new LinkedHashMap<>();
+        for (String variant : fileUploadConfig.getVariants().keySet()) {
+            urls.put(variant, prefix + variant + extension.get());
+        }
+        return urls;
+    }
+
+    // Private helper methods
+    private void generate(Path original) {
+        String filename = original.getFileName().toString();
+        int dot = filename.lastIndexOf('.');
+        String base = filename.substring(0, dot);
+        String extension = variantExtension(original).orElseThrow();
+
+        BufferedImage source = null;
+        for (Map.Entry<String, Integer> variant : fileUploadConfig.getVariants().entrySet()) {
+            Path target = original.resolveSibling(base + "_" + variant.getKey() + extension);
+            if (Files.exists(target)) {
+                continue;
+            }
+            try {
+                if (source == null) {
+                    source = ImageIO.read(original.toFile());
+                    if (source == null) {
+                        log.warn("No image reader for {}, skipping variants", filename);
+                        return;
+                    }
+                }
+                write(resize(source, variant.getValue()), target, extension);
+            } catch (IOException | RuntimeException e) {
+                log.error("Failed to generate {} variant for {}", variant.getKey(), filename, e);
+            }
+        }
+        log.debug("Generated image variants for {}", filename);
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxDimension) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        double scale = Math.min(1.0, (double) maxDimension / Math.max(width, height));
+        int targetWidth = Math.max(1, (int) Math.round(width * scale));
+        int targetHeight = Math.max(1, (int) Math.round(height * scale));
+        int type = source.getColorModel().hasAlpha() ? BufferedImage.TYPE_INT_ARGB : BufferedImage.TYPE_INT_RGB;
+
+        // Halve repeatedly before the final step; a single bilinear pass aliases on large reductions
+        BufferedImage current = source;
+        int currentWidth = width;
+        int currentHeight = height;
+        do {
+            currentWidth = Math.max(targetWidth, currentWidth / 2);
+            currentHeight = Math.max(targetHeight, currentHeight / 2);
+            BufferedImage step = new BufferedImage(currentWidth, currentHeight, type);
+            Graphics2D graphics = step.createGraphics();
+            try {
+                graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                graphics.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                graphics.drawImage(current, 0, 0, currentWidth, currentHeight, null);
+            } finally {
+                graphics.dispose();
+            }
+            current = step;
+        } while (currentWidth != targetWidth || currentHeight != targetHeight);
+        return current;
+    }
+
+    private static void write(BufferedImage image, Path target, String extension) throws IOException {
+        Path tempFile = Files.createTempFile(target.getParent(), ".variant-", ".tmp");
+        try {
+            if (".jpg".equals(extension)) {
+                writeJpeg(image, tempFile);
+            } else if (!ImageIO.write(image, "png", tempFile.toFile())) {
+                throw new IOException("No PNG writer available");
+            }
+
+            PosixFileAttributeView view = Files.getFileAttributeView(tempFile, PosixFileAttributeView.class);
+            if (view != null) {
+                view.setPermissions(PosixFilePermissions.fromString("rw-r--r--"));
+            }
+            try {
+                Files.move(tempFile, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException | AtomicMoveNotSupportedException e) {
+                // Another job produced the same variant
+            }
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private static void writeJpeg(BufferedImage image, Path target) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ImageWriteParam param = writer.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(target.toFile())) {
+            writer.setOutput(out);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    private static Optional<String> variantExtension(Path original) {
+        String filename = original.getFileName().toString();
+        int dot = filename.lastIndexOf('.');
+        return dot == -1 ? Optional.empty() : variantExtension(filename.substring(dot));
+    }
+
+    /**
+     * Output format for a source extension. JPEG stays JPEG; PNG and GIF become PNG so that
+     * transparency survives. WebP has no built-in ImageIO codec and gets no variants.
+     */
+    private static Optional<String> variantExtension(String sourceExtension) {
+        return switch (sourceExtension.toLowerCase()) {
+            case ".jpg", ".jpeg" -> Optional.of(".jpg");
+            case ".png", ".gif" -> Optional.of(".png");
+            default -> Optional.empty();
+        };
+    }
+}
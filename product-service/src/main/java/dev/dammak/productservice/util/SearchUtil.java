@@ -3,8 +3,15 @@ package dev.dammak.productservice.util;
 import org.springframework.data.domain.Sort;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
 public final class SearchUtil {
 
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
     private SearchUtil() {
         // Private constructor to prevent instantiation
     }
@@ -17,6 +24,42 @@ public final class SearchUtil {
         return Sort.by(direction, validatedSortBy);
     }
 
+    public static List<String> tokenize(String text) {
+        if (!StringUtils.hasText(text)) {
+            return List.of();
+        }
+        List<String> tokens = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Builds a PostgreSQL tsquery that requires every keyword token as a prefix, e.g. "iph pro" -> "iph:* & pro:*".
+     * Tokens only contain letters and digits, so the result is safe to pass to to_tsquery.
+     */
+    public static String toPrefixTsQuery(String keyword) {
+        return String.join(" & ", tokenize(keyword).stream()
+                .map(token -> token + ":*")
+                .toList());
+    }
+
+    /**
+     * Validates each sort property and maps it onto its column name for native queries.
+     */
+    public static Sort toColumnSort(Sort sort) {
+        return Sort.by(sort.stream()
+                .map(order -> order.withProperty(toColumnName(validateAndGetSortField(order.getProperty()))))
+                .toList());
+    }
+
+    public static boolean isRelevanceSort(String sortBy) {
+        return "relevance".equalsIgnoreCase(sortBy);
+    }
+
     public static String validateAndGetSortField(String sortBy) {
         if (!StringUtils.hasText(sortBy)) {
             return "createdAt"; // Default sort field
@@ -34,6 +77,15 @@ public final class SearchUtil {
         };
     }
 
+    private static String toColumnName(String property) {
+        return switch (property) {
+            case "createdAt" -> "created_at";
+            case "updatedAt" -> "updated_at";
+            case "stockQuantity" -> "stock_quantity";
+            default -> property;
+        };
+    }
+
     public static void validatePriceRange(Double minPrice, Double maxPrice) {
         if (minPrice != null && minPrice < 0) {
             throw new IllegalArgumentException("Minimum price cannot be negative");
@@ -0,0 +1,30 @@
+CREATE TABLE product_import_jobs (
+    id VARCHAR(36) PRIMARY KEY,
+    format VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    total_bytes BIGINT NOT NULL,
+    processed_bytes BIGINT NOT NULL DEFAULT 0,
+    rows_read BIGINT NOT NULL DEFAULT 0,
+    imported BIGINT NOT NULL DEFAULT 0,
+    failed BIGINT NOT NULL DEFAULT 0,
+    message TEXT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    heartbeat_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_product_import_jobs_heartbeat ON product_import_jobs(heartbeat_at) WHERE finished_at IS NULL;
+CREATE INDEX idx_product_import_jobs_finished ON product_import_jobs(finished_at);
+
+CREATE TABLE product_import_errors (
+    id BIGSERIAL PRIMARY KEY,
+    job_id VARCHAR(36) NOT NULL,
+    row_number BIGINT NOT NULL,
+    sku TEXT,
+    message TEXT NOT NULL,
+
+    CONSTRAINT fk_product_import_errors_job FOREIGN KEY (job_id) REFERENCES product_import_jobs(id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_product_import_errors_job ON product_import_errors(job_id, id);
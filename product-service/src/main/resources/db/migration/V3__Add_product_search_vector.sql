@@ -0,0 +1,12 @@
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE products ADD COLUMN search_vector TSVECTOR
+    GENERATED ALWAYS AS (
+        setweight(to_tsvector('english', coalesce(name, '')), 'A') ||
+        setweight(to_tsvector('english', coalesce(brand, '')), 'B') ||
+        setweight(to_tsvector('english', coalesce(description, '')), 'C')
+    ) STORED;
+
+CREATE INDEX idx_product_search_vector ON products USING GIN (search_vector);
+CREATE INDEX idx_product_name_trgm ON products USING GIN (lower(name) gin_trgm_ops);
+CREATE INDEX idx_product_brand_trgm ON products USING GIN (lower(brand) gin_trgm_ops);
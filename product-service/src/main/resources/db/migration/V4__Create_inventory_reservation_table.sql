@@ -0,0 +1,17 @@
+CREATE TABLE inventory_reservations (
+    id BIGSERIAL PRIMARY KEY,
+    reservation_id VARCHAR(36) NOT NULL UNIQUE,
+    product_id BIGINT NOT NULL,
+    quantity INTEGER NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    reference VARCHAR(255),
+    expires_at TIMESTAMP NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_inventory_reservations_product FOREIGN KEY (product_id) REFERENCES products(id),
+    CONSTRAINT chk_inventory_reservations_quantity CHECK (quantity > 0)
+);
+
+CREATE INDEX idx_inventory_reservations_product ON inventory_reservations(product_id);
+CREATE INDEX idx_inventory_reservations_expiry ON inventory_reservations(status, expires_at);
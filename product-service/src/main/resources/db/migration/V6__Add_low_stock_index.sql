@@ -0,0 +1 @@
+CREATE INDEX idx_product_low_stock ON products(id) WHERE stock_quantity < min_stock_level;
@@ -0,0 +1,12 @@
+CREATE TABLE hot_stock_quotas (
+    product_id BIGINT NOT NULL,
+    instance_id VARCHAR(36) NOT NULL,
+    quantity INTEGER NOT NULL,
+    renewed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT pk_hot_stock_quotas PRIMARY KEY (product_id, instance_id),
+    CONSTRAINT fk_hot_stock_quotas_product FOREIGN KEY (product_id) REFERENCES products(id) ON DELETE CASCADE,
+    CONSTRAINT chk_hot_stock_quotas_quantity CHECK (quantity >= 0)
+);
+
+CREATE INDEX idx_hot_stock_quotas_renewed ON hot_stock_quotas(renewed_at);
@@ -0,0 +1,12 @@
+CREATE TABLE hot_stock_quota_usage (
+    id BIGSERIAL PRIMARY KEY,
+    product_id BIGINT NOT NULL,
+    instance_id VARCHAR(36) NOT NULL,
+    quantity INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+
+    CONSTRAINT fk_hot_stock_quota_usage_quota FOREIGN KEY (product_id, instance_id)
+        REFERENCES hot_stock_quotas(product_id, instance_id) ON DELETE CASCADE
+);
+
+CREATE INDEX idx_hot_stock_quota_usage_quota ON hot_stock_quota_usage(product_id, instance_id);
@@ -0,0 +1,6 @@
+ALTER TABLE outbox_events ADD COLUMN attempts INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE outbox_events ADD COLUMN next_attempt_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN parked_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN last_error TEXT;
+
+CREATE INDEX idx_outbox_events_retry ON outbox_events(event_key, id) WHERE next_attempt_at IS NOT NULL;
@@ -0,0 +1,109 @@
+package dev.dammak.productservice.cache;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogVersionsTest {
+
+    private final StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+    private final List<List<String>> pipelines = new ArrayList<>();
+    private boolean redisDown;
+    private CatalogVersions catalogVersions;
+
+    @BeforeEach
+    void setUp() {
+        RedisConnection connection = mock(RedisConnection.class);
+        RedisStringCommands stringCommands = mock(RedisStringCommands.class);
+        when(connection.stringCommands()).thenReturn(stringCommands);
+        when(stringCommands.set(any(), any(), any(), any())).thenAnswer(invocation -> {
+            pipelines.get(pipelines.size() - 1).add(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8));
+            return true;
+        });
+        when(stringRedisTemplate.executePipelined(any(RedisCallback.class))).thenAnswer(invocation -> {
+            if (redisDown) {
+                throw new RedisConnectionFailureException("connection refused");
+            }
+            pipelines.add(new ArrayList<>());
+            invocation.<RedisCallback<?>>getArgument(0).doInRedis(connection);
+            return List.of();
+        });
+
+        catalogVersions = new CatalogVersions(stringRedisTemplate);
+    }
+
+    @Test
+    void bumpsEveryNameOfATransactionOnceAfterCommit() {
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            catalogVersions.bumpAfterCommit(List.of(CatalogVersions.product(1L), CatalogVersions.PRODUCTS));
+            catalogVersions.bumpAfterCommit(List.of(CatalogVersions.product(2L), CatalogVersions.PRODUCTS));
+            assertTrue(pipelines.isEmpty());
+        });
+
+        assertEquals(List.of(List.of("catalog-version:product:1", "catalog-version:products",
+                "catalog-version:product:2")), pipelines);
+    }
+
+    @Test
+    void rolledBackTransactionBumpsNothing() {
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> catalogVersions.bumpAfterCommit(List.of(CatalogVersions.PRODUCTS)));
+        assertTrue(pipelines.isEmpty());
+
+        // The next transaction collects its own names
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED,
+                () -> catalogVersions.bumpAfterCommit(List.of(CatalogVersions.FEATURED)));
+        assertEquals(List.of(List.of("catalog-version:featured")), pipelines);
+    }
+
+    @Test
+    void bumpsRightAwayOutsideOfATransaction() {
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.CATEGORIES));
+
+        assertEquals(List.of(List.of("catalog-version:categories")), pipelines);
+    }
+
+    @Test
+    void failedBumpIsRetriedUntilRedisTakesIt() {
+        redisDown = true;
+        catalogVersions.bumpAfterCommit(List.of(CatalogVersions.product(1L), CatalogVersions.PRODUCTS));
+        catalogVersions.retryFailedBumps();
+        assertTrue(pipelines.isEmpty());
+
+        redisDown = false;
+        catalogVersions.retryFailedBumps();
+        catalogVersions.retryFailedBumps();
+
+        assertEquals(List.of(List.of("catalog-version:product:1", "catalog-version:products")), pipelines);
+    }
+
+    // Private helper methods
+    private static void inTransaction(int completionStatus, Runnable work) {
+        TransactionSynchronizationManager.initSynchronization();
+        List<TransactionSynchronization> synchronizations;
+        try {
+            work.run();
+        } finally {
+            // Completes the way AbstractPlatformTransactionManager does
+            synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        synchronizations.forEach(synchronization -> synchronization.afterCompletion(completionStatus));
+    }
+}
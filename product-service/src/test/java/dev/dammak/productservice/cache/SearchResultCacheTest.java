@@ -0,0 +1,134 @@
+package dev.dammak.productservice.cache;
+
+import dev.dammak.productservice.config.SearchConfig;
+import dev.dammak.productservice.dto.ProductSearchDto;
+import dev.dammak.productservice.enums.SearchBackend;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.CacheManager;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class SearchResultCacheTest {
+
+    private final Map<String, Integer> versions = new HashMap<>();
+    private final SearchConfig searchConfig = new SearchConfig();
+    private SearchResultCache searchResultCache;
+
+    @BeforeEach
+    void setUp() {
+        CatalogVersions catalogVersions = mock(CatalogVersions.class);
+        when(catalogVersions.current(anyList())).thenAnswer(invocation -> invocation.<List<String>>getArgument(0).stream()
+                .map(name -> String.valueOf(versions.getOrDefault(name, 0)))
+                .toList());
+        doAnswer(invocation -> {
+            invocation.<Collection<String>>getArgument(0).forEach(name -> versions.merge(name, 1, Integer::sum));
+            return null;
+        }).when(catalogVersions).bumpAfterCommit(any());
+
+        searchResultCache = new SearchResultCache(mock(CacheManager.class), catalogVersions, searchConfig);
+    }
+
+    @Test
+    void equivalentRequestsShareOneKey() {
+        ProductSearchDto first = search(" iPhone  Case", null, "APPLE ");
+        first.setMinPrice(new BigDecimal("10.00"));
+        first.setSortDirection("DESC");
+        first.setSize(500);
+        ProductSearchDto second = search("iphone case", null, "apple");
+        second.setMinPrice(BigDecimal.TEN);
+        second.setSortDirection("desc");
+        second.setSize(100);
+
+        assertEquals(key(first), key(second));
+    }
+
+    @Test
+    void filtersThatChangeTheResultChangeTheKey() {
+        ProductSearchDto featured = search("kettle", null, null);
+        featured.setFeatured(true);
+        ProductSearchDto secondPage = search("kettle", null, null);
+        secondPage.setPage(1);
+
+        String key = key(search("kettle", null, null));
+        assertNotEquals(key, key(featured));
+        assertNotEquals(key, key(secondPage));
+        assertNotEquals(key, searchResultCache.keyFor(search("kettle", null, null), SearchBackend.FULLTEXT));
+    }
+
+    @Test
+    void productChangeInvalidatesOnlySearchesItCanAppearIn() {
+        ProductSearchDto unfiltered = search("phone", null, null);
+        ProductSearchDto inCategory = search("phone", 5L, null);
+        ProductSearchDto ofBrand = search("phone", null, "Apple");
+        ProductSearchDto otherCategory = search("phone", 6L, null);
+        ProductSearchDto otherBrand = search("phone", null, "Samsung");
+        List<String> before = keys(unfiltered, inCategory, ofBrand, otherCategory, otherBrand);
+
+        searchResultCache.productChanged(5L, " APPLE");
+
+        List<String> after = keys(unfiltered, inCategory, ofBrand, otherCategory, otherBrand);
+        assertNotEquals(before.get(0), after.get(0));
+        assertNotEquals(before.get(1), after.get(1));
+        assertNotEquals(before.get(2), after.get(2));
+        assertEquals(before.get(3), after.get(3));
+        assertEquals(before.get(4), after.get(4));
+    }
+
+    @Test
+    void stockChangeInvalidatesOnlyStockDependentSearches() {
+        ProductSearchDto inStock = search("phone", null, null);
+        inStock.setInStock(true);
+        ProductSearchDto byStock = search("phone", null, null);
+        byStock.setSortBy("stockQuantity");
+        ProductSearchDto plain = search("phone", null, null);
+        List<String> before = keys(inStock, byStock, plain);
+
+        searchResultCache.stockChanged();
+
+        List<String> after = keys(inStock, byStock, plain);
+        assertNotEquals(before.get(0), after.get(0));
+        assertNotEquals(before.get(1), after.get(1));
+        assertEquals(before.get(2), after.get(2));
+    }
+
+    @Test
+    void disabledCacheNeitherKeysNorBumps() {
+        searchConfig.setResultCacheEnabled(false);
+
+        assertNull(key(search("phone", null, null)));
+        searchResultCache.productChanged(5L, "Apple");
+        assertTrue(versions.isEmpty());
+    }
+
+    // Private helper methods
+    private static ProductSearchDto search(String keyword, Long categoryId, String brand) {
+        ProductSearchDto searchDto = new ProductSearchDto();
+        searchDto.setKeyword(keyword);
+        searchDto.setCategoryId(categoryId);
+        searchDto.setBrand(brand);
+        return searchDto;
+    }
+
+    private String key(ProductSearchDto searchDto) {
+        return searchResultCache.keyFor(searchDto, SearchBackend.INDEX);
+    }
+
+    private List<String> keys(ProductSearchDto... searches) {
+        return List.of(searches).stream().map(this::key).toList();
+    }
+}
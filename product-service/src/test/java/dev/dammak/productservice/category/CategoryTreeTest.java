@@ -0,0 +1,117 @@
+package dev.dammak.productservice.category;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryTreeTest {
+
+    // 1 > [2 > [4], 3 (inactive) > [5]], 6 -- listed out of order on purpose
+    private static final List<CategoryNode> CATALOG = List.of(
+            node(5L, 3L, 0, true),
+            node(3L, 1L, 2, false),
+            node(6L, null, 2, true),
+            node(4L, 2L, 0, true),
+            node(2L, 1L, 1, true),
+            node(1L, null, 1, true));
+
+    @Test
+    void laysSubtreesOutAsPreOrderSlices() {
+        CategoryTree tree = CategoryTree.build(1, CATALOG);
+
+        assertEquals(List.of(2L, 4L, 3L, 5L), ids(tree.descendants(1L, false)));
+        assertEquals(List.of(4L), ids(tree.descendants(2L, false)));
+        assertEquals(List.of(), ids(tree.descendants(6L, false)));
+        assertEquals(List.of(1L, 2L, 4L, 3L, 5L), tree.subtreeIds(1L, false));
+        assertEquals(List.of(), tree.subtreeIds(99L, false));
+    }
+
+    @Test
+    void ordersSiblingsByDisplayOrderThenId() {
+        CategoryTree tree = CategoryTree.build(1, CATALOG);
+
+        assertEquals(List.of(1L, 6L), ids(tree.children(null)));
+        assertEquals(List.of(2L, 3L), ids(tree.children(1L)));
+    }
+
+    @Test
+    void skipsInactiveCategoriesWithTheirWholeSubtree() {
+        CategoryTree tree = CategoryTree.build(1, CATALOG);
+
+        assertEquals(List.of(2L, 4L), ids(tree.descendants(1L, true)));
+        assertEquals(List.of(1L, 2L, 4L), tree.subtreeIds(1L, true));
+    }
+
+    @Test
+    void answersAncestryFromSlices() {
+        CategoryTree tree = CategoryTree.build(1, CATALOG);
+
+        assertTrue(tree.isAncestor(1L, 5L));
+        assertTrue(tree.isAncestor(3L, 5L));
+        assertFalse(tree.isAncestor(2L, 5L));
+        assertFalse(tree.isAncestor(5L, 5L));
+        assertFalse(tree.isAncestor(6L, 4L));
+        assertEquals(List.of(1L, 3L, 5L), ids(tree.breadcrumb(5L)));
+        assertEquals(3L, tree.parent(5L).orElseThrow().getId());
+        assertTrue(tree.parent(1L).isEmpty());
+    }
+
+    @Test
+    void treatsCategoriesWithUnknownParentsAsRoots() {
+        CategoryTree tree = CategoryTree.build(1, List.of(node(1L, null, 0, true), node(2L, 42L, 0, true)));
+
+        assertEquals(List.of(1L, 2L), ids(tree.children(null)));
+        assertEquals(List.of(2L), ids(tree.breadcrumb(2L)));
+    }
+
+    @Test
+    void breaksParentCyclesAtTheLowestId() {
+        // 7 -> 8 -> 7 is a cycle with 9 hanging off it; 1 is a normal root
+        CategoryTree tree = CategoryTree.build(1, List.of(
+                node(8L, 7L, 0, true),
+                node(9L, 8L, 0, true),
+                node(7L, 8L, 0, true),
+                node(1L, null, 0, true)));
+
+        assertEquals(4, tree.size());
+        assertEquals(List.of(1L, 7L), ids(tree.children(null)));
+        assertEquals(List.of(7L, 8L, 9L), ids(tree.breadcrumb(9L)));
+        assertEquals(List.of(8L, 9L), ids(tree.descendants(7L, false)));
+        assertTrue(tree.isAncestor(7L, 9L));
+        assertFalse(tree.isAncestor(8L, 7L));
+    }
+
+    @Test
+    void fingerprintDependsOnContentNotVersion() {
+        CategoryTree first = CategoryTree.build(1, CATALOG);
+        List<CategoryNode> reordered = new ArrayList<>(CATALOG);
+        Collections.reverse(reordered);
+        CategoryTree second = CategoryTree.build(2, reordered);
+        CategoryTree changed = CategoryTree.build(3, List.of(node(1L, null, 1, true)));
+
+        assertEquals(first.getFingerprint(), second.getFingerprint());
+        assertNotEquals(first.getFingerprint(), changed.getFingerprint());
+    }
+
+    // Private helper methods
+    private static CategoryNode node(Long id, Long parentId, int displayOrder, boolean active) {
+        return CategoryNode.builder()
+                .id(id)
+                .name("Category " + id)
+                .parentId(parentId)
+                .displayOrder(displayOrder)
+                .active(active)
+                .build();
+    }
+
+    private static List<Long> ids(List<CategoryNode> nodes) {
+        return nodes.stream().map(CategoryNode::getId).toList();
+    }
+}
@@ -0,0 +1,47 @@
+package dev.dammak.productservice.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ImageControllerTest {
+
+    private static final long LENGTH = 1000;
+
+    @ParameterizedTest
+    @CsvSource({
+            "bytes=0-99, 0, 99",
+            "bytes=500-, 500, 999",
+            "bytes=999-999, 999, 999",
+            "bytes=900-5000, 900, 999",
+            "bytes=-200, 800, 999",
+            "bytes=-2000, 0, 999",
+            "'bytes= 10 - 20 ', 10, 20"
+    })
+    void parsesSatisfiableRanges(String header, long start, long end) {
+        assertArrayEquals(new long[]{start, end}, ImageController.parseRange(header, LENGTH));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=1000-", "bytes=1000-2000", "bytes=-0"})
+    void rejectsUnsatisfiableRanges(String header) {
+        assertNull(ImageController.parseRange(header, LENGTH));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"bytes=0-1,5-6", "items=0-1", "bytes=abc", "bytes=a-b", "bytes=-", "bytes=5-3",
+            "bytes=99999999999999999999-"})
+    void ignoresRangesItCannotServe(String header) {
+        assertArrayEquals(new long[0], ImageController.parseRange(header, LENGTH));
+    }
+
+    @Test
+    void rejectsEveryRangeOfAnEmptyFile() {
+        assertNull(ImageController.parseRange("bytes=0-", 0));
+        assertNull(ImageController.parseRange("bytes=-5", 0));
+    }
+}
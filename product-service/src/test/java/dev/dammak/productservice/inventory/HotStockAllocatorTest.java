@@ -0,0 +1,308 @@
+package dev.dammak.productservice.inventory;
+
+import dev.dammak.productservice.config.InventoryConfig;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.repository.ProductRepository;
+import dev.dammak.productservice.repository.projection.ProductStockView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.AbstractPlatformTransactionManager;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class HotStockAllocatorTest {
+
+    private static final Long PRODUCT_ID = 7L;
+
+    private Database database;
+    private StockChangePublisher stockChangePublisher;
+    private TransactionTemplate transactionTemplate;
+    private HotStockAllocator first;
+    private HotStockAllocator second;
+
+    @BeforeEach
+    void setUp() {
+        database = new Database();
+        stockChangePublisher = mock(StockChangePublisher.class);
+        NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        first = allocator(transactionManager);
+        second = allocator(transactionManager);
+    }
+
+    @Test
+    void reclaimReturnsOnlyTheUnsoldQuotaOfACrashedInstance() {
+        database.stock = 100;
+        for (int i = 0; i < 6; i++) {
+            assertTrue(sell(first, 10));
+        }
+        assertEquals(0, database.stock);
+
+        // The instance dies before its next renewal folds the sales into its quota row
+        database.markAllStale();
+        second.reclaimStrandedQuota();
+
+        assertEquals(40, database.stock);
+        assertTrue(database.quotas.isEmpty());
+        // The dead instance's counter still holds 40 units, but they can no longer be sold
+        assertThrows(ProductException.class, () -> sell(first, 10));
+    }
+
+    @Test
+    void renewalFoldsSalesIntoTheQuotaRow() {
+        database.stock = 100;
+        sell(first, 30);
+
+        first.renewQuota();
+        assertEquals(List.of(70), List.copyOf(database.quotas.values()));
+        assertTrue(database.usage.isEmpty());
+
+        sell(first, 20);
+        database.markAllStale();
+        second.reclaimStrandedQuota();
+
+        assertEquals(50, database.stock);
+    }
+
+    @Test
+    void rolledBackSaleGoesBackToTheQuotaWithoutUsage() {
+        database.stock = 100;
+        transactionTemplate.executeWithoutResult(status -> {
+            first.tryAcquire(PRODUCT_ID, 25);
+            status.setRollbackOnly();
+        });
+
+        assertEquals(100, first.available(PRODUCT_ID));
+        assertTrue(database.usage.isEmpty());
+    }
+
+    @Test
+    void returnedStockIsRecordedAgainstTheQuota() {
+        database.stock = 100;
+        sell(first, 10);
+        transactionTemplate.executeWithoutResult(status -> assertTrue(first.returnStock(PRODUCT_ID, 10)));
+
+        assertEquals(100, first.available(PRODUCT_ID));
+        database.markAllStale();
+        second.reclaimStrandedQuota();
+        assertEquals(100, database.stock);
+    }
+
+    @Test
+    void setCountsOnlyTheUnsoldQuotaOfOtherInstances() {
+        database.stock = 150;
+        sell(first, 40);
+        assertEquals(50, database.stock);
+
+        // 60 units are still unsold on the first instance, 30 of them survive the new total
+        int rowQuantity = transactionTemplate.execute(status -> second.settleSet(PRODUCT_ID, 30));
+        assertEquals(0, rowQuantity);
+
+        first.renewQuota();
+        assertEquals(30, first.available(PRODUCT_ID));
+    }
+
+    @Test
+    void claimedQuotaStillCountsAsStockAndOnlySalesAreAnnounced() {
+        database.stock = 150;
+        sell(first, 30);
+
+        assertEquals(50, database.stock);
+        assertEquals(70, first.heldQuota(PRODUCT_ID));
+        verify(stockChangePublisher, never()).publish(any(), anyInt(), anyInt(), anyString(), anyString());
+
+        first.renewQuota();
+        verify(stockChangePublisher).publish(any(), eq(150), eq(120), eq("SUBTRACT"), anyString());
+    }
+
+    // Private helper methods
+    private HotStockAllocator allocator(NoOpTransactionManager transactionManager) {
+        InventoryConfig config = new InventoryConfig();
+        config.setHotProductIds(Set.of(PRODUCT_ID));
+        config.setHotStockChunkSize(100);
+        config.setHotStockStripes(2);
+        config.setHotStockQuotaStaleAfter(Duration.ofMinutes(1));
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class, database);
+        ProductRepository productRepository = mock(ProductRepository.class);
+        when(productRepository.decrementStock(eq(PRODUCT_ID), anyInt())).thenAnswer(invocation -> {
+            int quantity = invocation.getArgument(1);
+            if (database.stock < quantity) {
+                return 0;
+            }
+            database.stock -= quantity;
+            return 1;
+        });
+        when(productRepository.incrementStock(eq(PRODUCT_ID), anyInt())).thenAnswer(invocation -> {
+            database.stock += (int) invocation.getArgument(1);
+            return 1;
+        });
+        when(productRepository.findStockViewById(PRODUCT_ID)).thenAnswer(invocation -> Optional.of(stockView()));
+
+        return new HotStockAllocator(jdbcTemplate, productRepository, stockChangePublisher, config,
+                transactionManager);
+    }
+
+    private boolean sell(HotStockAllocator allocator, int quantity) {
+        return transactionTemplate.execute(status -> allocator.tryAcquire(PRODUCT_ID, quantity));
+    }
+
+    private ProductStockView stockView() {
+        int quantity = database.stock;
+        return new ProductStockView() {
+            @Override
+            public Long getId() {
+                return PRODUCT_ID;
+            }
+
+            @Override
+            public String getSku() {
+                return "SKU-7";
+            }
+
+            @Override
+            public Integer getStockQuantity() {
+                return quantity;
+            }
+
+            @Override
+            public Integer getMinStockLevel() {
+                return 0;
+            }
+        };
+    }
+
+    /**
+     * The product stock and the quota tables of a single hot product, answering the statements
+     * {@link HotStockAllocator} sends through {@link JdbcTemplate}.
+     */
+    private static final class Database implements Answer<Object> {
+        private int stock;
+        private final Map<String, Integer> quotas = new TreeMap<>();
+        private final Map<String, Integer> usage = new HashMap<>();
+        private final Set<String> stale = new HashSet<>();
+
+        private void markAllStale() {
+            stale.addAll(quotas.keySet());
+        }
+
+        @Override
+        public Object answer(InvocationOnMock invocation) {
+            String sql = invocation.getArgument(0);
+            Object[] args = invocation.getArguments();
+            if (sql.startsWith("SELECT id FROM products")) {
+                return List.of(PRODUCT_ID);
+            }
+            if (sql.startsWith("SELECT COALESCE(SUM(quantity), 0)")) {
+                return quotas.values().stream().mapToInt(Integer::intValue).sum()
+                        - usage.values().stream().mapToInt(Integer::intValue).sum();
+            }
+            if (sql.startsWith("INSERT INTO hot_stock_quotas")) {
+                quotas.put((String) args[2], (Integer) args[3]);
+                stale.remove((String) args[2]);
+                return 1;
+            }
+            if (sql.startsWith("INSERT INTO hot_stock_quota_usage")) {
+                if (!quotas.containsKey((String) args[3])) {
+                    return 0;
+                }
+                usage.merge((String) args[3], (Integer) args[1], Integer::sum);
+                return 1;
+            }
+            if (sql.startsWith("WITH settled")) {
+                Integer used = usage.remove((String) args[3]);
+                return used != null ? used : 0;
+            }
+            if (sql.startsWith("DELETE FROM hot_stock_quotas")) {
+                usage.remove((String) args[2]);
+                stale.remove((String) args[2]);
+                return quotas.remove((String) args[2]) != null ? 1 : 0;
+            }
+            if (sql.startsWith("UPDATE hot_stock_quotas SET quantity")) {
+                quotas.put((String) args[3], (Integer) args[1]);
+                return 1;
+            }
+            if (sql.startsWith("SELECT product_id, instance_id FROM hot_stock_quotas")) {
+                return stale.stream()
+                        .map(owner -> Map.<String, Object>of("product_id", PRODUCT_ID, "instance_id", owner))
+                        .toList();
+            }
+            if (sql.contains("instance_id <> ?")) {
+                return quotas.entrySet().stream()
+                        .filter(quota -> !quota.getKey().equals(args[2]))
+                        .map(quota -> Map.<String, Object>of("instance_id", quota.getKey(), "quantity", quota.getValue()))
+                        .toList();
+            }
+            if (sql.contains("renewed_at <")) {
+                return stale.contains((String) args[3]) ? quotas.get((String) args[3]) : null;
+            }
+            if (sql.startsWith("SELECT quantity FROM hot_stock_quotas")) {
+                return quotas.get((String) args[3]);
+            }
+            throw new AssertionError("Unexpected statement: " + sql);
+        }
+    }
+
+    /**
+     * Runs transaction callbacks and synchronizations without a resource behind them.
+     */
+    private static final class NoOpTransactionManager extends AbstractPlatformTransactionManager {
+
+        @Override
+        protected Object doGetTransaction() {
+            return new Object();
+        }
+
+        @Override
+        protected boolean isExistingTransaction(Object transaction) {
+            return TransactionSynchronizationManager.isActualTransactionActive();
+        }
+
+        @Override
+        protected void doBegin(Object transaction, TransactionDefinition definition) {
+        }
+
+        @Override
+        protected Object doSuspend(Object transaction) {
+            return transaction;
+        }
+
+        @Override
+        protected void doResume(Object transaction, Object suspendedResources) {
+        }
+
+        @Override
+        protected void doCommit(DefaultTransactionStatus status) {
+        }
+
+        @Override
+        protected void doRollback(DefaultTransactionStatus status) {
+        }
+    }
+}
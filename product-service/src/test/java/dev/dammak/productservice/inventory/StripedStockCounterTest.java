@@ -0,0 +1,150 @@
+package dev.dammak.productservice.inventory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedStockCounterTest {
+
+    private static final int THREADS = 8;
+
+    @Test
+    void concurrentBuyersSellExactlyTheStock() throws Exception {
+        int stock = 200_000;
+        StripedStockCounter counter = new StripedStockCounter(4);
+        counter.add(stock);
+        LongAdder sold = new LongAdder();
+
+        runConcurrently(THREADS, () -> {
+            while (true) {
+                if (counter.tryAcquire(1)) {
+                    sold.increment();
+                } else if (counter.available() == 0) {
+                    // A failed acquire can race with the slow path holding units, so only stop once empty
+                    return;
+                }
+            }
+        });
+
+        assertEquals(stock, sold.sum());
+        assertEquals(0, counter.available());
+    }
+
+    @Test
+    void acquireAddAndDrainConserveUnits() throws Exception {
+        int initial = 10_000;
+        StripedStockCounter counter = new StripedStockCounter(4);
+        counter.add(initial);
+        LongAdder added = new LongAdder();
+        LongAdder sold = new LongAdder();
+        LongAdder drained = new LongAdder();
+        AtomicBoolean running = new AtomicBoolean(true);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS + 2);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> buyers = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                buyers.add(executor.submit(() -> {
+                    await(start);
+                    for (int i = 0; i < 50_000; i++) {
+                        int quantity = ThreadLocalRandom.current().nextInt(1, 4);
+                        if (counter.tryAcquire(quantity)) {
+                            sold.add(quantity);
+                        }
+                    }
+                }));
+            }
+            Future<?> refiller = executor.submit(() -> {
+                await(start);
+                while (running.get()) {
+                    int quantity = ThreadLocalRandom.current().nextInt(1, 100);
+                    counter.add(quantity);
+                    added.add(quantity);
+                }
+            });
+            Future<?> drainer = executor.submit(() -> {
+                await(start);
+                while (running.get()) {
+                    drained.add(counter.drain());
+                    Thread.onSpinWait();
+                }
+            });
+
+            start.countDown();
+            for (Future<?> buyer : buyers) {
+                buyer.get(30, TimeUnit.SECONDS);
+            }
+            running.set(false);
+            refiller.get(30, TimeUnit.SECONDS);
+            drainer.get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(initial + added.sum(), sold.sum() + drained.sum() + counter.available());
+    }
+
+    @Test
+    void acquireGathersUnitsAcrossStripes() {
+        StripedStockCounter counter = new StripedStockCounter(4);
+        counter.add(8);
+
+        assertTrue(counter.tryAcquire(7));
+        assertEquals(1, counter.available());
+        assertFalse(counter.tryAcquire(2));
+        assertEquals(1, counter.available());
+    }
+
+    @Test
+    void drainEmptiesEveryStripe() {
+        StripedStockCounter counter = new StripedStockCounter(3);
+        counter.add(11);
+
+        assertEquals(11, counter.drain());
+        assertEquals(0, counter.available());
+        assertFalse(counter.tryAcquire(1));
+    }
+
+    // Private helper methods
+    private static void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    await(start);
+                    task.run();
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
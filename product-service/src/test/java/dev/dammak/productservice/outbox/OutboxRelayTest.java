@@ -0,0 +1,157 @@
+package dev.dammak.productservice.outbox;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.config.OutboxConfig;
+import dev.dammak.productservice.entity.OutboxEvent;
+import dev.dammak.productservice.repository.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboxRelayTest {
+
+    private final OutboxEventRepository outboxEventRepository = mock(OutboxEventRepository.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    private final OutboxConfig outboxConfig = new OutboxConfig();
+    private final Map<Long, CompletableFuture<?>> results = new HashMap<>();
+    private final List<String> sends = new ArrayList<>();
+    private OutboxRelay relay;
+
+    @BeforeEach
+    void setUp() {
+        outboxConfig.setBatchSize(10);
+        outboxConfig.setRetryBackoff(Duration.ofSeconds(1));
+        outboxConfig.setMaxRetryBackoff(Duration.ofSeconds(10));
+        outboxConfig.setMaxAttempts(3);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Boolean.class), any(Object[].class))).thenReturn(true);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        when(kafkaTemplate.send(anyString(), any(), any())).thenAnswer(invocation -> {
+            long id = ((JsonNode) invocation.getArgument(2)).get("id").asLong();
+            sends.add(String.valueOf(id));
+            return results.getOrDefault(id, CompletableFuture.completedFuture(null));
+        });
+        doAnswer(invocation -> sends.add("flush")).when(kafkaTemplate).flush();
+
+        relay = new OutboxRelay(outboxEventRepository, kafkaTemplate, jdbcTemplate, new ObjectMapper(), outboxConfig,
+                transactionManager);
+    }
+
+    @Test
+    void sendsTheNextEventOfAKeyOnlyAfterThePreviousIsAcknowledged() {
+        givenBatch(event(1L, "A"), event(2L, "B"), event(3L, "A"), event(4L, null), event(5L, "A"));
+
+        relay.relay();
+
+        assertEquals(List.of("1", "2", "4", "flush", "3", "flush", "5", "flush"), sends);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 4L, 3L, 5L));
+    }
+
+    @Test
+    void failureHoldsBackLaterEventsOfItsKeyOnly() {
+        OutboxEvent failing = event(1L, "A");
+        givenBatch(failing, event(2L, "B"), event(3L, "A"), event(4L, "B"));
+        results.put(1L, CompletableFuture.failedFuture(new IllegalStateException("broken")));
+
+        relay.relay();
+
+        assertEquals(List.of("1", "2", "flush", "4", "flush"), sends);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(2L, 4L));
+        assertEquals(1, failing.getAttempts());
+        assertTrue(failing.getLastError().contains("broken"));
+        assertNull(failing.getParkedAt());
+        // A failed batch waits for the next poll instead of reading the next one straight away
+        verify(outboxEventRepository, times(1)).findDue(any(), anyInt());
+    }
+
+    @Test
+    void retryBackoffDoublesUpToTheMaximum() {
+        OutboxEvent second = event(1L, "A");
+        second.setAttempts(1);
+        OutboxEvent fifth = event(2L, "B");
+        fifth.setAttempts(4);
+        givenBatch(second, fifth);
+        results.put(1L, CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("slow")));
+        results.put(2L, CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("slow")));
+
+        LocalDateTime before = LocalDateTime.now();
+        relay.relay();
+        LocalDateTime after = LocalDateTime.now();
+
+        assertDelay(second, before, after, Duration.ofSeconds(2));
+        assertDelay(fifth, before, after, Duration.ofSeconds(10));
+    }
+
+    @Test
+    void parksEventsThatKeepFailingForGood() {
+        OutboxEvent poisoned = event(1L, "A");
+        poisoned.setAttempts(2);
+        OutboxEvent unreachable = event(2L, "B");
+        unreachable.setAttempts(2);
+        OutboxEvent unreadable = OutboxEvent.builder().id(3L).topic("stock.changed").eventKey("C").payload("{").build();
+        givenBatch(poisoned, unreachable, unreadable);
+        results.put(1L, CompletableFuture.failedFuture(new IllegalArgumentException("record too large")));
+        results.put(2L, CompletableFuture.failedFuture(new org.apache.kafka.common.errors.TimeoutException("no broker")));
+
+        relay.relay();
+
+        assertNotNull(poisoned.getParkedAt());
+        assertNull(poisoned.getNextAttemptAt());
+        assertEquals(3, poisoned.getAttempts());
+        // Broker outages only delay events, however often they fail
+        assertNull(unreachable.getParkedAt());
+        assertNotNull(unreachable.getNextAttemptAt());
+        assertNull(unreadable.getParkedAt());
+        assertEquals(1, unreadable.getAttempts());
+    }
+
+    // Private helper methods
+    private void givenBatch(OutboxEvent... events) {
+        when(outboxEventRepository.findDue(any(), anyInt())).thenReturn(List.of(events), List.of());
+    }
+
+    private static OutboxEvent event(Long id, String key) {
+        return OutboxEvent.builder()
+                .id(id)
+                .topic("stock.changed")
+                .eventKey(key)
+                .payload("{\"id\":" + id + "}")
+                .build();
+    }
+
+    private static void assertDelay(OutboxEvent event, LocalDateTime before, LocalDateTime after, Duration delay) {
+        LocalDateTime next = event.getNextAttemptAt();
+        assertTrue(!next.isBefore(before.plus(delay)) && !next.isAfter(after.plus(delay)),
+                () -> "Expected a retry " + delay + " after the failure but got " + next);
+    }
+}
@@ -0,0 +1,106 @@
+package dev.dammak.productservice.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProductSearchIndexTest {
+
+    @Test
+    void rebuildReplaysChangesMadeWhileLoading() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.beginRebuild();
+
+        // Events arriving while the snapshot is read from the database
+        index.index(product(3L, "Steel Kettle", 4));
+        index.remove(1L);
+        index.updateStock(2L, 0);
+        index.index(product(4L, "Glass Kettle", 2));
+        index.remove(4L);
+
+        assertFalse(index.isReady());
+        index.completeRebuild(List.of(product(1L, "Copper Kettle", 7), product(2L, "Electric Kettle", 9)));
+
+        assertTrue(index.isReady());
+        assertEquals(2, index.size());
+        assertEquals(List.of(2L, 3L), search(index, query("kettle")));
+        assertEquals(List.of(3L), search(index, SearchQuery.builder().keyword("kettle").inStock(true).limit(10).build()));
+    }
+
+    @Test
+    void replayedUpdateReplacesTheSnapshotVersion() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.beginRebuild();
+        index.index(product(1L, "Cordless Drill", 3));
+
+        index.completeRebuild(List.of(product(1L, "Hammer Drill", 3)));
+
+        assertEquals(List.of(1L), search(index, query("cordless")));
+        assertTrue(search(index, query("hammer")).isEmpty());
+    }
+
+    @Test
+    void changesBeforeARebuildAreReplacedBySnapshot() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.index(product(9L, "Desk Lamp", 1));
+
+        index.beginRebuild();
+        index.completeRebuild(List.of(product(1L, "Floor Lamp", 1)));
+
+        assertEquals(List.of(1L), search(index, query("lamp")));
+    }
+
+    @Test
+    void changesAfterARebuildAreAppliedOnce() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.beginRebuild();
+        index.completeRebuild(List.of(product(1L, "Floor Lamp", 1)));
+
+        index.index(product(2L, "Desk Lamp", 1));
+        index.beginRebuild();
+        index.completeRebuild(List.of(product(1L, "Floor Lamp", 1), product(2L, "Desk Lamp", 1)));
+
+        assertEquals(2, index.size());
+        assertEquals(2, index.search(query("lamp")).getTotal());
+    }
+
+    @Test
+    void abortedRebuildStopsJournaling() {
+        ProductSearchIndex index = new ProductSearchIndex();
+        index.beginRebuild();
+        index.index(product(3L, "Steel Kettle", 4));
+        index.abortRebuild();
+
+        index.beginRebuild();
+        index.completeRebuild(List.of(product(1L, "Copper Kettle", 7)));
+
+        assertEquals(List.of(1L), search(index, query("kettle")));
+    }
+
+    // Private helper methods
+    private static IndexedProduct product(Long id, String name, int stockQuantity) {
+        return IndexedProduct.builder()
+                .id(id)
+                .name(name)
+                .tags(Set.of())
+                .price(BigDecimal.TEN)
+                .stockQuantity(stockQuantity)
+                .featured(false)
+                .build();
+    }
+
+    private static SearchQuery query(String keyword) {
+        return SearchQuery.builder().keyword(keyword).limit(10).build();
+    }
+
+    private static List<Long> search(ProductSearchIndex index, SearchQuery query) {
+        // Equal relevance falls back to id order
+        return index.search(query).getIds().stream().sorted().toList();
+    }
+}
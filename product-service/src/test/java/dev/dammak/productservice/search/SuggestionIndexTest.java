@@ -0,0 +1,152 @@
+package dev.dammak.productservice.search;
+
+import dev.dammak.productservice.enums.SuggestionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SuggestionIndexTest {
+
+    @Test
+    void splitsEdgesWhereKeysDiverge() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.index(product(1L, "iPhone"));
+        index.index(product(2L, "iPad"));
+        index.index(product(3L, "iPhone Case"));
+
+        assertEquals(List.of("iPad", "iPhone", "iPhone Case"), texts(index.suggest("ip", 10)));
+        assertEquals(List.of("iPhone", "iPhone Case"), texts(index.suggest("iph", 10)));
+        assertEquals(List.of("iPhone Case"), texts(index.suggest("iphone c", 10)));
+        assertEquals(List.of("iPad"), texts(index.suggest("ipa", 10)));
+        assertTrue(index.suggest("ipx", 10).isEmpty());
+        assertTrue(index.suggest("iphones", 10).isEmpty());
+    }
+
+    @Test
+    void findsSuggestionsFromInnerWords() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.index(product(1L, "Apple iPhone 15"));
+
+        List<SuggestionIndex.Suggestion> suggestions = index.suggest("iph", 10);
+
+        assertEquals(List.of("Apple iPhone 15"), texts(suggestions));
+        assertEquals(SuggestionType.PRODUCT, suggestions.get(0).type());
+        assertEquals(1L, suggestions.get(0).productId());
+    }
+
+    @Test
+    void deletesKeysAndPrunesEmptyBranches() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.index(product(1L, "iPhone"));
+        index.index(product(2L, "iPad"));
+        int keys = index.size();
+
+        index.remove(2L);
+
+        assertEquals(keys - 1, index.size());
+        assertEquals(List.of("iPhone"), texts(index.suggest("ip", 10)));
+        assertTrue(index.suggest("ipa", 10).isEmpty());
+
+        index.remove(1L);
+
+        assertEquals(0, index.size());
+        assertTrue(index.suggest("i", 10).isEmpty());
+
+        index.index(product(2L, "iPad"));
+        assertEquals(List.of("iPad"), texts(index.suggest("ip", 10)));
+    }
+
+    @Test
+    void removesTermsWithTheirLastProduct() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.index(product(1L, "Galaxy S24").toBuilder().brand("Samsung").build());
+        index.index(product(2L, "Galaxy Tab").toBuilder().brand("Samsung").build());
+
+        index.remove(1L);
+        assertEquals(List.of("Samsung"), texts(index.suggest("sam", 10)));
+
+        index.remove(2L);
+        assertTrue(index.suggest("sam", 10).isEmpty());
+    }
+
+    @Test
+    void popularityChangesInvalidateCachedTopSuggestions() {
+        SuggestionIndex index = new SuggestionIndex();
+        // Enough keys below "widget" for its best suggestions to be cached rather than scanned
+        for (long id = 1; id <= 100; id++) {
+            index.index(product(id, "Widget " + id));
+        }
+        assertEquals(List.of("Widget 1", "Widget 2", "Widget 3"), texts(index.suggest("widget", 3)));
+
+        index.index(product(77L, "Widget 77").toBuilder().featured(true).stockQuantity(5).build());
+        assertEquals(List.of("Widget 77", "Widget 1", "Widget 2"), texts(index.suggest("widget", 3)));
+
+        index.updateStock(77L, 0);
+        index.index(product(88L, "Widget 88").toBuilder().featured(true).stockQuantity(5).build());
+        assertEquals(List.of("Widget 88", "Widget 77", "Widget 1"), texts(index.suggest("widget", 3)));
+
+        index.remove(88L);
+        index.remove(1L);
+        assertEquals(List.of("Widget 77", "Widget 2", "Widget 3"), texts(index.suggest("widget", 3)));
+    }
+
+    @Test
+    void brandPopularityInvalidatesCachesWithoutTouchingKeys() {
+        SuggestionIndex index = new SuggestionIndex();
+        for (long id = 1; id <= 100; id++) {
+            index.index(product(id, "Item " + id).toBuilder().brand("Acme " + id).build());
+        }
+        assertEquals(List.of("Acme 1", "Acme 2"), texts(index.suggest("acme", 2)));
+
+        // The brand is already indexed, so only its popularity changes
+        index.index(product(101L, "Item 101").toBuilder().brand("Acme 50").build());
+        assertEquals(List.of("Acme 50", "Acme 1"), texts(index.suggest("acme", 2)));
+    }
+
+    @Test
+    void rebuildReplaysChangesMadeWhileLoading() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.index(product(1L, "Kettle"));
+
+        index.beginRebuild();
+        index.index(product(2L, "Keyboard"));
+        index.remove(1L);
+        index.completeRebuild(List.of(product(1L, "Kettle"), product(3L, "Kayak")));
+
+        assertEquals(List.of("Kayak", "Keyboard"), texts(index.suggest("k", 10)));
+    }
+
+    @Test
+    void abortedRebuildStopsJournaling() {
+        SuggestionIndex index = new SuggestionIndex();
+        index.beginRebuild();
+        index.index(product(2L, "iPad"));
+        index.abortRebuild();
+
+        assertEquals(List.of("iPad"), texts(index.suggest("ip", 10)));
+
+        index.beginRebuild();
+        index.completeRebuild(List.of(product(1L, "iPhone")));
+
+        assertEquals(List.of("iPhone"), texts(index.suggest("ip", 10)));
+    }
+
+    // Private helper methods
+    private static IndexedProduct product(Long id, String name) {
+        return IndexedProduct.builder()
+                .id(id)
+                .name(name)
+                .tags(Set.of())
+                .stockQuantity(0)
+                .featured(false)
+                .build();
+    }
+
+    private static List<String> texts(List<SuggestionIndex.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionIndex.Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,215 @@
+package dev.dammak.productservice.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import dev.dammak.productservice.config.InventoryConfig;
+import dev.dammak.productservice.dto.BulkInventoryFailureDto;
+import dev.dammak.productservice.dto.BulkInventoryResultDto;
+import dev.dammak.productservice.exception.ProductException;
+import dev.dammak.productservice.inventory.HotStockAllocator;
+import dev.dammak.productservice.inventory.StockChange;
+import dev.dammak.productservice.inventory.StockChangePublisher;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Array;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class BulkInventoryServiceTest {
+
+    private final Map<Long, Integer> stock = new TreeMap<>();
+    private final List<List<Long>> lockedChunks = new ArrayList<>();
+    private final StockChangePublisher stockChangePublisher = mock(StockChangePublisher.class);
+    private final HotStockAllocator hotStockAllocator = mock(HotStockAllocator.class);
+    private final InventoryConfig inventoryConfig = new InventoryConfig();
+    private Long brokenProductId;
+    private BulkInventoryService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        inventoryConfig.setBulkChunkSize(2);
+        stock.put(1L, 10);
+        stock.put(2L, 5);
+        stock.put(3L, 0);
+
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            Object[] ids = captureIds(invocation.getArgument(1));
+            lockedChunks.add(Arrays.stream(ids).map(Long.class::cast).toList());
+            RowCallbackHandler handler = invocation.getArgument(2);
+            for (Object id : ids) {
+                if (stock.containsKey((Long) id)) {
+                    handler.processRow(row((Long) id));
+                }
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(PreparedStatementSetter.class), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            List<Object[]> args = invocation.getArgument(1);
+            if (args.stream().anyMatch(arg -> arg[1].equals(brokenProductId))) {
+                throw new IllegalStateException("connection reset");
+            }
+            args.forEach(arg -> stock.put((Long) arg[1], (Integer) arg[0]));
+            return new int[args.size()];
+        });
+
+        when(hotStockAllocator.settleSet(anyLong(), any(Integer.class)))
+                .thenAnswer(invocation -> invocation.getArgument(1));
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(new SimpleTransactionStatus());
+
+        service = new BulkInventoryService(jdbcTemplate, stockChangePublisher, hotStockAllocator, inventoryConfig,
+                Validation.buildDefaultValidatorFactory().getValidator(), new ObjectMapper(), transactionManager);
+    }
+
+    @Test
+    void appliesUpdatesInChunksAndInRequestOrder() throws IOException {
+        BulkInventoryResultDto result = run("["
+                + update(2, 3, "ADD") + ","
+                + update(1, 4, "SUBTRACT") + ","
+                + update(2, 1, "SUBTRACT") + ","
+                + update(3, 7, "SET") + ","
+                + update(1, 1, "ADD") + "]");
+
+        assertEquals(5, result.getTotal());
+        assertEquals(5, result.getSucceeded());
+        assertEquals(0, result.getFailed());
+        assertEquals(Map.of(1L, 7, 2L, 7, 3L, 7), stock);
+        // Chunks of two, each locking its rows in id order
+        assertEquals(List.of(List.of(1L, 2L), List.of(2L, 3L), List.of(1L)), lockedChunks);
+        verify(stockChangePublisher, times(3)).publishAll(anyList());
+    }
+
+    @Test
+    void rejectsItemsIndividuallyWithoutStoppingTheBatch() throws IOException {
+        BulkInventoryResultDto result = run("["
+                + update(1, 20, "SUBTRACT") + ","
+                + update(42, 1, "ADD") + ","
+                + update(2, 1, "MULTIPLY") + ","
+                + "{\"productId\": 2, \"operation\": \"ADD\"}" + ","
+                + update(2, 2, "ADD") + "]");
+
+        assertEquals(5, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(4, result.getFailed());
+        assertEquals(List.of(0, 1, 2, 3), indexes(result.getFailures()));
+        assertEquals(Map.of(1L, 10, 2L, 7, 3L, 0), stock);
+        assertTrue(failureAt(result, 0).getMessage().startsWith("Insufficient stock"));
+        assertEquals(42L, failureAt(result, 1).getProductId());
+        assertEquals("Invalid operation: MULTIPLY", failureAt(result, 2).getMessage());
+        assertEquals("Quantity is required", failureAt(result, 3).getMessage());
+    }
+
+    @Test
+    void failedChunkRejectsOnlyItsOwnItems() throws IOException {
+        brokenProductId = 2L;
+
+        BulkInventoryResultDto result = run("["
+                + update(1, 1, "ADD") + ","
+                + update(2, 1, "ADD") + ","
+                + update(3, 1, "ADD") + "]");
+
+        assertEquals(1, result.getSucceeded());
+        assertEquals(List.of(0, 1), indexes(result.getFailures()));
+        assertTrue(result.getFailures().get(0).getMessage().startsWith("Chunk failed"));
+        assertEquals(Map.of(1L, 10, 2L, 5, 3L, 1), stock);
+    }
+
+    @Test
+    void malformedJsonStopsTheStreamButKeepsEarlierUpdates() throws IOException {
+        BulkInventoryResultDto result = run("[" + update(1, 1, "ADD") + ", {\"productId\": }]");
+
+        assertEquals(2, result.getTotal());
+        assertEquals(1, result.getSucceeded());
+        assertEquals(1, failureAt(result, 1).getIndex());
+        assertEquals(11, stock.get(1L));
+        assertThrows(ProductException.class, () -> run("{}"));
+    }
+
+    @Test
+    void publishesTheStockOfHotProductsIncludingHeldQuota() throws IOException {
+        when(hotStockAllocator.heldQuota(1L)).thenReturn(30);
+        when(hotStockAllocator.settleSet(eq(1L), any(Integer.class))).thenReturn(20);
+
+        run("[" + update(1, 5, "ADD") + "," + update(1, 50, "SET") + "]");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<StockChange>> changes = ArgumentCaptor.forClass(Collection.class);
+        verify(stockChangePublisher).publishAll(changes.capture());
+        List<StockChange> published = List.copyOf(changes.getValue());
+        assertEquals(40, published.get(0).oldQuantity());
+        assertEquals(45, published.get(0).newQuantity());
+        assertEquals(50, published.get(1).newQuantity());
+        assertEquals(20, stock.get(1L));
+    }
+
+    // Private helper methods
+    private BulkInventoryResultDto run(String json) throws IOException {
+        return service.bulkUpdateInventory(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String update(long productId, int quantity, String operation) {
+        return "{\"productId\": " + productId + ", \"quantity\": " + quantity + ", \"operation\": \"" + operation + "\"}";
+    }
+
+    private static List<Integer> indexes(List<BulkInventoryFailureDto> failures) {
+        return failures.stream().map(BulkInventoryFailureDto::getIndex).toList();
+    }
+
+    private static BulkInventoryFailureDto failureAt(BulkInventoryResultDto result, int index) {
+        return result.getFailures().stream().filter(failure -> failure.getIndex() == index).findFirst().orElseThrow();
+    }
+
+    private static Object[] captureIds(PreparedStatementSetter setter) throws Exception {
+        PreparedStatement statement = mock(PreparedStatement.class);
+        Connection connection = mock(Connection.class);
+        when(statement.getConnection()).thenReturn(connection);
+        Object[][] ids = new Object[1][];
+        when(connection.createArrayOf(eq("bigint"), any(Object[].class))).thenAnswer(invocation -> {
+            ids[0] = invocation.getArgument(1);
+            return mock(Array.class);
+        });
+        setter.setValues(statement);
+        return ids[0];
+    }
+
+    private ResultSet row(Long id) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong("id")).thenReturn(id);
+        when(rs.getString("sku")).thenReturn("SKU-" + id);
+        when(rs.getInt("stock_quantity")).thenReturn(stock.get(id));
+        when(rs.getObject("min_stock_level", Integer.class)).thenReturn(2);
+        return rs;
+    }
+}